@@ -2,12 +2,18 @@ package cn.yoaoso.threadpool.core.alarm;
 
 import cn.hutool.core.date.DateUtil;
 import cn.yoaoso.threadpool.core.config.ApplicationProperties;
+import cn.yoaoso.threadpool.core.executor.DynamicForkJoinPool;
+import cn.yoaoso.threadpool.core.executor.ForkJoinPoolHolder;
 import cn.yoaoso.threadpool.core.executor.ThreadPoolExecutorHolder;
 import cn.yoaoso.threadpool.core.executor.ThreadPoolExecutorProperties;
 import cn.yoaoso.threadpool.core.executor.ThreadPoolRegistry;
+import cn.yoaoso.threadpool.core.executor.ThreadPoolRuntimeStats;
 import cn.yoaoso.threadpool.core.executor.TidePoolExecutor;
 import cn.yoaoso.threadpool.core.monitor.dto.ThreadPoolAlarmNotifyDTO;
+import cn.yoaoso.threadpool.core.monitor.resource.ThreadPoolResourceUsage;
+import cn.yoaoso.threadpool.core.monitor.resource.ThreadResourceAccounting;
 import cn.yoaoso.threadpool.core.monitor.service.NotifierDispatcher;
+import cn.yoaoso.threadpool.core.monitor.trend.ThreadPoolTrendRecorder;
 import cn.yoaoso.threadpool.core.toolkit.ThreadFactoryBuilder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,6 +35,8 @@ public class ThreadPoolAlarmChecker {
 
     private final NotifierDispatcher notifierDispatcher;
 
+    private final ThreadPoolTrendRecorder trendRecorder;
+
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
             1,
             ThreadFactoryBuilder.builder()
@@ -61,23 +69,54 @@ public class ThreadPoolAlarmChecker {
         Collection<ThreadPoolExecutorHolder> holders = ThreadPoolRegistry.getAllHolders();
         for (ThreadPoolExecutorHolder holder : holders) {
             if (holder.getExecutorProperties().getAlarm().getEnable()) {
-                checkQueueUsage(holder);
-                checkActiveRate(holder);
-                checkRejectCount(holder);
+                // 每个线程池每轮只采集一次快照，各项检查共用
+                ThreadPoolRuntimeStats stats = ThreadPoolRuntimeStats.of(holder.getExecutor());
+                checkQueueUsage(holder, stats);
+                checkActiveRate(holder, stats);
+                checkRejectCount(holder, stats);
+                checkSpillDepth(holder, stats);
+                checkResourceUsage(holder, stats);
+            }
+        }
+
+        for (ForkJoinPoolHolder holder : ThreadPoolRegistry.getAllForkJoinHolders()) {
+            if (holder.getExecutorProperties().getAlarm().getEnable()) {
+                checkForkJoinPool(holder);
             }
         }
     }
 
+    /**
+     * 检查 ForkJoinPool 活跃度（活跃线程数 / 并行度）和外部提交积压（提交队列任务数 / 配置的队列容量）
+     */
+    private void checkForkJoinPool(ForkJoinPoolHolder holder) {
+        DynamicForkJoinPool forkJoinPool = holder.getForkJoinPool();
+        ThreadPoolExecutorProperties properties = holder.getExecutorProperties();
+
+        // ForkJoinPool 没有有界队列，配置了队列容量时将其作为提交积压的告警基准
+        Integer queueCapacity = properties.getQueueCapacity();
+        if (queueCapacity != null && queueCapacity > 0) {
+            int usageRate = (int) Math.round((forkJoinPool.getQueuedSubmissionCount() * 100.0) / queueCapacity);
+            if (usageRate >= properties.getAlarm().getQueueThreshold()) {
+                sendForkJoinAlarmMessage("Capacity", holder);
+            }
+        }
+
+        int parallelism = forkJoinPool.getParallelism();
+        int activeRate = (int) Math.round((forkJoinPool.getActiveThreadCount() * 100.0) / parallelism);
+        if (activeRate >= properties.getAlarm().getActiveThreshold()) {
+            sendForkJoinAlarmMessage("Activity", holder);
+        }
+    }
+
     /**
      * 检查队列使用率
      */
-    private void checkQueueUsage(ThreadPoolExecutorHolder holder) {
-        ThreadPoolExecutor executor = holder.getExecutor();
+    private void checkQueueUsage(ThreadPoolExecutorHolder holder, ThreadPoolRuntimeStats stats) {
         ThreadPoolExecutorProperties properties = holder.getExecutorProperties();
 
-        BlockingQueue<?> queue = executor.getQueue();
-        int queueSize = queue.size();
-        int capacity = queueSize + queue.remainingCapacity();
+        int queueSize = stats.getQueueSize();
+        int capacity = stats.getQueueCapacity();
 
         if (capacity == 0) {
             return;
@@ -87,19 +126,18 @@ public class ThreadPoolAlarmChecker {
         int threshold = properties.getAlarm().getQueueThreshold();
 
         if (usageRate >= threshold) {
-            sendAlarmMessage("Capacity", holder);
+            sendAlarmMessage("Capacity", holder, stats);
         }
     }
 
     /**
      * 检查线程活跃度（活跃线程数 / 最大线程数）
      */
-    private void checkActiveRate(ThreadPoolExecutorHolder holder) {
-        ThreadPoolExecutor executor = holder.getExecutor();
+    private void checkActiveRate(ThreadPoolExecutorHolder holder, ThreadPoolRuntimeStats stats) {
         ThreadPoolExecutorProperties properties = holder.getExecutorProperties();
 
-        int activeCount = executor.getActiveCount(); // API 有锁，避免高频率调用
-        int maximumPoolSize = executor.getMaximumPoolSize();
+        int activeCount = stats.getActiveCount();
+        int maximumPoolSize = stats.getMaximumPoolSize();
 
         if (maximumPoolSize == 0) {
             return;
@@ -109,14 +147,14 @@ public class ThreadPoolAlarmChecker {
         int threshold = properties.getAlarm().getActiveThreshold();
 
         if (activeRate >= threshold) {
-            sendAlarmMessage("Activity", holder);
+            sendAlarmMessage("Activity", holder, stats);
         }
     }
 
     /**
      * 检查拒绝策略执行次数
      */
-    private void checkRejectCount(ThreadPoolExecutorHolder holder) {
+    private void checkRejectCount(ThreadPoolExecutorHolder holder, ThreadPoolRuntimeStats stats) {
         ThreadPoolExecutor executor = holder.getExecutor();
         String threadPoolId = holder.getThreadPoolId();
 
@@ -125,19 +163,52 @@ public class ThreadPoolAlarmChecker {
             return;
         }
 
-       TidePoolExecutor tidePoolExecutor = (TidePoolExecutor) executor;
-        long currentRejectCount = tidePoolExecutor.getRejectCount().get();
+        long currentRejectCount = stats.getRejectCount();
         long lastRejectCount = lastRejectCountMap.getOrDefault(threadPoolId, 0L);
 
         // 首次初始化或拒绝次数增加时触发
         if (currentRejectCount > lastRejectCount) {
-            sendAlarmMessage("Reject", holder);
+            sendAlarmMessage("Reject", holder, stats);
             // 更新最后记录值
             lastRejectCountMap.put(threadPoolId, currentRejectCount);
         }
     }
 
-    private void sendAlarmMessage(String alarmType, ThreadPoolExecutorHolder holder) {
+    /**
+     * 检查磁盘溢出，磁盘中排队的任务数达到溢出深度阈值时触发
+     */
+    private void checkSpillDepth(ThreadPoolExecutorHolder holder, ThreadPoolRuntimeStats stats) {
+        int threshold = holder.getExecutorProperties().getAlarm().getSpillThreshold();
+        if (stats.getSpillDepth() > 0 && stats.getSpillDepth() >= threshold) {
+            sendAlarmMessage("Spill", holder, stats);
+        }
+    }
+
+    /**
+     * 检查 CPU 使用率和内存分配速率，数据来自最近一次资源采集，未配置阈值时不检查
+     */
+    private void checkResourceUsage(ThreadPoolExecutorHolder holder, ThreadPoolRuntimeStats stats) {
+        ThreadPoolExecutorProperties.AlarmConfig alarmConfig = holder.getExecutorProperties().getAlarm();
+        Integer cpuThreshold = alarmConfig.getCpuThreshold();
+        Long allocationThreshold = alarmConfig.getAllocationThreshold();
+        if (cpuThreshold == null && allocationThreshold == null) {
+            return;
+        }
+
+        ThreadPoolResourceUsage usage = ThreadResourceAccounting.getUsage(holder.getThreadPoolId());
+        if (usage == null) {
+            return;
+        }
+
+        if (cpuThreshold != null && usage.getCpuUsage() >= cpuThreshold) {
+            sendAlarmMessage("Cpu", holder, stats);
+        }
+        if (allocationThreshold != null && usage.getAllocationRate() >= allocationThreshold * 1024 * 1024) {
+            sendAlarmMessage("Allocation", holder, stats);
+        }
+    }
+
+    private void sendAlarmMessage(String alarmType, ThreadPoolExecutorHolder holder, ThreadPoolRuntimeStats stats) {
         ThreadPoolExecutorProperties properties = holder.getExecutorProperties();
         String threadPoolId = holder.getThreadPoolId();
 
@@ -154,27 +225,72 @@ public class ThreadPoolAlarmChecker {
                 log.warn("Error in obtaining HostAddress", e);
             }
 
+            // 复用检查时采集的快照，不再调用有锁 API
             ThreadPoolExecutor executor = holder.getExecutor();
-            BlockingQueue<?> queue = executor.getQueue();
-
-            int size = queue.size();
-            int remaining = queue.remainingCapacity();
-            long rejectCount = (executor instanceof TidePoolExecutor)
-                    ? ((TidePoolExecutor) executor).getRejectCount().get()
-                    : -1L;
-
-            alarm.setCorePoolSize(executor.getCorePoolSize())
-                    .setMaximumPoolSize(executor.getMaximumPoolSize())
-                    .setActivePoolSize(executor.getActiveCount())  // API 有锁，避免高频率调用
-                    .setCurrentPoolSize(executor.getPoolSize()) // API 有锁，避免高频率调用
-                    .setCompletedTaskCount(executor.getCompletedTaskCount()) // API 有锁，避免高频率调用
-                    .setLargestPoolSize(executor.getLargestPoolSize()) // API 有锁，避免高频率调用
-                    .setWorkQueueName(queue.getClass().getSimpleName())
+            int size = stats.getQueueSize();
+            int capacity = stats.getQueueCapacity();
+            ThreadPoolResourceUsage usage = ThreadResourceAccounting.getUsage(threadPoolId);
+
+            alarm.setCorePoolSize(stats.getCorePoolSize())
+                    .setMaximumPoolSize(stats.getMaximumPoolSize())
+                    .setActivePoolSize(stats.getActiveCount())
+                    .setCurrentPoolSize(stats.getPoolSize())
+                    .setCompletedTaskCount(stats.getCompletedTaskCount())
+                    .setLargestPoolSize(stats.getLargestPoolSize())
+                    .setWorkQueueName(TidePoolExecutor.workQueueOf(executor).getClass().getSimpleName())
                     .setWorkQueueSize(size)
-                    .setWorkQueueRemainingCapacity(remaining)
-                    .setWorkQueueCapacity(size + remaining)
+                    .setWorkQueueRemainingCapacity(Math.max(0, capacity - size))
+                    .setWorkQueueCapacity(capacity)
                     .setRejectedHandlerName(executor.getRejectedExecutionHandler().toString())
-                    .setRejectCount(rejectCount)
+                    .setRejectCount(stats.getRejectCount())
+                    .setSpillDepth(stats.getSpillDepth())
+                    .setSpillWriteBytes(stats.getSpillWriteBytes())
+                    .setSpillReadBytes(stats.getSpillReadBytes())
+                    .setCpuUsage(usage != null ? (int) Math.round(usage.getCpuUsage()) : null)
+                    .setAllocationRate(usage != null ? usage.getAllocationRate() : null)
+                    .setTrend(trendRecorder.alarmTrend(threadPoolId))
+                    .setCurrentTime(DateUtil.now())
+                    .setApplicationName(ApplicationProperties.getApplicationName())
+                    .setActiveProfile(ApplicationProperties.getActiveProfile())
+                    .setReceives(properties.getNotify().getReceives());
+            return alarm;
+        });
+
+        notifierDispatcher.sendAlarmMessage(alarm);
+    }
+
+    private void sendForkJoinAlarmMessage(String alarmType, ForkJoinPoolHolder holder) {
+        ThreadPoolExecutorProperties properties = holder.getExecutorProperties();
+
+        ThreadPoolAlarmNotifyDTO alarm = ThreadPoolAlarmNotifyDTO.builder()
+                .alarmType(alarmType)
+                .threadPoolId(holder.getThreadPoolId())
+                .interval(properties.getNotify().getInterval())
+                .build();
+
+        alarm.setSupplier(() -> {
+            try {
+                alarm.setIdentify(InetAddress.getLocalHost().getHostAddress());
+            } catch (UnknownHostException e) {
+                log.warn("Error in obtaining HostAddress", e);
+            }
+
+            // ForkJoinPool 的统计方法均为无锁读取，核心线程数对应并行度
+            DynamicForkJoinPool forkJoinPool = holder.getForkJoinPool();
+            int queuedSubmissionCount = forkJoinPool.getQueuedSubmissionCount();
+            int queuedTaskCount = (int) Math.min(Integer.MAX_VALUE, forkJoinPool.getQueuedTaskCount() + queuedSubmissionCount);
+
+            alarm.setCorePoolSize(forkJoinPool.getParallelism())
+                    .setMaximumPoolSize(forkJoinPool.getMaximumPoolSize())
+                    .setActivePoolSize(forkJoinPool.getActiveThreadCount())
+                    .setCurrentPoolSize(forkJoinPool.getPoolSize())
+                    .setRunningThreadCount(forkJoinPool.getRunningThreadCount())
+                    .setStealCount(forkJoinPool.getStealCount())
+                    .setQueuedSubmissionCount(queuedSubmissionCount)
+                    .setWorkQueueName(ForkJoinPool.class.getSimpleName())
+                    .setWorkQueueSize(queuedTaskCount)
+                    .setWorkQueueCapacity(properties.getQueueCapacity())
+                    .setRejectCount(-1L)
                     .setCurrentTime(DateUtil.now())
                     .setApplicationName(ApplicationProperties.getApplicationName())
                     .setActiveProfile(ApplicationProperties.getActiveProfile())
@@ -0,0 +1,246 @@
+package cn.yoaoso.threadpool.core.autoscale;
+
+import cn.hutool.core.date.DateUtil;
+import cn.yoaoso.threadpool.core.config.ApplicationProperties;
+import cn.yoaoso.threadpool.core.executor.ThreadPoolExecutorHolder;
+import cn.yoaoso.threadpool.core.executor.ThreadPoolExecutorProperties;
+import cn.yoaoso.threadpool.core.executor.ThreadPoolRegistry;
+import cn.yoaoso.threadpool.core.executor.ThreadPoolRuntimeStats;
+import cn.yoaoso.threadpool.core.executor.TidePoolExecutor;
+import cn.yoaoso.threadpool.core.monitor.dto.ThreadPoolConfigChangeDTO;
+import cn.yoaoso.threadpool.core.monitor.service.NotifierDispatcher;
+import cn.yoaoso.threadpool.core.toolkit.ThreadFactoryBuilder;
+import cn.yoaoso.threadpool.core.toolkit.ThreadPoolSizeUpdater;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static cn.yoaoso.threadpool.core.constant.Constants.CHANGE_AUTO_SCALE_TEXT;
+import static cn.yoaoso.threadpool.core.constant.Constants.CHANGE_DELIMITER;
+
+/**
+ * @author Drayd
+ * @description 线程池自动扩缩容，按线程池配置开启，周期性根据吞吐量、排队耗时和繁忙率在上下限内调整核心线程数和最大线程数
+ * <p>
+ * 由利特尔法则，平均繁忙线程数 = 吞吐量 × 平均执行耗时，直接由累计执行耗时之差除以采样间隔得到，
+ * 除以目标繁忙率即为承载当前负载所需的核心线程数；平均排队耗时 = 队列长度 / 吞吐量，超过目标时按比值梯度扩容
+ * 调整与配置中心刷新走同一套有序更新逻辑，并加同一把线程池 ID 锁；每次调整受步长和冷却时间限制，缩容留有滞回区间，避免震荡
+ * 自动调整只作用于运行中的线程池，不修改持有对象中的配置，配置中心下发的参数仍以远程配置为准
+ * @create 2026-10-18 14:10
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ThreadPoolAutoScaler {
+
+    private final NotifierDispatcher notifierDispatcher;
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+            1,
+            ThreadFactoryBuilder.builder()
+                    .namePrefix("scheduler_thread-pool_auto_scaler")
+                    .build()
+    );
+
+    /**
+     * 各线程池上一次采样结果
+     */
+    private final Map<String, Sample> sampleMap = new ConcurrentHashMap<>();
+
+    /**
+     * 启动定时调整任务
+     */
+    public void start() {
+        // 每秒检查一次，各线程池按自身采样周期评估
+        scheduler.scheduleWithFixedDelay(this::checkAutoScale, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 停止定时调整任务
+     */
+    public void stop() {
+        if (!scheduler.isShutdown()) {
+            scheduler.shutdown();
+        }
+    }
+
+    private void checkAutoScale() {
+        for (ThreadPoolExecutorHolder holder : ThreadPoolRegistry.getAllHolders()) {
+            String threadPoolId = holder.getThreadPoolId();
+            ThreadPoolExecutorProperties.AutoScaleConfig autoScale = holder.getExecutorProperties().getAutoScale();
+            // 只处理自定义线程池类型，依赖其无锁计数器
+            if (autoScale == null || !Boolean.TRUE.equals(autoScale.getEnable())
+                    || !(holder.getExecutor() instanceof TidePoolExecutor)) {
+                sampleMap.remove(threadPoolId);
+                continue;
+            }
+
+            // 与配置中心刷新共用线程池 ID 锁，避免同时修改线程数
+            synchronized (ThreadPoolRegistry.getLock(threadPoolId)) {
+                try {
+                    autoScale(holder, autoScale);
+                } catch (Exception ex) {
+                    // 异常会终止后续调度，只记录日志
+                    log.warn("[{}] Failed to auto scale thread pool.", threadPoolId, ex);
+                }
+            }
+        }
+    }
+
+    private void autoScale(ThreadPoolExecutorHolder holder, ThreadPoolExecutorProperties.AutoScaleConfig autoScale) {
+        String threadPoolId = holder.getThreadPoolId();
+        TidePoolExecutor executor = (TidePoolExecutor) holder.getExecutor();
+        ThreadPoolRuntimeStats stats = executor.getRuntimeStats();
+        long nowNanos = System.nanoTime();
+        long busyNanos = executor.getBusyNanos();
+
+        Sample last = sampleMap.get(threadPoolId);
+        if (last == null) {
+            // 首次采样只记录基线，启动后同样需要等待一个冷却时间才会调整
+            sampleMap.put(threadPoolId, new Sample(nowNanos, stats.getCompletedTaskCount(), busyNanos, nowNanos));
+            return;
+        }
+        long elapsedNanos = nowNanos - last.timeNanos;
+        if (elapsedNanos < TimeUnit.SECONDS.toNanos(autoScale.getInterval())) {
+            return;
+        }
+
+        double throughput = (stats.getCompletedTaskCount() - last.completedTaskCount) * 1_000_000_000D / elapsedNanos;
+        // 执行耗时在任务结束时才累计，长任务跨越采样周期时以当前活跃线程数兜底
+        double busyThreads = Math.max((busyNanos - last.busyNanos) / (double) elapsedNanos, stats.getActiveCount());
+        double queueWaitMillis = throughput > 0D
+                ? stats.getQueueSize() * 1000D / throughput
+                : (stats.getQueueSize() > 0 ? Double.POSITIVE_INFINITY : 0D);
+
+        last.timeNanos = nowNanos;
+        last.completedTaskCount = stats.getCompletedTaskCount();
+        last.busyNanos = busyNanos;
+        if (nowNanos - last.changeNanos < TimeUnit.SECONDS.toNanos(autoScale.getCooldown())) {
+            return;
+        }
+
+        ThreadPoolExecutorProperties properties = holder.getExecutorProperties();
+        int originalCorePoolSize = executor.getCorePoolSize();
+        int originalMaximumPoolSize = executor.getMaximumPoolSize();
+        int configuredCorePoolSize = Objects.requireNonNullElse(properties.getCorePoolSize(), originalCorePoolSize);
+        int configuredMaximumPoolSize = Objects.requireNonNullElse(properties.getMaximumPoolSize(), originalMaximumPoolSize);
+        int minPoolSize = Objects.requireNonNullElse(autoScale.getMinPoolSize(), configuredCorePoolSize);
+        int maxPoolSize = Math.max(minPoolSize, Objects.requireNonNullElse(autoScale.getMaxPoolSize(), configuredMaximumPoolSize));
+
+        int corePoolSize = computeCorePoolSize(autoScale, originalCorePoolSize, busyThreads, queueWaitMillis);
+        corePoolSize = Math.min(maxPoolSize, Math.max(minPoolSize, corePoolSize));
+        // 最大线程数与核心线程数保持配置中的差值，作为突发流量的余量
+        int headroom = Math.max(0, configuredMaximumPoolSize - configuredCorePoolSize);
+        int maximumPoolSize = Math.max(corePoolSize, Math.min(maxPoolSize, corePoolSize + headroom));
+        if (corePoolSize == originalCorePoolSize && maximumPoolSize == originalMaximumPoolSize) {
+            return;
+        }
+
+        ThreadPoolSizeUpdater.update(executor, corePoolSize, maximumPoolSize);
+        last.changeNanos = nowNanos;
+
+        sendAutoScaleMessage(holder, originalCorePoolSize, corePoolSize, originalMaximumPoolSize, maximumPoolSize);
+        log.info(CHANGE_AUTO_SCALE_TEXT,
+                threadPoolId,
+                String.format(CHANGE_DELIMITER, originalCorePoolSize, corePoolSize),
+                String.format(CHANGE_DELIMITER, originalMaximumPoolSize, maximumPoolSize),
+                String.format("%.1f", throughput),
+                String.format("%.2f", busyThreads),
+                Double.isInfinite(queueWaitMillis) ? "∞" : String.format("%.1f", queueWaitMillis)
+        );
+    }
+
+    /**
+     * 计算目标核心线程数，未做上下限约束
+     */
+    private int computeCorePoolSize(ThreadPoolExecutorProperties.AutoScaleConfig autoScale,
+                                    int originalCorePoolSize,
+                                    double busyThreads,
+                                    double queueWaitMillis) {
+        double targetActiveRate = Math.max(1, autoScale.getTargetActiveRate()) / 100D;
+        double targetQueueWaitMillis = Math.max(1L, autoScale.getTargetQueueWaitMillis());
+        int maxStep = Math.max(1, autoScale.getMaxStep());
+
+        // 利特尔法则：承载当前负载所需线程数 = 平均繁忙线程数 / 目标繁忙率
+        int corePoolSize = (int) Math.ceil(busyThreads / targetActiveRate);
+        if (queueWaitMillis > targetQueueWaitMillis) {
+            // 排队超出目标，按实际与目标的比值梯度扩容，单轮最多翻倍
+            double gradient = Math.min(2D, queueWaitMillis / targetQueueWaitMillis);
+            corePoolSize = Math.max(corePoolSize, (int) Math.ceil(Math.max(1, originalCorePoolSize) * gradient));
+        } else if (corePoolSize < originalCorePoolSize && queueWaitMillis > targetQueueWaitMillis / 2) {
+            // 排队耗时接近目标时不缩容，留出滞回区间
+            corePoolSize = originalCorePoolSize;
+        }
+
+        return Math.min(originalCorePoolSize + maxStep, Math.max(originalCorePoolSize - maxStep, corePoolSize));
+    }
+
+    private void sendAutoScaleMessage(ThreadPoolExecutorHolder holder,
+                                      int originalCorePoolSize, int corePoolSize,
+                                      int originalMaximumPoolSize, int maximumPoolSize) {
+        ThreadPoolExecutorProperties properties = holder.getExecutorProperties();
+        String identify = null;
+        try {
+            identify = InetAddress.getLocalHost().getHostAddress();
+        } catch (UnknownHostException e) {
+            log.warn("Error in obtaining HostAddress", e);
+        }
+
+        Map<String, ThreadPoolConfigChangeDTO.ChangePair<?>> changes = new HashMap<>();
+        changes.put("corePoolSize", new ThreadPoolConfigChangeDTO.ChangePair<>(originalCorePoolSize, corePoolSize));
+        changes.put("maximumPoolSize", new ThreadPoolConfigChangeDTO.ChangePair<>(originalMaximumPoolSize, maximumPoolSize));
+
+        ThreadPoolConfigChangeDTO configChangeDTO = ThreadPoolConfigChangeDTO.builder()
+                .activeProfile(ApplicationProperties.getActiveProfile())
+                .identify(identify)
+                .applicationName(ApplicationProperties.getApplicationName())
+                .threadPoolId(holder.getThreadPoolId())
+                .receives(properties.getNotify() != null ? properties.getNotify().getReceives() : null)
+                .workQueue(properties.getWorkQueue())
+                .changes(changes)
+                .updateTime(DateUtil.now())
+                .build();
+        notifierDispatcher.sendChangeMessage(configChangeDTO);
+    }
+
+    /**
+     * 线程池采样点
+     */
+    private static class Sample {
+
+        /**
+         * 采样时间
+         */
+        private long timeNanos;
+
+        /**
+         * 累计完成任务数
+         */
+        private long completedTaskCount;
+
+        /**
+         * 累计执行耗时
+         */
+        private long busyNanos;
+
+        /**
+         * 上一次调整时间
+         */
+        private long changeNanos;
+
+        Sample(long timeNanos, long completedTaskCount, long busyNanos, long changeNanos) {
+            this.timeNanos = timeNanos;
+            this.completedTaskCount = completedTaskCount;
+            this.busyNanos = busyNanos;
+            this.changeNanos = changeNanos;
+        }
+    }
+}
@@ -53,6 +53,11 @@ public class BootstrapConfigProperties {
      */
     private MonitorConfig monitor = new MonitorConfig();
 
+    /**
+     * 应用关闭时等待所有线程池执行完剩余任务的全局超时时间，单位毫秒，各线程池的等待时间不超过该值
+     */
+    private Long shutdownTimeoutMillis = 30000L;
+
     /**
      * 线程池配置集合
      */
@@ -89,6 +94,88 @@ public class BootstrapConfigProperties {
          * 采集间隔，默认 10 秒
          */
         private Long collectInterval = 10L;
+
+        /**
+         * Prometheus 文本格式导出端点配置
+         */
+        private PrometheusConfig prometheus = new PrometheusConfig();
+
+        /**
+         * 线程池运行趋势采样配置
+         */
+        private TrendConfig trend = new TrendConfig();
+
+        /**
+         * 线程池 CPU 时间和内存分配采集配置
+         */
+        private ResourceConfig resource = new ResourceConfig();
+    }
+
+    @Data
+    public static class ResourceConfig {
+
+        /**
+         * 是否开启采集，默认开启
+         */
+        private Boolean enable = Boolean.TRUE;
+
+        /**
+         * 采集间隔，单位秒
+         */
+        private Long interval = 5L;
+    }
+
+    @Data
+    public static class TrendConfig {
+
+        /**
+         * 是否开启趋势采样，默认开启
+         */
+        private Boolean enable = Boolean.TRUE;
+
+        /**
+         * 采样间隔，单位秒
+         */
+        private Long sampleInterval = 1L;
+
+        /**
+         * 每个线程池保留的采样点数，默认按每秒一次保留最近一小时
+         */
+        private Integer retention = 3600;
+
+        /**
+         * 告警消息附带的趋势时长，单位分钟，小于等于 0 时不附带
+         */
+        private Integer alarmMinutes = 5;
+
+        /**
+         * 告警消息附带的趋势降采样步长，单位秒
+         */
+        private Integer alarmStep = 10;
+    }
+
+    @Data
+    public static class PrometheusConfig {
+
+        /**
+         * 是否开启导出端点，默认关闭；开启后不依赖 Actuator，由 JDK 内置 HttpServer 单独监听端口
+         */
+        private Boolean enable = Boolean.FALSE;
+
+        /**
+         * 监听地址，默认所有网卡
+         */
+        private String host = "0.0.0.0";
+
+        /**
+         * 监听端口
+         */
+        private Integer port = 9464;
+
+        /**
+         * 指标路径
+         */
+        private String path = "/metrics";
     }
 
     @Data
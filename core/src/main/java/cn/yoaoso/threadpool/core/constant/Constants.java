@@ -11,11 +11,29 @@ public class Constants {
     public static final String CHANGE_THREAD_POOL_TEXT = "[{}] Dynamic thread pool parameter changed:"
             + "\n    corePoolSize: {}"
             + "\n    maximumPoolSize: {}"
+            + "\n    workQueue: {}"
             + "\n    capacity: {}"
             + "\n    keepAliveTime: {}"
             + "\n    rejectedType: {}"
             + "\n    allowCoreThreadTimeOut: {}";
 
+    /**
+     * ForkJoinPool 参数变更日志打印常量
+     */
+    public static final String CHANGE_FORK_JOIN_POOL_TEXT = "[{}] Dynamic fork join pool parameter changed:"
+            + "\n    parallelism: {}"
+            + "\n    maximumPoolSize: {}";
+
+    /**
+     * 线程池自动扩缩容日志打印常量
+     */
+    public static final String CHANGE_AUTO_SCALE_TEXT = "[{}] Dynamic thread pool auto scaled:"
+            + "\n    corePoolSize: {}"
+            + "\n    maximumPoolSize: {}"
+            + "\n    throughput: {}/s"
+            + "\n    busyThreads: {}"
+            + "\n    queueWait: {}ms";
+
     /**
      * 线程池参数变更前后分隔符常量
      */
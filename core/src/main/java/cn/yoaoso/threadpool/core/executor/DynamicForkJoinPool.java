@@ -0,0 +1,302 @@
+package cn.yoaoso.threadpool.core.executor;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * @author Drayd
+ * @description 支持动态调整并行度的 ForkJoinPool 执行器，适用于递归拆分、工作窃取类任务
+ * <p>
+ * 内部委托给一个 {@link ForkJoinPool}，并行度对应配置中的核心线程数，最大线程数对应补偿线程上限
+ * JDK 19+ 通过 ForkJoinPool#setParallelism 原地调整并行度；低版本或调整最大线程数时创建新的 ForkJoinPool 替换，
+ * 旧池优雅关闭，已提交和已拆分的子任务在旧池中继续执行完毕；替换期间提交到旧池被拒绝的任务改投当前委托池
+ * @create 2026-10-18 12:50
+ */
+@Slf4j
+public class DynamicForkJoinPool extends AbstractExecutorService {
+
+    /**
+     * JDK 19+ 提供的 ForkJoinPool#setParallelism，低版本为空
+     */
+    private static final MethodHandle SET_PARALLELISM = findSetParallelism();
+
+    /**
+     * 补偿线程空闲存活时间，单位秒
+     */
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    /**
+     * 线程池唯一标识，用来动态变更参数
+     */
+    @Getter
+    private final String threadPoolId;
+
+    /**
+     * 是否使用 FIFO 调度本地任务，适合只提交不 join 的事件型任务
+     */
+    @Getter
+    private final boolean asyncMode;
+
+    /**
+     * 工作线程编号
+     */
+    private final AtomicLong threadCounter = new AtomicLong();
+
+    /**
+     * 已被替换且已终止的旧池累计窃取次数，未终止的旧池仍在窃取，查询时实时累加
+     */
+    private final AtomicLong retiredStealCount = new AtomicLong();
+
+    /**
+     * 已被替换但尚未终止的旧池
+     */
+    private final List<ForkJoinPool> retiredPools = new CopyOnWriteArrayList<>();
+
+    /**
+     * 最大线程数（并行度 + 补偿线程）
+     */
+    @Getter
+    private volatile int maximumPoolSize;
+
+    /**
+     * 当前委托的 ForkJoinPool
+     */
+    private volatile ForkJoinPool delegate;
+
+    public DynamicForkJoinPool(@NonNull String threadPoolId, int parallelism, int maximumPoolSize, boolean asyncMode) {
+        this.threadPoolId = threadPoolId;
+        this.asyncMode = asyncMode;
+        this.maximumPoolSize = maximumPoolSize;
+        this.delegate = newForkJoinPool(parallelism, maximumPoolSize);
+    }
+
+    private static MethodHandle findSetParallelism() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(ForkJoinPool.class, "setParallelism", MethodType.methodType(int.class, int.class));
+        } catch (NoSuchMethodException | IllegalAccessException ex) {
+            return null;
+        }
+    }
+
+    private ForkJoinPool newForkJoinPool(int parallelism, int maximumPoolSize) {
+        ForkJoinPool.ForkJoinWorkerThreadFactory threadFactory = pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(threadPoolId + "_" + threadCounter.getAndIncrement());
+            return thread;
+        };
+        return new ForkJoinPool(parallelism, threadFactory, null, asyncMode,
+                0, Math.max(parallelism, maximumPoolSize), 1, null, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 获取当前委托的 ForkJoinPool，用于 fork/join 等原生 API
+     */
+    public ForkJoinPool getForkJoinPool() {
+        return delegate;
+    }
+
+    /**
+     * 调整并行度
+     *
+     * @param parallelism 新的并行度
+     */
+    public synchronized void setParallelism(int parallelism) {
+        if (parallelism <= 0 || parallelism > maximumPoolSize) {
+            throw new IllegalArgumentException("The parallelism must be between 1 and maximumPoolSize.");
+        }
+        if (parallelism == delegate.getParallelism()) {
+            return;
+        }
+        if (SET_PARALLELISM != null) {
+            try {
+                int previous = (int) SET_PARALLELISM.invokeExact(delegate, parallelism);
+                log.debug("[{}] Fork join pool parallelism changed in place: {} => {}", threadPoolId, previous, parallelism);
+                return;
+            } catch (Throwable ex) {
+                log.warn("[{}] Failed to set parallelism in place, fallback to replacing the pool.", threadPoolId, ex);
+            }
+        }
+        replaceDelegate(parallelism, maximumPoolSize);
+    }
+
+    /**
+     * 调整最大线程数，ForkJoinPool 不支持原地修改，需要替换委托池
+     *
+     * @param maximumPoolSize 新的最大线程数
+     */
+    public synchronized void setMaximumPoolSize(int maximumPoolSize) {
+        if (maximumPoolSize < delegate.getParallelism()) {
+            throw new IllegalArgumentException("The maximumPoolSize must not be less than parallelism.");
+        }
+        if (maximumPoolSize == this.maximumPoolSize) {
+            return;
+        }
+        this.maximumPoolSize = maximumPoolSize;
+        replaceDelegate(delegate.getParallelism(), maximumPoolSize);
+    }
+
+    private void replaceDelegate(int parallelism, int maximumPoolSize) {
+        ForkJoinPool original = delegate;
+        if (original.isShutdown()) {
+            throw new IllegalStateException("The fork join pool has been shut down.");
+        }
+        delegate = newForkJoinPool(parallelism, maximumPoolSize);
+        original.shutdown();
+        retiredPools.add(original);
+        for (ForkJoinPool each : retiredPools) {
+            // 终止后窃取次数不再变化，转入累计值
+            if (each.isTerminated() && retiredPools.remove(each)) {
+                retiredStealCount.addAndGet(each.getStealCount());
+            }
+        }
+    }
+
+    /**
+     * 在当前委托池上执行操作，提交时委托池恰好被替换并关闭导致拒绝的，改投新的委托池
+     */
+    private <T> T onDelegate(Function<ForkJoinPool, T> action) {
+        for (; ; ) {
+            ForkJoinPool pool = delegate;
+            try {
+                return action.apply(pool);
+            } catch (RejectedExecutionException ex) {
+                // 替换时先发布新的委托池再关闭旧池，委托池未变说明是真正的拒绝
+                if (pool == delegate) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    public <T> T invoke(ForkJoinTask<T> task) {
+        return onDelegate(pool -> pool.invoke(task));
+    }
+
+    public <T> ForkJoinTask<T> submit(ForkJoinTask<T> task) {
+        return onDelegate(pool -> pool.submit(task));
+    }
+
+    public void execute(ForkJoinTask<?> task) {
+        onDelegate(pool -> {
+            pool.execute(task);
+            return null;
+        });
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        onDelegate(pool -> {
+            pool.execute(command);
+            return null;
+        });
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> tasks = new ArrayList<>(delegate.shutdownNow());
+        for (ForkJoinPool each : retiredPools) {
+            tasks.addAll(each.shutdownNow());
+        }
+        return tasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated() && retiredPools.stream().allMatch(ForkJoinPool::isTerminated);
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ForkJoinPool each : retiredPools) {
+            if (!each.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return delegate.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 并行度
+     */
+    public int getParallelism() {
+        return delegate.getParallelism();
+    }
+
+    /**
+     * 已启动但未终止的工作线程数
+     */
+    public int getPoolSize() {
+        return delegate.getPoolSize();
+    }
+
+    /**
+     * 正在窃取或执行任务的线程数
+     */
+    public int getActiveThreadCount() {
+        return delegate.getActiveThreadCount();
+    }
+
+    /**
+     * 未阻塞在 join 或其他同步操作上的工作线程数
+     */
+    public int getRunningThreadCount() {
+        return delegate.getRunningThreadCount();
+    }
+
+    /**
+     * 累计窃取任务次数，包括已被替换的旧池
+     */
+    public long getStealCount() {
+        long stealCount = retiredStealCount.get() + delegate.getStealCount();
+        for (ForkJoinPool each : retiredPools) {
+            stealCount += each.getStealCount();
+        }
+        return stealCount;
+    }
+
+    /**
+     * 外部提交、尚未开始执行的任务数
+     */
+    public int getQueuedSubmissionCount() {
+        return delegate.getQueuedSubmissionCount();
+    }
+
+    /**
+     * 工作线程队列中的任务数（不含外部提交队列）
+     */
+    public long getQueuedTaskCount() {
+        return delegate.getQueuedTaskCount();
+    }
+
+    @Override
+    public String toString() {
+        return threadPoolId + ": " + delegate;
+    }
+}
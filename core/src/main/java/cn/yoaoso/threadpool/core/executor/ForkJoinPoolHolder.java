@@ -0,0 +1,28 @@
+package cn.yoaoso.threadpool.core.executor;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * @author Drayd
+ * @description ForkJoinPool 动态线程池持有对象
+ * @create 2026-10-18 13:05
+ */
+@Data
+@AllArgsConstructor
+public class ForkJoinPoolHolder {
+    /**
+     * 线程池唯一标识
+     */
+    private String threadPoolId;
+
+    /**
+     * 动态 ForkJoinPool
+     */
+    private DynamicForkJoinPool forkJoinPool;
+
+    /**
+     * 线程池属性参数，核心线程数对应并行度
+     */
+    private ThreadPoolExecutorProperties executorProperties;
+}
@@ -0,0 +1,185 @@
+package cn.yoaoso.threadpool.core.executor;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * @author Drayd
+ * @description 按 key 串行执行任务的执行器，基于已注册的动态线程池
+ * <p>
+ * 相同 key 的任务按提交顺序依次执行，不同 key 的任务并发执行；每个活跃的 key 同一时刻最多占用线程池一个任务位，
+ * 由一个调度任务连续执行该 key 的积压任务，执行完毕即释放线程，不为 key 固定分配线程
+ * key 的任务队列为空时立即移除，不会随 key 的数量无限增长；在 key 队列中等待的任务计入线程池的队列元素数量，参与队列容量告警
+ * <p>
+ * 线程池拒绝调度任务时，本次提交抛出 {@link RejectedExecutionException}
+ * <p>
+ * 调度任务在线程池队列中等待时承载了该 key 的全部后续任务，一旦被移出队列而不执行，key 会一直留在映射中，之后提交的同 key 任务只会追加、永远不会执行。以下情况会造成这种后果：
+ * <ul>
+ * <li>拒绝策略静默丢弃被拒绝的调度任务，如 DiscardPolicy</li>
+ * <li>拒绝策略为新任务腾位置而丢弃队头，如 DiscardOldestPolicy，队头可能是任意 key 的调度任务</li>
+ * <li>调用方直接对线程池的 getQueue() 执行 remove、poll 或 clear，或调用 remove(Runnable) 移除调度任务</li>
+ * </ul>
+ * 承载的线程池应使用 AbortPolicy、CallerRunsPolicy 或背压类拒绝策略；{@link cn.yoaoso.threadpool.core.executor.support.CoDelTaskQueue} 按排队时长丢弃任务时会跳过调度任务，可以使用
+ * @create 2026-10-18 15:20
+ */
+@Slf4j
+public class KeyedSerialExecutor {
+
+    /**
+     * 承载任务的动态线程池
+     */
+    @Getter
+    private final TidePoolExecutor executor;
+
+    /**
+     * 活跃 key 的调度任务，key 的任务全部执行完毕后移除
+     */
+    private final Map<Object, SerialWorker> workers = new ConcurrentHashMap<>();
+
+    public KeyedSerialExecutor(@NonNull TidePoolExecutor executor) {
+        this.executor = executor;
+        RejectedExecutionHandler handler = executor.getOriginalRejectedHandler();
+        if (handler instanceof ThreadPoolExecutor.DiscardPolicy || handler instanceof ThreadPoolExecutor.DiscardOldestPolicy) {
+            log.warn("[{}] Rejected handler {} may discard queued serial workers, tasks of the affected keys will never run.",
+                    executor.getThreadPoolId(), handler.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * 基于已注册的动态线程池创建执行器
+     *
+     * @param threadPoolId 线程池唯一标识
+     * @return 按 key 串行执行任务的执行器
+     */
+    public static KeyedSerialExecutor of(String threadPoolId) {
+        ThreadPoolExecutorHolder holder = ThreadPoolRegistry.getHolder(threadPoolId);
+        if (holder == null) {
+            throw new IllegalArgumentException("Thread pool not registered: " + threadPoolId);
+        }
+        ThreadPoolExecutor executor = holder.getExecutor();
+        if (!(executor instanceof TidePoolExecutor)) {
+            throw new IllegalArgumentException("Thread pool is not a TidePoolExecutor: " + threadPoolId);
+        }
+        return new KeyedSerialExecutor((TidePoolExecutor) executor);
+    }
+
+    /**
+     * 提交任务，与之前提交的同 key 任务串行执行
+     *
+     * @param key  串行执行的 key，如账户 ID
+     * @param task 任务
+     */
+    public void execute(@NonNull Object key, @NonNull Runnable task) {
+        SerialWorker[] created = new SerialWorker[1];
+        // 追加任务和调度任务退出时移除 key 都在 compute 内完成，同一个 key 的两个操作互斥
+        workers.compute(key, (k, worker) -> {
+            if (worker == null) {
+                created[0] = new SerialWorker(k, task);
+                return created[0];
+            }
+            worker.pending.addLast(task);
+            return worker;
+        });
+        if (created[0] == null) {
+            executor.addKeyedBacklog(1);
+            return;
+        }
+
+        try {
+            executor.execute(created[0]);
+        } catch (RejectedExecutionException ex) {
+            // 调度任务未能提交，撤回该 key；其间追加到该 key 的任务已经返回给提交方，只能在当前线程按顺序执行
+            Runnable next;
+            while ((next = created[0].poll()) != null) {
+                created[0].runTask(next);
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * 获取当前有任务在执行或等待执行的 key 数量
+     */
+    public int getActiveKeyCount() {
+        return workers.size();
+    }
+
+    /**
+     * 判断任务是否为串行执行器的调度任务，调度任务承载了同 key 的后续任务，队列不能主动丢弃
+     *
+     * @param runnable 线程池队列中的任务（已解除包装）
+     */
+    public static boolean isSerialWorker(Runnable runnable) {
+        return runnable instanceof SerialWorker;
+    }
+
+    /**
+     * 单个 key 的调度任务，依次执行该 key 的任务直到队列为空
+     */
+    private final class SerialWorker implements Runnable {
+
+        private final Object key;
+
+        /**
+         * 首个任务，由调度任务直接携带，不计入积压
+         */
+        private Runnable first;
+
+        /**
+         * 后续任务，只在 compute 内访问
+         */
+        private final ArrayDeque<Runnable> pending = new ArrayDeque<>();
+
+        private SerialWorker(Object key, Runnable first) {
+            this.key = key;
+            this.first = first;
+        }
+
+        @Override
+        public void run() {
+            Runnable task = first;
+            first = null;
+            while (task != null) {
+                runTask(task);
+                task = poll();
+            }
+        }
+
+        /**
+         * 取出下一个任务，没有任务时移除 key
+         */
+        private Runnable poll() {
+            Runnable[] next = new Runnable[1];
+            workers.computeIfPresent(key, (k, worker) -> {
+                next[0] = worker.pending.pollFirst();
+                return next[0] == null ? null : worker;
+            });
+            if (next[0] != null) {
+                executor.addKeyedBacklog(-1);
+            }
+            return next[0];
+        }
+
+        private void runTask(Runnable task) {
+            try {
+                task.run();
+            } catch (Throwable ex) {
+                // 单个任务异常不能中断同 key 的后续任务
+                log.warn("[{}] Keyed task threw exception, key: {}", executor.getThreadPoolId(), key, ex);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "SerialWorker[key=" + key + "]";
+        }
+    }
+}
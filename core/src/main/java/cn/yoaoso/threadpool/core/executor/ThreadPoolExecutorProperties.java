@@ -1,5 +1,7 @@
 package cn.yoaoso.threadpool.core.executor;
 
+import cn.yoaoso.threadpool.core.executor.support.SerializableTaskCodec;
+import cn.yoaoso.threadpool.core.executor.support.SpillableBlockingQueue;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -47,6 +49,11 @@ public class ThreadPoolExecutorProperties {
      */
     private String rejectedHandler;
 
+    /**
+     * 拒绝策略参数，仅对需要参数的拒绝策略（BlockingOfferPolicy、RetryBackoffPolicy、OverflowHandoffPolicy）生效
+     */
+    private RejectPolicyConfig rejectPolicy = new RejectPolicyConfig();
+
     /**
      * 线程空闲存活时间（单位：秒）
      */
@@ -57,6 +64,27 @@ public class ThreadPoolExecutorProperties {
      */
     private Boolean allowCoreThreadTimeOut;
 
+    /**
+     * LIFO 切换阈值（单位：毫秒），队头任务排队超过该时间后改为优先执行最新的任务，小于等于 0 时关闭
+     * <p>
+     * 仅对 {@link cn.yoaoso.threadpool.core.executor.support.AdaptiveLifoBlockingQueue} 生效，支持运行期间修改
+     */
+    private Long lifoThresholdMillis;
+
+    /**
+     * 是否开启 eager 模式（线程优先扩容，线程数达到最大线程数后再排队），开启后阻塞队列固定为 {@link cn.yoaoso.threadpool.core.executor.support.EagerTaskQueue}
+     * <p>
+     * 仅在线程池注册时生效，运行期间修改需要重启应用
+     */
+    private Boolean eagerMode;
+
+    /**
+     * 是否使用虚拟线程执行任务（需要 JDK 21+），开启后最大线程数即虚拟线程并发上限
+     * <p>
+     * 仅在线程池注册时生效，运行期间修改需要重启应用
+     */
+    private Boolean virtualThread;
+
     /**
      * 通知配置
      */
@@ -67,6 +95,16 @@ public class ThreadPoolExecutorProperties {
      */
     private AlarmConfig alarm = new AlarmConfig();
 
+    /**
+     * 自动扩缩容配置，默认关闭
+     */
+    private AutoScaleConfig autoScale = new AutoScaleConfig();
+
+    /**
+     * 磁盘溢出配置，仅对 {@link SpillableBlockingQueue} 生效
+     */
+    private SpillConfig spill = new SpillConfig();
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -102,6 +140,128 @@ public class ThreadPoolExecutorProperties {
          * 活跃线程阈值
          */
         private Integer activeThreshold = 80;
+
+        /**
+         * 溢出深度阈值，磁盘中排队的任务数达到该值时报警
+         */
+        private Integer spillThreshold = 1000;
+
+        /**
+         * CPU 使用率阈值，以单核为 100%，如 200 表示占满两个核，为空时不检查
+         */
+        private Integer cpuThreshold;
+
+        /**
+         * 内存分配速率阈值，单位 MB 每秒，为空时不检查
+         */
+        private Long allocationThreshold;
     }
 
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AutoScaleConfig {
+
+        /**
+         * 是否开启自动扩缩容，默认关闭
+         */
+        private Boolean enable = Boolean.FALSE;
+
+        /**
+         * 核心线程数下限，为空时取配置的核心线程数
+         */
+        private Integer minPoolSize;
+
+        /**
+         * 最大线程数上限，为空时取配置的最大线程数
+         */
+        private Integer maxPoolSize;
+
+        /**
+         * 目标线程繁忙率（繁忙线程数 / 核心线程数），单位百分比
+         */
+        private Integer targetActiveRate = 75;
+
+        /**
+         * 目标平均排队耗时，单位毫秒
+         */
+        private Long targetQueueWaitMillis = 100L;
+
+        /**
+         * 采样周期，单位秒
+         */
+        private Integer interval = 10;
+
+        /**
+         * 两次调整之间的最小间隔，单位秒，避免来回震荡
+         */
+        private Integer cooldown = 60;
+
+        /**
+         * 单次调整核心线程数的最大步长
+         */
+        private Integer maxStep = 4;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SpillConfig {
+
+        /**
+         * 溢出文件目录，为空时使用临时目录下的 tidepool-spill 目录
+         */
+        private String directory;
+
+        /**
+         * 单个分段文件大小，单位字节，单个任务编码后超过该大小时不会溢出
+         */
+        private Integer segmentSize = SpillableBlockingQueue.DEFAULT_SEGMENT_SIZE;
+
+        /**
+         * 分段文件数量上限，写满后队列视为已满
+         */
+        private Integer maxSegments = SpillableBlockingQueue.DEFAULT_MAX_SEGMENTS;
+
+        /**
+         * 任务编解码器类名，需实现 {@link cn.yoaoso.threadpool.core.executor.support.TaskCodec}
+         */
+        private String codec = SerializableTaskCodec.class.getName();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RejectPolicyConfig {
+
+        /**
+         * BlockingOfferPolicy：提交线程等待队列空位的最长时间，单位毫秒
+         */
+        private Long blockTimeoutMillis = 1000L;
+
+        /**
+         * RetryBackoffPolicy：最大重试次数
+         */
+        private Integer retryMaxAttempts = 3;
+
+        /**
+         * RetryBackoffPolicy：首次重试延迟，单位毫秒，之后每次翻倍
+         */
+        private Long retryInitialDelayMillis = 10L;
+
+        /**
+         * RetryBackoffPolicy：重试延迟上限，单位毫秒
+         */
+        private Long retryMaxDelayMillis = 1000L;
+
+        /**
+         * RetryBackoffPolicy：等待重试的任务数上限，超过后直接拒绝，避免积压任务无限增长
+         */
+        private Integer retryMaxPending = 10000;
+
+        /**
+         * OverflowHandoffPolicy：溢出线程池的唯一标识，需已注册到 {@link ThreadPoolRegistry}
+         */
+        private String overflowThreadPoolId;
+    }
 }
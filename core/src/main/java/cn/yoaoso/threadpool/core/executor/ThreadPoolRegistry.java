@@ -1,6 +1,9 @@
 package cn.yoaoso.threadpool.core.executor;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -17,6 +20,21 @@ public class ThreadPoolRegistry {
      */
     private static final Map<String, ThreadPoolExecutorHolder> HOLDER_MAP = new ConcurrentHashMap<>();
 
+    /**
+     * ForkJoinPool 持有者缓存，key 为线程池唯一标识，value 为 ForkJoinPool 包装类
+     */
+    private static final Map<String, ForkJoinPoolHolder> FORK_JOIN_HOLDER_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * 线程池锁对象，key 为线程池唯一标识，刷新同一个线程池的参数时互斥
+     */
+    private static final Map<String, Object> LOCK_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * 线程池配置索引，key 为线程池唯一标识，随配置列表实例整体替换
+     */
+    private static volatile PropertiesIndex propertiesIndex = new PropertiesIndex(null, Collections.emptyMap());
+
     /**
      * 注册线程池到管理器
      *
@@ -39,6 +57,16 @@ public class ThreadPoolRegistry {
         return HOLDER_MAP.get(threadPoolId);
     }
 
+    /**
+     * 从管理器中移除线程池
+     *
+     * @param threadPoolId 线程池唯一标识
+     * @return 被移除的线程池持有者对象，不存在时返回 null
+     */
+    public static ThreadPoolExecutorHolder removeHolder(String threadPoolId) {
+        return HOLDER_MAP.remove(threadPoolId);
+    }
+
     /**
      * 获取所有线程池集合
      *
@@ -47,4 +75,116 @@ public class ThreadPoolRegistry {
     public static Collection<ThreadPoolExecutorHolder> getAllHolders() {
         return HOLDER_MAP.values();
     }
+
+    /**
+     * 注册 ForkJoinPool 到管理器
+     *
+     * @param threadPoolId 线程池唯一标识
+     * @param forkJoinPool 动态 ForkJoinPool 实例
+     * @param properties   线程池参数配置
+     */
+    public static void putForkJoinHolder(String threadPoolId, DynamicForkJoinPool forkJoinPool, ThreadPoolExecutorProperties properties) {
+        FORK_JOIN_HOLDER_MAP.put(threadPoolId, new ForkJoinPoolHolder(threadPoolId, forkJoinPool, properties));
+    }
+
+    /**
+     * 根据线程池 ID 获取对应的 ForkJoinPool 包装对象
+     *
+     * @param threadPoolId 线程池唯一标识
+     * @return ForkJoinPool 持有者对象
+     */
+    public static ForkJoinPoolHolder getForkJoinHolder(String threadPoolId) {
+        return FORK_JOIN_HOLDER_MAP.get(threadPoolId);
+    }
+
+    /**
+     * 从管理器中移除 ForkJoinPool
+     *
+     * @param threadPoolId 线程池唯一标识
+     * @return 被移除的 ForkJoinPool 持有者对象，不存在时返回 null
+     */
+    public static ForkJoinPoolHolder removeForkJoinHolder(String threadPoolId) {
+        return FORK_JOIN_HOLDER_MAP.remove(threadPoolId);
+    }
+
+    /**
+     * 获取所有 ForkJoinPool 集合
+     *
+     * @return ForkJoinPool 集合
+     */
+    public static Collection<ForkJoinPoolHolder> getAllForkJoinHolders() {
+        return FORK_JOIN_HOLDER_MAP.values();
+    }
+
+    /**
+     * 获取线程池的锁对象，同一个线程池 ID 始终返回同一个对象
+     * <p>
+     * 替代 {@code threadPoolId.intern()}，不占用字符串常量池，也不会与其他代码对同一个字符串加锁相互影响
+     *
+     * @param threadPoolId 线程池唯一标识
+     * @return 锁对象
+     */
+    public static Object getLock(String threadPoolId) {
+        return LOCK_MAP.computeIfAbsent(threadPoolId, key -> new Object());
+    }
+
+    /**
+     * 按线程池 ID 从配置列表中查找配置，配置列表首次查询时建立索引，之后每次查找为 O(1)
+     * <p>
+     * 配置列表实例变化时重新建立索引；配置刷新时绑定可能原地修改同一个列表，由刷新方调用 {@link #rebuildExecutorPropertiesIndex(List)} 重建索引。
+     * 同一个 ID 配置了多次时以第一个为准
+     *
+     * @param executors    线程池配置列表
+     * @param threadPoolId 线程池唯一标识
+     * @return 线程池配置，不存在时返回 null
+     */
+    public static ThreadPoolExecutorProperties getExecutorProperties(List<ThreadPoolExecutorProperties> executors, String threadPoolId) {
+        PropertiesIndex index = propertiesIndex;
+        if (index.source != executors) {
+            index = new PropertiesIndex(executors, indexById(executors));
+            propertiesIndex = index;
+        }
+        return index.properties.get(threadPoolId);
+    }
+
+    /**
+     * 按最新的配置列表重建配置索引，配置刷新应用后调用，避免原地修改的配置列表命中过期索引
+     *
+     * @param executors 线程池配置列表
+     */
+    public static void rebuildExecutorPropertiesIndex(List<ThreadPoolExecutorProperties> executors) {
+        propertiesIndex = new PropertiesIndex(executors, indexById(executors));
+    }
+
+    /**
+     * 按线程池 ID 建立配置索引，同一个 ID 配置了多次时以第一个为准
+     *
+     * @param executors 线程池配置列表
+     * @return 线程池 ID 到配置的映射
+     */
+    private static Map<String, ThreadPoolExecutorProperties> indexById(List<ThreadPoolExecutorProperties> executors) {
+        if (executors == null || executors.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, ThreadPoolExecutorProperties> properties = new HashMap<>(executors.size() * 4 / 3 + 1);
+        for (ThreadPoolExecutorProperties each : executors) {
+            properties.putIfAbsent(each.getThreadPoolId(), each);
+        }
+        return properties;
+    }
+
+    /**
+     * 配置列表及其索引，整体发布保证两者一致
+     */
+    private static final class PropertiesIndex {
+
+        private final List<ThreadPoolExecutorProperties> source;
+
+        private final Map<String, ThreadPoolExecutorProperties> properties;
+
+        private PropertiesIndex(List<ThreadPoolExecutorProperties> source, Map<String, ThreadPoolExecutorProperties> properties) {
+            this.source = source;
+            this.properties = properties;
+        }
+    }
 }
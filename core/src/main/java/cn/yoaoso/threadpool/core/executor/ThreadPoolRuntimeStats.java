@@ -0,0 +1,285 @@
+package cn.yoaoso.threadpool.core.executor;
+
+import cn.yoaoso.threadpool.core.executor.support.BlockingOfferPolicy;
+import cn.yoaoso.threadpool.core.executor.support.OverflowHandoffPolicy;
+import cn.yoaoso.threadpool.core.executor.support.ResizableCapacityBlockingQueue;
+import cn.yoaoso.threadpool.core.executor.support.RetryBackoffPolicy;
+import cn.yoaoso.threadpool.core.executor.support.SpillableBlockingQueue;
+import cn.yoaoso.threadpool.core.monitor.resource.ThreadPoolResourceUsage;
+import cn.yoaoso.threadpool.core.monitor.resource.ThreadResourceAccounting;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * @author Drayd
+ * @description 线程池运行时统计快照
+ * <p>
+ * 动态线程池的快照由分段计数器汇总得到，不会获取 ThreadPoolExecutor 的 mainLock，也不会遍历队列，可以高频采集
+ * @create 2026-10-18 11:02
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThreadPoolRuntimeStats {
+
+    /**
+     * 核心线程数
+     */
+    private int corePoolSize;
+
+    /**
+     * 最大线程数
+     */
+    private int maximumPoolSize;
+
+    /**
+     * 当前线程数
+     */
+    private int poolSize;
+
+    /**
+     * 同存最大线程数
+     */
+    private int largestPoolSize;
+
+    /**
+     * 活跃线程数
+     */
+    private int activeCount;
+
+    /**
+     * 队列元素数量
+     */
+    private int queueSize;
+
+    /**
+     * 队列容量
+     */
+    private int queueCapacity;
+
+    /**
+     * 提交任务总数
+     */
+    private long submittedTaskCount;
+
+    /**
+     * 执行完成任务总数，不包括因过期跳过执行的任务
+     */
+    private long completedTaskCount;
+
+    /**
+     * 执行拒绝策略次数，非动态线程池为 -1
+     */
+    private long rejectCount;
+
+    /**
+     * 排队超时被丢弃的任务数，非动态线程池为 -1
+     */
+    private long dropCount;
+
+    /**
+     * 超过截止时间未执行的任务数，非动态线程池为 -1
+     */
+    private long expiredCount;
+
+    /**
+     * 溢出到磁盘的任务数量，已计入队列元素数量，未使用 {@link SpillableBlockingQueue} 时为 0
+     */
+    private int spillDepth;
+
+    /**
+     * 累计写入磁盘的字节数，未使用 {@link SpillableBlockingQueue} 时为 0
+     */
+    private long spillWriteBytes;
+
+    /**
+     * 累计从磁盘读回的字节数，未使用 {@link SpillableBlockingQueue} 时为 0
+     */
+    private long spillReadBytes;
+
+    /**
+     * 线程池线程累计占用的 CPU 时间，单位纳秒，来自最近一次资源采集，-1 表示未采集
+     */
+    @Builder.Default
+    private long cpuTimeNanos = -1L;
+
+    /**
+     * 线程池线程累计分配的堆内存，单位字节，来自最近一次资源采集，-1 表示未采集
+     */
+    @Builder.Default
+    private long allocatedBytes = -1L;
+
+    /**
+     * 阻塞等待后成功入队的任务数，未使用 {@link BlockingOfferPolicy} 时为 -1
+     */
+    @Builder.Default
+    private long blockingAcceptedCount = -1L;
+
+    /**
+     * 阻塞等待超时被拒绝的任务数，未使用 {@link BlockingOfferPolicy} 时为 -1
+     */
+    @Builder.Default
+    private long blockingTimeoutCount = -1L;
+
+    /**
+     * 提交线程在拒绝策略中累计阻塞的时间，单位纳秒，未使用 {@link BlockingOfferPolicy} 时为 -1
+     */
+    @Builder.Default
+    private long blockingNanos = -1L;
+
+    /**
+     * 等待重试的任务数，未使用 {@link RetryBackoffPolicy} 时为 -1
+     */
+    @Builder.Default
+    private int retryPendingCount = -1;
+
+    /**
+     * 退避重试次数，未使用 {@link RetryBackoffPolicy} 时为 -1
+     */
+    @Builder.Default
+    private long retryCount = -1L;
+
+    /**
+     * 重试后成功提交的任务数，未使用 {@link RetryBackoffPolicy} 时为 -1
+     */
+    @Builder.Default
+    private long retryRecoveredCount = -1L;
+
+    /**
+     * 重试耗尽被放弃的任务数，未使用 {@link RetryBackoffPolicy} 时为 -1
+     */
+    @Builder.Default
+    private long retryExhaustedCount = -1L;
+
+    /**
+     * 转交到溢出线程池的任务数，未使用 {@link OverflowHandoffPolicy} 时为 -1
+     */
+    @Builder.Default
+    private long handoffCount = -1L;
+
+    /**
+     * 转交失败被拒绝的任务数，未使用 {@link OverflowHandoffPolicy} 时为 -1
+     */
+    @Builder.Default
+    private long handoffFailCount = -1L;
+
+    /**
+     * 获取线程池运行时统计快照
+     * <p>
+     * 动态线程池使用无锁计数器，原生线程池只能退化为调用有锁 API，避免高频率调用
+     *
+     * @param executor 线程池
+     * @return 运行时统计快照
+     */
+    public static ThreadPoolRuntimeStats of(ThreadPoolExecutor executor) {
+        return of(executor, new ThreadPoolRuntimeStats());
+    }
+
+    /**
+     * 将线程池运行时统计快照写入传入的对象并返回，周期性采集时复用同一个对象
+     *
+     * @param executor 线程池
+     * @param stats    被覆盖写入的快照对象
+     * @return 传入的快照对象
+     */
+    public static ThreadPoolRuntimeStats of(ThreadPoolExecutor executor, ThreadPoolRuntimeStats stats) {
+        if (executor instanceof TidePoolExecutor) {
+            return ((TidePoolExecutor) executor).getRuntimeStats(stats);
+        }
+
+        BlockingQueue<Runnable> queue = executor.getQueue();
+        int queueSize = queue.size();
+        stats.setCorePoolSize(executor.getCorePoolSize());
+        stats.setMaximumPoolSize(executor.getMaximumPoolSize());
+        stats.setPoolSize(executor.getPoolSize());
+        stats.setLargestPoolSize(executor.getLargestPoolSize());
+        stats.setActiveCount(executor.getActiveCount());
+        stats.setQueueSize(queueSize);
+        stats.setQueueCapacity(queueCapacity(queue, queueSize));
+        stats.setSubmittedTaskCount(executor.getTaskCount());
+        stats.setCompletedTaskCount(executor.getCompletedTaskCount());
+        stats.setRejectCount(-1L);
+        stats.setDropCount(-1L);
+        stats.setExpiredCount(-1L);
+        return stats.fillSpill(queue).fillRejectedPolicy(executor.getRejectedExecutionHandler());
+    }
+
+    /**
+     * 填充磁盘溢出指标，读取的都是 volatile 字段，不获取队列锁
+     */
+    ThreadPoolRuntimeStats fillSpill(BlockingQueue<?> queue) {
+        if (queue instanceof SpillableBlockingQueue) {
+            SpillableBlockingQueue spillQueue = (SpillableBlockingQueue) queue;
+            spillDepth = spillQueue.getSpillDepth();
+            spillWriteBytes = spillQueue.getSpillWriteBytes();
+            spillReadBytes = spillQueue.getSpillReadBytes();
+        } else {
+            // 复用的快照对象可能残留切换队列前的数值
+            spillDepth = 0;
+            spillWriteBytes = 0L;
+            spillReadBytes = 0L;
+        }
+        return this;
+    }
+
+    /**
+     * 填充拒绝策略自身的统计，读取的都是计数器，不获取锁；未使用对应拒绝策略的字段置为 -1
+     *
+     * @param handler 未经包装的拒绝策略
+     * @return 当前快照对象
+     */
+    ThreadPoolRuntimeStats fillRejectedPolicy(RejectedExecutionHandler handler) {
+        // 复用的快照对象可能残留更换拒绝策略前的数值，先全部重置
+        blockingAcceptedCount = blockingTimeoutCount = blockingNanos = -1L;
+        retryPendingCount = -1;
+        retryCount = retryRecoveredCount = retryExhaustedCount = -1L;
+        handoffCount = handoffFailCount = -1L;
+        if (handler instanceof BlockingOfferPolicy) {
+            BlockingOfferPolicy policy = (BlockingOfferPolicy) handler;
+            blockingAcceptedCount = policy.getAcceptedCount();
+            blockingTimeoutCount = policy.getTimeoutCount();
+            blockingNanos = policy.getBlockedNanos();
+        } else if (handler instanceof RetryBackoffPolicy) {
+            RetryBackoffPolicy policy = (RetryBackoffPolicy) handler;
+            retryPendingCount = policy.getPendingCount();
+            retryCount = policy.getRetryCount();
+            retryRecoveredCount = policy.getRecoveredCount();
+            retryExhaustedCount = policy.getExhaustedCount();
+        } else if (handler instanceof OverflowHandoffPolicy) {
+            OverflowHandoffPolicy policy = (OverflowHandoffPolicy) handler;
+            handoffCount = policy.getHandoffCount();
+            handoffFailCount = policy.getHandoffFailCount();
+        }
+        return this;
+    }
+
+    /**
+     * 填充最近一次资源采集的 CPU 时间和分配字节数，只读取采集结果，不查询线程
+     *
+     * @param threadPoolId 线程池唯一标识
+     * @return 当前快照对象
+     */
+    public ThreadPoolRuntimeStats fillResourceUsage(String threadPoolId) {
+        ThreadPoolResourceUsage usage = ThreadResourceAccounting.getUsage(threadPoolId);
+        cpuTimeNanos = usage != null ? usage.getCpuTimeNanos() : -1L;
+        allocatedBytes = usage != null ? usage.getAllocatedBytes() : -1L;
+        return this;
+    }
+
+    /**
+     * 计算队列容量，可变容量队列直接读取容量字段，其余队列通过剩余容量推算
+     */
+    static int queueCapacity(BlockingQueue<?> queue, int queueSize) {
+        if (queue instanceof ResizableCapacityBlockingQueue) {
+            return ((ResizableCapacityBlockingQueue<?>) queue).getCapacity();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, (long) queueSize + queue.remainingCapacity());
+    }
+}
@@ -1,13 +1,41 @@
 package cn.yoaoso.threadpool.core.executor;
 
+import cn.yoaoso.threadpool.core.executor.support.BlockingOfferPolicy;
+import cn.yoaoso.threadpool.core.executor.support.CoDelTaskQueue;
+import cn.yoaoso.threadpool.core.executor.support.DeadlineFutureTask;
+import cn.yoaoso.threadpool.core.executor.support.DeadlineTask;
+import cn.yoaoso.threadpool.core.executor.support.EagerTaskQueue;
+import cn.yoaoso.threadpool.core.executor.support.LatencyHistogram;
+import cn.yoaoso.threadpool.core.executor.support.OverflowHandoffPolicy;
+import cn.yoaoso.threadpool.core.executor.support.ResizableCapacityBlockingQueue;
+import cn.yoaoso.threadpool.core.executor.support.RetryBackoffPolicy;
+import cn.yoaoso.threadpool.core.executor.support.SwitchableBlockingQueue;
+import cn.yoaoso.threadpool.core.executor.support.TaskDropHandler;
+import cn.yoaoso.threadpool.core.executor.support.TaskExpiryHandler;
+import cn.yoaoso.threadpool.core.executor.support.TimedRunnable;
+import cn.yoaoso.threadpool.core.jfr.PoolResizedEvent;
+import cn.yoaoso.threadpool.core.jfr.TaskBatchQueuedEvent;
+import cn.yoaoso.threadpool.core.jfr.TaskExecutedEvent;
+import cn.yoaoso.threadpool.core.jfr.TaskQueuedEvent;
+import cn.yoaoso.threadpool.core.jfr.TaskRejectedEvent;
+import cn.yoaoso.threadpool.core.monitor.resource.ThreadResourceAccounting;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * @author Drayd
@@ -17,17 +45,129 @@ import java.util.concurrent.atomic.AtomicLong;
 @Slf4j
 @Getter
 public class TidePoolExecutor extends ThreadPoolExecutor {
+
+    /**
+     * 当前线程正在执行 ThreadPoolExecutor 的 execute 流程，其中入队后复查移除的任务随后会被拒绝，只计入拒绝次数
+     */
+    private static final ThreadLocal<Boolean> EXECUTING = new ThreadLocal<>();
+
+    /**
+     * 丢弃任务告警日志的最小间隔，单位纳秒
+     */
+    private static final long DROP_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10L);
+
     /**
      * 线程池唯一标识，用来动态变更参数
      */
     private final String threadPoolId;
 
 
+    /**
+     * 可切换实现的工作队列，ThreadPoolExecutor 的队列字段不可变，运行时只替换其内部队列
+     */
+    @Getter(AccessLevel.NONE)
+    private final SwitchableBlockingQueue switchableQueue;
+
     /**
      * 线程池拒绝策略执行次数
      */
     private final AtomicLong rejectCount = new AtomicLong();
 
+    /**
+     * 排队超时被队列主动丢弃的任务数，不计入拒绝策略执行次数
+     */
+    private final AtomicLong dropCount = new AtomicLong();
+
+    /**
+     * 上一次输出丢弃任务告警日志的时间，基于 {@link System#nanoTime()}
+     */
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong lastDropLogNanos = new AtomicLong(System.nanoTime() - DROP_LOG_INTERVAL_NANOS);
+
+    /**
+     * 超过截止时间未执行的任务数
+     */
+    private final AtomicLong expiredCount = new AtomicLong();
+
+    /**
+     * 过期任务处理器
+     */
+    private volatile TaskExpiryHandler taskExpiryHandler = TaskExpiryHandler.COMPLETE_EXCEPTIONALLY;
+
+    /**
+     * 丢弃任务处理器
+     */
+    private volatile TaskDropHandler taskDropHandler = TaskDropHandler.CANCEL_FUTURE;
+
+    /**
+     * 未经包装的拒绝策略
+     */
+    private volatile RejectedExecutionHandler originalRejectedHandler;
+
+    /**
+     * 任务排队耗时直方图（入队到开始执行），单位纳秒
+     */
+    private final LatencyHistogram queueWaitHistogram = new LatencyHistogram();
+
+    /**
+     * 任务执行耗时直方图，单位纳秒
+     */
+    private final LatencyHistogram executeHistogram = new LatencyHistogram();
+
+    /**
+     * 提交任务计数，使用分段计数器避免提交线程之间的竞争
+     */
+    @Getter(AccessLevel.NONE)
+    private final LongAdder submittedCounter = new LongAdder();
+
+    /**
+     * 开始执行任务计数
+     */
+    @Getter(AccessLevel.NONE)
+    private final LongAdder startedCounter = new LongAdder();
+
+    /**
+     * 执行结束任务计数（包括执行异常的任务）
+     */
+    @Getter(AccessLevel.NONE)
+    private final LongAdder finishedCounter = new LongAdder();
+
+    /**
+     * 执行完成的任务计数，与 finishedCounter 不同，不包括因过期跳过执行的任务
+     */
+    @Getter(AccessLevel.NONE)
+    private final LongAdder completedCounter = new LongAdder();
+
+    /**
+     * 未执行即从队列中移除的任务计数
+     */
+    @Getter(AccessLevel.NONE)
+    private final LongAdder removedCounter = new LongAdder();
+
+    /**
+     * 在 {@link KeyedSerialExecutor} 的 key 队列中等待的任务数，计入队列元素数量
+     */
+    @Getter(AccessLevel.NONE)
+    private final LongAdder keyedBacklogCounter = new LongAdder();
+
+    /**
+     * 任务累计执行耗时，单位纳秒
+     */
+    @Getter(AccessLevel.NONE)
+    private final LongAdder busyNanosCounter = new LongAdder();
+
+    /**
+     * 存活工作线程数，由包装后的线程工厂维护
+     */
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger liveThreadCounter = new AtomicInteger();
+
+    /**
+     * 同存最大工作线程数
+     */
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger largestThreadCounter = new AtomicInteger();
+
     /**
      * 等待终止时间，单位毫秒
      */
@@ -43,11 +183,17 @@ public class TidePoolExecutor extends ThreadPoolExecutor {
             @NonNull ThreadFactory threadFactory,
             @NonNull RejectedExecutionHandler handler,
             long awaitTerminationMillis) {
-        super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory, handler);
+        super(corePoolSize, maximumPoolSize, keepAliveTime, unit, new SwitchableBlockingQueue(workQueue), threadFactory, handler);
+        this.switchableQueue = (SwitchableBlockingQueue) super.getQueue();
+        this.switchableQueue.setOverflowHandler(this::rejectMigratedTask);
+        bindWorkQueue(workQueue);
 
         //TODO 通过动态代理设置拒绝策略执行次数
         setRejectedExecutionHandler(handler);
 
+        //包装线程工厂，无锁统计工作线程数
+        setThreadFactory(threadFactory);
+
         //设置动态线程池扩展属性：线程池ID标识
         this.threadPoolId = threadPoolId;
 
@@ -55,14 +201,524 @@ public class TidePoolExecutor extends ThreadPoolExecutor {
         this.awaitTerminationMillis = awaitTerminationMillis;
     }
 
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+        submittedCounter.increment();
+        // 未开启 JFR 时事件的 begin 和 commit 都是空操作，事件对象可被逃逸分析消除
+        TaskQueuedEvent queuedEvent = new TaskQueuedEvent();
+        queuedEvent.begin();
+        // 包装任务记录入队时间，拒绝策略重新提交的任务已经包装过，无需重复包装
+        doExecute(command instanceof TimedRunnable ? command : new TimedRunnable(command));
+        queuedEvent.commit(threadPoolId, TimedRunnable.unwrap(command).getClass());
+    }
+
+    /**
+     * 批量提交任务，突发提交大量小任务时摊薄队列锁和唤醒的开销
+     * <p>
+     * 队列支持批量入队时整批只加一次入队锁、唤醒一次消费线程；放不下的部分逐个走 execute 流程，创建非核心线程或触发拒绝策略，拒绝次数按任务统计
+     * <p>
+     * JFR 中整批只记录一个 {@link TaskBatchQueuedEvent}，不会为每个任务记录 {@link TaskQueuedEvent}
+     *
+     * @param commands 任务集合
+     */
+    public void executeAll(Collection<? extends Runnable> commands) {
+        if (commands == null) {
+            throw new NullPointerException();
+        }
+        List<Runnable> wrappedCommands = new ArrayList<>(commands.size());
+        for (Runnable command : commands) {
+            if (command == null) {
+                throw new NullPointerException();
+            }
+            wrappedCommands.add(command instanceof TimedRunnable ? command : new TimedRunnable(command));
+        }
+        if (wrappedCommands.isEmpty()) {
+            return;
+        }
+        submittedCounter.add(wrappedCommands.size());
+        TaskBatchQueuedEvent queuedEvent = new TaskBatchQueuedEvent();
+        queuedEvent.begin();
+        doExecuteAll(wrappedCommands);
+        queuedEvent.commit(threadPoolId, wrappedCommands.size());
+    }
+
+    /**
+     * 提交带截止时间的任务，工作线程取出时已超过截止时间则不再执行，交给 {@link TaskExpiryHandler} 处理
+     *
+     * @param command 任务
+     * @param timeout 从当前时刻起的超时时间
+     * @param unit    超时时间单位
+     */
+    public void execute(Runnable command, long timeout, TimeUnit unit) {
+        execute(DeadlineTask.of(command, timeout, unit));
+    }
+
+    /**
+     * 提交带截止时间的任务，过期未执行时默认以 {@link TimeoutException} 结束返回的 Future
+     *
+     * @param task    任务
+     * @param timeout 从当前时刻起的超时时间
+     * @param unit    超时时间单位
+     * @return 任务结果
+     */
+    public <T> Future<T> submit(Callable<T> task, long timeout, TimeUnit unit) {
+        if (task == null) {
+            throw new NullPointerException();
+        }
+        DeadlineFutureTask<T> futureTask = new DeadlineFutureTask<>(task);
+        execute(futureTask, timeout, unit);
+        return futureTask;
+    }
+
+    /**
+     * 设置过期任务处理器
+     *
+     * @param taskExpiryHandler 过期任务处理器
+     */
+    public void setTaskExpiryHandler(@NonNull TaskExpiryHandler taskExpiryHandler) {
+        this.taskExpiryHandler = taskExpiryHandler;
+    }
+
+    /**
+     * 设置丢弃任务处理器，通过 execute 提交的任务被队列丢弃时借助它通知调用方
+     *
+     * @param taskDropHandler 丢弃任务处理器
+     */
+    public void setTaskDropHandler(@NonNull TaskDropHandler taskDropHandler) {
+        this.taskDropHandler = taskDropHandler;
+    }
+
+    /**
+     * 执行包装后的任务，默认交给 ThreadPoolExecutor 的工作线程，子类可以替换任务的执行载体
+     *
+     * @param command 包装后的任务
+     */
+    protected void doExecute(Runnable command) {
+        EXECUTING.set(Boolean.TRUE);
+        try {
+            super.execute(command);
+        } finally {
+            EXECUTING.remove();
+        }
+    }
+
+    /**
+     * 批量执行包装后的任务，子类替换了任务执行载体时需要一并覆盖
+     *
+     * @param commands 包装后的任务
+     */
+    protected void doExecuteAll(List<Runnable> commands) {
+        if (isShutdown() || !(getWorkQueue() instanceof ResizableCapacityBlockingQueue)) {
+            commands.forEach(this::doExecute);
+            return;
+        }
+
+        int index = 0;
+        if (getCorePoolSize() == 0) {
+            // 核心线程数为 0 时由 execute 保证至少有一个工作线程
+            doExecute(commands.get(index++));
+        }
+        // 与 execute 一致，工作线程数不足核心线程数时先创建核心线程，每个任务最多对应一个
+        for (int started = index; started < commands.size(); started++) {
+            if (!prestartCoreThread()) {
+                break;
+            }
+        }
+
+        List<Runnable> batch = commands.subList(index, commands.size());
+        List<Runnable> remaining = switchableQueue.offerAll(batch);
+        int accepted = batch.size() - remaining.size();
+        if (accepted > 0 && isShutdown()) {
+            // 入队后复查：线程池已关闭则一次遍历撤回已入队的任务并拒绝，已被工作线程取走的任务不会被撤回
+            Set<Runnable> acceptedCommands = Collections.newSetFromMap(new IdentityHashMap<>(accepted));
+            acceptedCommands.addAll(batch.subList(0, accepted));
+            List<Runnable> withdrawn = switchableQueue.removeMatching(acceptedCommands::contains);
+            if (!withdrawn.isEmpty()) {
+                // tryTerminate 不可见，借助 ThreadPoolExecutor#remove：无论是否移除成功都会尝试终止线程池，唤醒因队列非空而阻塞在队列上的空闲线程
+                super.remove(withdrawn.get(0));
+            }
+            withdrawn.forEach(command -> getRejectedExecutionHandler().rejectedExecution(command, this));
+        }
+        // 放不下的任务逐个提交，按原有流程创建非核心线程或执行拒绝策略
+        remaining.forEach(this::doExecute);
+    }
+
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        startedCounter.increment();
+        if (r instanceof TimedRunnable) {
+            TimedRunnable timedRunnable = (TimedRunnable) r;
+            long startNanos = System.nanoTime();
+            timedRunnable.setStartNanos(startNanos);
+            queueWaitHistogram.record(startNanos - timedRunnable.getEnqueueNanos());
+
+            DeadlineTask deadlineTask = DeadlineTask.deadlineOf(timedRunnable);
+            if (deadlineTask != null && deadlineTask.isExpired(startNanos)) {
+                // 已过截止时间，跳过执行，避免事故期间继续执行调用方早已放弃的任务
+                timedRunnable.setSkipped(true);
+                expiredCount.incrementAndGet();
+                try {
+                    taskExpiryHandler.expired(deadlineTask, this);
+                } catch (RuntimeException ex) {
+                    log.warn("[{}] Task expiry handler threw exception.", threadPoolId, ex);
+                }
+                return;
+            }
+
+            TaskExecutedEvent executedEvent = new TaskExecutedEvent();
+            if (executedEvent.isEnabled()) {
+                executedEvent.begin();
+                timedRunnable.setExecutedEvent(executedEvent);
+            }
+        }
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        if (r instanceof TimedRunnable) {
+            TimedRunnable timedRunnable = (TimedRunnable) r;
+            long startNanos = timedRunnable.getStartNanos();
+            if (startNanos != 0L && !timedRunnable.isSkipped()) {
+                long executeNanos = System.nanoTime() - startNanos;
+                executeHistogram.record(executeNanos);
+                busyNanosCounter.add(executeNanos);
+            }
+            TaskExecutedEvent executedEvent = timedRunnable.getExecutedEvent();
+            if (executedEvent != null) {
+                timedRunnable.setExecutedEvent(null);
+                executedEvent.commit(threadPoolId, timedRunnable.getTask().getClass(),
+                        startNanos - timedRunnable.getEnqueueNanos(), t != null);
+            }
+        }
+        // 过期跳过的任务已计入过期任务数，不计入完成任务数
+        if (!(r instanceof TimedRunnable) || !((TimedRunnable) r).isSkipped()) {
+            completedCounter.increment();
+        }
+        finishedCounter.increment();
+    }
+
+    /**
+     * 获取线程池运行时统计快照
+     * <p>
+     * 所有数据来自分段计数器和 volatile 字段，不获取 mainLock，也不调用队列的 size()，监控可以每秒采集
+     * <p>
+     * 队列元素数量由计数器推算，通过 {@link #remove(Runnable)}、{@link #purge()} 和 {@link #shutdownNow()} 移除的任务会被统计；
+     * 直接对 {@link #getQueue()} 调用 remove、poll、clear 或 drainTo 不经过计数器，推算的队列元素数量会偏大
+     *
+     * @return 运行时统计快照
+     */
+    public ThreadPoolRuntimeStats getRuntimeStats() {
+        return getRuntimeStats(new ThreadPoolRuntimeStats());
+    }
+
+    /**
+     * 将运行时统计快照写入传入的对象并返回，周期性采集时复用同一个对象，避免每次采集都创建快照
+     *
+     * @param stats 被覆盖写入的快照对象
+     * @return 传入的快照对象
+     */
+    public ThreadPoolRuntimeStats getRuntimeStats(@NonNull ThreadPoolRuntimeStats stats) {
+        long submitted = submittedCounter.sum();
+        long started = startedCounter.sum();
+        long finished = finishedCounter.sum();
+        long rejected = rejectCount.get();
+        long dropped = dropCount.get();
+        // 被拒绝、被移除、被丢弃和已开始执行的任务都不在队列中，按 key 串行等待的任务尚未提交，单独累加
+        int queueSize = (int) Math.max(0L, submitted - rejected - removedCounter.sum() - dropped - started + keyedBacklogCounter.sum());
+        stats.setCorePoolSize(getCorePoolSize());
+        stats.setMaximumPoolSize(getMaximumPoolSize());
+        stats.setPoolSize(liveThreadCounter.get());
+        stats.setLargestPoolSize(largestThreadCounter.get());
+        stats.setActiveCount((int) Math.max(0L, started - finished));
+        stats.setQueueSize(queueSize);
+        stats.setQueueCapacity(ThreadPoolRuntimeStats.queueCapacity(getWorkQueue(), queueSize));
+        stats.setSubmittedTaskCount(submitted);
+        stats.setCompletedTaskCount(completedCounter.sum());
+        stats.setRejectCount(rejected);
+        stats.setDropCount(dropped);
+        stats.setExpiredCount(expiredCount.get());
+        return stats.fillSpill(getWorkQueue()).fillRejectedPolicy(originalRejectedHandler);
+    }
+
+    /**
+     * 获取执行完成的任务数，不包括因过期跳过执行的任务，不获取 mainLock
+     */
+    @Override
+    public long getCompletedTaskCount() {
+        return completedCounter.sum();
+    }
+
+    /**
+     * 获取存活工作线程数，不获取 mainLock
+     */
+    public int getLiveThreadCount() {
+        return liveThreadCounter.get();
+    }
+
+    /**
+     * 获取已提交但尚未执行结束的任务数（排队中和执行中），不获取 mainLock
+     */
+    public long getInflightTaskCount() {
+        return submittedCounter.sum() - rejectCount.get() - removedCounter.sum() - dropCount.get() - finishedCounter.sum();
+    }
+
+    /**
+     * 丢弃已出队但不再执行的任务（如排队超时），计入丢弃次数，交给 {@link TaskDropHandler} 处理，按固定间隔输出告警日志
+     * <p>
+     * 默认处理器取消通过 submit 提交的任务，调用方 get() 立即感知；通过 execute 提交的任务需要设置处理器才能通知调用方
+     * 丢弃发生在工作线程中，提交线程早已返回，不回调拒绝策略：AbortPolicy 抛出的异常没有调用方可以接收
+     *
+     * @param r 队列中的任务
+     */
+    public void dropTask(Runnable r) {
+        long dropped = dropCount.incrementAndGet();
+        Runnable task = TimedRunnable.unwrap(r);
+        try {
+            taskDropHandler.dropped(task, this);
+        } catch (RuntimeException ex) {
+            log.warn("[{}] Task drop handler threw exception.", threadPoolId, ex);
+        }
+
+        long nowNanos = System.nanoTime();
+        long lastNanos = lastDropLogNanos.get();
+        if (nowNanos - lastNanos >= DROP_LOG_INTERVAL_NANOS && lastDropLogNanos.compareAndSet(lastNanos, nowNanos)) {
+            log.warn("[{}] Task dropped from the queue without execution: {}, total dropped: {}.", threadPoolId, task, dropped);
+        }
+    }
+
+    /**
+     * 在限定时间内等待队列空位，将被拒绝的任务重新放入队列，供拒绝策略使用
+     * <p>
+     * 成功入队计入提交任务数，与拒绝策略重新 execute 的统计口径一致；线程池已关闭时不入队
+     *
+     * @param r       被拒绝的任务
+     * @param timeout 最长等待时间
+     * @param unit    时间单位
+     * @return 是否入队成功
+     * @throws InterruptedException 等待期间线程被中断
+     */
+    public boolean requeue(Runnable r, long timeout, TimeUnit unit) throws InterruptedException {
+        if (isShutdown()) {
+            return false;
+        }
+        // 先计入提交数再入队，避免任务被工作线程取走时排队任务数短暂为负
+        submittedCounter.increment();
+        if (!switchableQueue.offer(r, timeout, unit)) {
+            submittedCounter.decrement();
+            return false;
+        }
+        // 入队后复查，与 execute 一致：线程池已关闭则撤回任务，由调用方拒绝
+        if (isShutdown() && super.remove(r)) {
+            submittedCounter.decrement();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 调整按 key 串行等待的任务数
+     *
+     * @param delta 变化量
+     */
+    void addKeyedBacklog(long delta) {
+        keyedBacklogCounter.add(delta);
+    }
+
+    /**
+     * 获取当前实际使用的工作队列，{@link #getQueue()} 返回的是可切换实现的包装队列
+     */
+    public BlockingQueue<Runnable> getWorkQueue() {
+        return switchableQueue.getDelegate();
+    }
+
+    /**
+     * 运行时切换工作队列实现，排队中的任务迁移到新队列，新队列放不下的任务执行拒绝策略
+     *
+     * @param workQueue 新的工作队列
+     */
+    public void switchWorkQueue(@NonNull BlockingQueue<Runnable> workQueue) {
+        BlockingQueue<Runnable> originalWorkQueue = getWorkQueue();
+        bindWorkQueue(workQueue);
+        List<Runnable> rejectedTasks = switchableQueue.switchTo(workQueue);
+        for (Runnable each : rejectedTasks) {
+            rejectMigratedTask(each);
+        }
+        log.info("[{}] Work queue switched from {} to {}, rejected tasks: {}.", threadPoolId,
+                originalWorkQueue.getClass().getSimpleName(), workQueue.getClass().getSimpleName(), rejectedTasks.size());
+    }
+
+    /**
+     * 迁移到新队列时放不下的任务执行拒绝策略，AbortPolicy 等抛出的异常不能中断其余任务的迁移，也不能抛给提交其他任务的线程
+     */
+    private void rejectMigratedTask(Runnable task) {
+        try {
+            getRejectedExecutionHandler().rejectedExecution(task, this);
+        } catch (RejectedExecutionException ex) {
+            log.warn("[{}] Task rejected while migrating to the new work queue: {}", threadPoolId, TimedRunnable.unwrap(task));
+        }
+    }
+
+    /**
+     * 获取线程池实际使用的工作队列，动态线程池返回切换后的队列
+     *
+     * @param executor 线程池
+     * @return 工作队列
+     */
+    public static BlockingQueue<Runnable> workQueueOf(ThreadPoolExecutor executor) {
+        return executor instanceof TidePoolExecutor ? ((TidePoolExecutor) executor).getWorkQueue() : executor.getQueue();
+    }
+
+    /**
+     * 依赖线程池状态的队列需要绑定线程池
+     */
+    private void bindWorkQueue(BlockingQueue<Runnable> workQueue) {
+        if (workQueue instanceof EagerTaskQueue) {
+            ((EagerTaskQueue) workQueue).setExecutor(this);
+        } else if (workQueue instanceof CoDelTaskQueue) {
+            ((CoDelTaskQueue) workQueue).setExecutor(this);
+        }
+    }
+
+    /**
+     * 获取任务累计执行耗时，单位纳秒，两次采样之差除以采样间隔即为平均繁忙线程数
+     */
+    public long getBusyNanos() {
+        return busyNanosCounter.sum();
+    }
+
+    @Override
+    public boolean remove(Runnable task) {
+        boolean removed = super.remove(task);
+        if (!removed) {
+            // 队列中保存的是包装后的任务，按原始任务查找对应的包装对象
+            for (Runnable each : getQueue()) {
+                if (each instanceof TimedRunnable && ((TimedRunnable) each).getTask() == task) {
+                    removed = super.remove(each);
+                    break;
+                }
+            }
+        }
+        // execute 入队后复查发现线程池已关闭时移除的任务随后会执行拒绝策略，已计入拒绝次数
+        if (removed && EXECUTING.get() == null) {
+            removedCounter.increment();
+        }
+        return removed;
+    }
+
+    @Override
+    public void purge() {
+        // 队列中保存的是包装后的任务，父类按队列元素判断是否为已取消的 Future，无法识别，按原始任务判断并统计移除数量
+        for (Object each : getQueue().toArray()) {
+            Runnable task = TimedRunnable.unwrap((Runnable) each);
+            if (task instanceof Future && ((Future<?>) task).isCancelled() && super.remove((Runnable) each)) {
+                removedCounter.increment();
+            }
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> tasks = super.shutdownNow();
+        removedCounter.add(tasks.size());
+        List<Runnable> originalTasks = new ArrayList<>(tasks.size());
+        for (Runnable each : tasks) {
+            originalTasks.add(TimedRunnable.unwrap(each));
+        }
+        return originalTasks;
+    }
+
+    @Override
+    public void setCorePoolSize(int corePoolSize) {
+        int previousCorePoolSize = getCorePoolSize();
+        super.setCorePoolSize(corePoolSize);
+        if (previousCorePoolSize != corePoolSize) {
+            int maximumPoolSize = getMaximumPoolSize();
+            new PoolResizedEvent().commit(threadPoolId, previousCorePoolSize, corePoolSize, maximumPoolSize, maximumPoolSize);
+        }
+    }
+
+    @Override
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        int previousMaximumPoolSize = getMaximumPoolSize();
+        super.setMaximumPoolSize(maximumPoolSize);
+        if (previousMaximumPoolSize != maximumPoolSize) {
+            int corePoolSize = getCorePoolSize();
+            new PoolResizedEvent().commit(threadPoolId, corePoolSize, corePoolSize, previousMaximumPoolSize, maximumPoolSize);
+        }
+    }
+
+    @Override
+    public void setThreadFactory(ThreadFactory threadFactory) {
+        ThreadFactory threadFactoryWrapper = new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Runnable worker = () -> {
+                    int liveThreads = liveThreadCounter.incrementAndGet();
+                    largestThreadCounter.accumulateAndGet(liveThreads, Math::max);
+                    try {
+                        r.run();
+                    } finally {
+                        liveThreadCounter.decrementAndGet();
+                    }
+                };
+                // 登记线程归属，线程的 CPU 时间和分配字节数计入当前线程池
+                return threadFactory.newThread(isThreadResourceTracked() ? ThreadResourceAccounting.track(threadPoolId, worker) : worker);
+            }
+
+            @Override
+            public String toString() {
+                return threadFactory.toString();
+            }
+        };
+
+        super.setThreadFactory(threadFactoryWrapper);
+    }
+
+    /**
+     * 工作线程是否登记资源归属，工作线程不支持 CPU 时间统计的子类返回 false
+     * <p>
+     * 创建工作线程时调用，父类构造期间也可能调用，实现不能依赖子类字段
+     */
+    protected boolean isThreadResourceTracked() {
+        return true;
+    }
+
+    /**
+     * 是否为会把任务重新放回当前线程池队列的内置拒绝策略
+     */
+    private static boolean isRequeuePolicy(RejectedExecutionHandler handler) {
+        return handler instanceof BlockingOfferPolicy || handler instanceof RetryBackoffPolicy || handler instanceof OverflowHandoffPolicy;
+    }
 
     @Override
     public void setRejectedExecutionHandler(RejectedExecutionHandler handler) {
+        this.originalRejectedHandler = handler;
         RejectedExecutionHandler handlerWrapper = new RejectedExecutionHandler() {
             @Override
             public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+                // eager 模式下线程数已打满导致创建线程失败，重新入队，不计入拒绝次数
+                if (getWorkQueue() instanceof EagerTaskQueue && switchableQueue.offer(r,
+                        (queue, task) -> queue instanceof EagerTaskQueue && ((EagerTaskQueue) queue).retryOffer(task))) {
+                    return;
+                }
+
                 rejectCount.incrementAndGet();
-                handler.rejectedExecution(r, executor);
+                new TaskRejectedEvent().commit(threadPoolId, TimedRunnable.unwrap(r).getClass(), handler.getClass().getSimpleName());
+                if (handler instanceof DiscardOldestPolicy) {
+                    // 与 DiscardOldestPolicy 语义一致，额外统计被丢弃的队头任务，保证排队任务数准确
+                    if (!executor.isShutdown()) {
+                        if (executor.getQueue().poll() != null) {
+                            removedCounter.increment();
+                        }
+                        executor.execute(r);
+                    }
+                    return;
+                }
+                // 内置的背压类拒绝策略会把任务重新放回队列，需要保留包装；其余拒绝策略由使用方提供，只暴露原始任务
+                handler.rejectedExecution(isRequeuePolicy(handler) ? r : TimedRunnable.unwrap(r), executor);
 
             }
 
@@ -0,0 +1,315 @@
+package cn.yoaoso.threadpool.core.executor;
+
+import cn.yoaoso.threadpool.core.executor.support.ResizableSemaphore;
+import cn.yoaoso.threadpool.core.jfr.PoolResizedEvent;
+import cn.yoaoso.threadpool.core.toolkit.ThreadFactoryBuilder;
+import lombok.NonNull;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Drayd
+ * @description 虚拟线程动态线程池执行器，适用于阻塞 IO 密集型场景，需要 JDK 21 及以上版本
+ * <p>
+ * 任务不再由 ThreadPoolExecutor 的平台工作线程执行，而是按需启动虚拟线程执行，并发度由可调整的信号量控制，许可总数即最大线程数
+ * 虚拟线程在执行完当前任务后会继续消费阻塞队列，队列为空时归还许可并退出，因此队列、拒绝策略、运行时统计和告警与平台线程模式保持一致
+ * 核心线程数和线程空闲存活时间对虚拟线程没有意义，仅作为配置保留；核心线程数不写入 ThreadPoolExecutor，避免其为积压任务创建不受许可控制的工作线程
+ * @create 2026-10-18 12:10
+ */
+public class VirtualThreadTidePoolExecutor extends TidePoolExecutor {
+
+    /**
+     * 并发许可，许可总数等于最大线程数
+     */
+    private final ResizableSemaphore permits;
+
+    /**
+     * 配置的核心线程数，只记录不生效，父类中的核心线程数始终为 0
+     */
+    private volatile int corePoolSize;
+
+    /**
+     * 持有许可的虚拟工作线程数，用于判断线程池是否终止
+     */
+    private final AtomicInteger workerCount = new AtomicInteger();
+
+    /**
+     * 正在运行的虚拟工作线程，shutdownNow 时中断
+     */
+    private final Set<Thread> workers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 是否已调用 shutdownNow
+     */
+    private volatile boolean stopped;
+
+    /**
+     * 终止等待监视器
+     */
+    private final Object terminationMonitor = new Object();
+
+    public VirtualThreadTidePoolExecutor(
+            @NonNull String threadPoolId,
+            int corePoolSize,
+            int maximumPoolSize,
+            long keepAliveTime,
+            @NonNull TimeUnit unit,
+            @NonNull BlockingQueue<Runnable> workQueue,
+            @NonNull RejectedExecutionHandler handler,
+            long awaitTerminationMillis) {
+        super(threadPoolId, 0, maximumPoolSize, keepAliveTime, unit, workQueue,
+                newVirtualThreadFactory(threadPoolId), handler, awaitTerminationMillis);
+        if (corePoolSize < 0 || corePoolSize > maximumPoolSize) {
+            throw new IllegalArgumentException();
+        }
+        this.corePoolSize = corePoolSize;
+        this.permits = new ResizableSemaphore(maximumPoolSize);
+    }
+
+    /**
+     * 当前运行时是否支持虚拟线程
+     */
+    public static boolean isVirtualThreadSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * 通过反射创建虚拟线程工厂，项目以 JDK 17 编译，不能直接引用 JDK 21 的 Thread.ofVirtual()
+     */
+    private static ThreadFactory newVirtualThreadFactory(String threadPoolId) {
+        ThreadFactory virtualThreadFactory;
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method factoryMethod = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            virtualThreadFactory = (ThreadFactory) factoryMethod.invoke(builder);
+        } catch (NoSuchMethodException | ClassNotFoundException ex) {
+            throw new IllegalStateException("Virtual thread executor requires JDK 21 or later, current version: " + Runtime.version(), ex);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Failed to create virtual thread factory.", ex);
+        }
+
+        return ThreadFactoryBuilder.builder()
+                .threadFactory(virtualThreadFactory)
+                .namePrefix(threadPoolId + "_virtual_")
+                .build();
+    }
+
+    /**
+     * 虚拟线程不支持线程 CPU 时间统计，且每个任务都可能启动新的虚拟线程，不登记资源归属
+     */
+    @Override
+    protected boolean isThreadResourceTracked() {
+        return false;
+    }
+
+    @Override
+    protected void doExecute(Runnable command) {
+        if (isShutdown()) {
+            reject(command);
+            return;
+        }
+
+        // 有空闲许可时直接启动虚拟线程执行，不经过队列
+        if (permits.tryAcquire()) {
+            startWorker(command);
+            return;
+        }
+
+        if (!getQueue().offer(command)) {
+            reject(command);
+            return;
+        }
+
+        // 入队后复查：线程池已关闭则撤回任务；所有虚拟线程恰好在入队前退出则补充一个，避免任务滞留
+        if (isShutdown() && getQueue().remove(command)) {
+            reject(command);
+        } else if (permits.tryAcquire()) {
+            startWorker(null);
+        }
+    }
+
+    @Override
+    protected void doExecuteAll(List<Runnable> commands) {
+        // 每个任务需要先尝试获取许可直接启动虚拟线程，逐个提交
+        commands.forEach(this::doExecute);
+    }
+
+    private void reject(Runnable command) {
+        getRejectedExecutionHandler().rejectedExecution(command, this);
+    }
+
+    private void startWorker(Runnable firstTask) {
+        workerCount.incrementAndGet();
+        try {
+            getThreadFactory().newThread(() -> runWorker(firstTask)).start();
+        } catch (Throwable ex) {
+            workerExit();
+            throw ex;
+        }
+    }
+
+    private void runWorker(Runnable firstTask) {
+        Thread current = Thread.currentThread();
+        workers.add(current);
+        try {
+            Runnable task = firstTask;
+            while (true) {
+                while (task != null) {
+                    runTask(current, task);
+                    task = getQueue().poll();
+                }
+                permits.release();
+                // 归还许可后复查队列，避免与提交线程竞争导致任务滞留
+                if (getQueue().isEmpty() || !permits.tryAcquire()) {
+                    return;
+                }
+                task = getQueue().poll();
+            }
+        } finally {
+            workers.remove(current);
+            workerExit();
+        }
+    }
+
+    private void runTask(Thread current, Runnable task) {
+        // 与 ThreadPoolExecutor 保持一致：shutdownNow 后确保线程处于中断状态，否则清除上一个任务残留的中断状态
+        if (stopped) {
+            current.interrupt();
+        } else {
+            Thread.interrupted();
+        }
+
+        Throwable thrown = null;
+        try {
+            beforeExecute(current, task);
+            try {
+                task.run();
+            } catch (Throwable ex) {
+                thrown = ex;
+                throw ex;
+            } finally {
+                afterExecute(task, thrown);
+            }
+        } catch (Throwable ex) {
+            // 虚拟线程按需启动，任务异常交给未捕获异常处理器后继续消费队列，无需像平台线程那样替换工作线程
+            current.getUncaughtExceptionHandler().uncaughtException(current, ex);
+        }
+    }
+
+    private void workerExit() {
+        if (workerCount.decrementAndGet() == 0 && isShutdown()) {
+            synchronized (terminationMonitor) {
+                terminationMonitor.notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        // 父类中的核心线程数为 0，按配置的核心线程数校验
+        if (maximumPoolSize < corePoolSize) {
+            throw new IllegalArgumentException();
+        }
+        super.setMaximumPoolSize(maximumPoolSize);
+        // 父类构造期间信号量尚未初始化
+        if (permits != null) {
+            permits.setMaxPermits(maximumPoolSize);
+            // 调大并发上限后立即为积压任务补充虚拟线程，不必等待新任务提交
+            while (!isShutdown() && !getQueue().isEmpty() && permits.tryAcquire()) {
+                startWorker(null);
+            }
+        }
+    }
+
+    @Override
+    public void setCorePoolSize(int corePoolSize) {
+        // 不调用父类：ThreadPoolExecutor 调大核心线程数时会为积压任务创建工作线程，这些线程消费队列不受许可限制
+        if (corePoolSize < 0 || corePoolSize > getMaximumPoolSize()) {
+            throw new IllegalArgumentException();
+        }
+        int previousCorePoolSize = this.corePoolSize;
+        this.corePoolSize = corePoolSize;
+        if (previousCorePoolSize != corePoolSize) {
+            int maximumPoolSize = getMaximumPoolSize();
+            new PoolResizedEvent().commit(getThreadPoolId(), previousCorePoolSize, corePoolSize, maximumPoolSize, maximumPoolSize);
+        }
+    }
+
+    @Override
+    public int getCorePoolSize() {
+        return corePoolSize;
+    }
+
+    @Override
+    public boolean prestartCoreThread() {
+        return false;
+    }
+
+    @Override
+    public int prestartAllCoreThreads() {
+        return 0;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        stopped = true;
+        List<Runnable> tasks = super.shutdownNow();
+        for (Thread each : workers) {
+            each.interrupt();
+        }
+        return tasks;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return isShutdown() && workerCount.get() == 0 && getQueue().isEmpty();
+    }
+
+    @Override
+    public boolean isTerminating() {
+        return isShutdown() && !isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (terminationMonitor) {
+            while (!isTerminated()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0L) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(terminationMonitor, remaining);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getPoolSize() {
+        return getLiveThreadCount();
+    }
+
+    @Override
+    public int getActiveCount() {
+        return getRuntimeStats().getActiveCount();
+    }
+
+    @Override
+    public int getLargestPoolSize() {
+        return getRuntimeStats().getLargestPoolSize();
+    }
+}
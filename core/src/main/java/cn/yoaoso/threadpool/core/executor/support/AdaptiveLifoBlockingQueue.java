@@ -0,0 +1,673 @@
+package cn.yoaoso.threadpool.core.executor.support;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * A bounded {@linkplain java.util.concurrent.BlockingQueue blocking queue}
+ * with a {@link #setCapacity(int)} method, which serves elements in FIFO
+ * order normally and switches to LIFO order while the queue is backlogged.<p>
+ * <p>
+ * The queue is considered backlogged when its oldest element has been waiting
+ * longer than the LIFO threshold. Under a backlog FIFO order makes every
+ * element wait the full queue time, so most of them miss their deadline;
+ * serving the newest elements first keeps them within their SLA. As soon as
+ * the head is younger than the threshold again, the queue falls back to FIFO
+ * order. The threshold can be changed at runtime through
+ * {@link #setLifoThreshold(long, TimeUnit)}, a non-positive threshold
+ * disables LIFO order.
+ * <p>
+ * The queue never discards elements by itself: while the backlog lasts the
+ * stale elements stay at the head and keep occupying capacity, and they are
+ * served, however old, once the backlog clears. Submit tasks with a deadline
+ * ({@link cn.yoaoso.threadpool.core.executor.TidePoolExecutor#execute(Runnable, long, TimeUnit)})
+ * so that stale tasks are skipped when they are finally taken, or use
+ * {@link CoDelTaskQueue} when stale tasks should be dropped during the
+ * overload instead.
+ * <p>
+ * The queue records the enqueue time of each element itself, so elements of
+ * any type are supported. Elements and enqueue times are kept in parallel
+ * circular arrays, so no node is allocated per element. The arrays grow on
+ * demand up to the capacity. When the capacity shrinks below the current
+ * number of elements, no element is dropped: new insertions are refused until
+ * the queue drains below the new bound. All operations are guarded by a single
+ * lock. Iterators traverse a snapshot of the queue from head to tail.
+ *
+ * @param <E> the type of elements held in this collection
+ */
+public class AdaptiveLifoBlockingQueue<E> extends AbstractQueue<E>
+        implements ResizableCapacityBlockingQueue<E> {
+
+    /**
+     * Default waiting time of the oldest element that switches to LIFO order
+     */
+    public static final long DEFAULT_LIFO_THRESHOLD_MILLIS = 1000L;
+
+    /**
+     * Initial length of the circular arrays
+     */
+    private static final int INITIAL_ARRAY_LENGTH = 16;
+
+    /**
+     * The queued items
+     */
+    private Object[] items;
+
+    /**
+     * Enqueue times of the queued items, in {@link System#nanoTime()}
+     */
+    private long[] enqueueNanos;
+
+    /**
+     * Array index of the oldest element
+     */
+    private int head;
+
+    /**
+     * Number of elements in the queue
+     */
+    private int count;
+
+    /**
+     * The capacity bound
+     */
+    private volatile int capacity;
+
+    /**
+     * Waiting time of the oldest element that switches to LIFO order, in nanoseconds
+     */
+    private volatile long lifoThresholdNanos;
+
+    /**
+     * Whether the last dequeue was served in LIFO order
+     */
+    private volatile boolean lifo;
+
+    /**
+     * Main lock guarding all access
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Condition for waiting takes
+     */
+    private final Condition notEmpty = lock.newCondition();
+
+    /**
+     * Condition for waiting puts
+     */
+    private final Condition notFull = lock.newCondition();
+
+    /**
+     * Creates a queue with the given capacity and the default LIFO threshold.
+     *
+     * @param capacity the capacity of this queue.
+     * @throws IllegalArgumentException if <tt>capacity</tt> is not greater
+     *                                  than zero.
+     */
+    public AdaptiveLifoBlockingQueue(int capacity) {
+        this(capacity, DEFAULT_LIFO_THRESHOLD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a queue with the given capacity and LIFO threshold.
+     *
+     * @param capacity     the capacity of this queue.
+     * @param lifoThreshold waiting time of the oldest element that switches
+     *                     to LIFO order, non-positive to disable LIFO order
+     * @param unit         the time unit of the lifoThreshold argument
+     * @throws IllegalArgumentException if <tt>capacity</tt> is not greater
+     *                                  than zero.
+     */
+    public AdaptiveLifoBlockingQueue(int capacity, long lifoThreshold, TimeUnit unit) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.capacity = capacity;
+        this.lifoThresholdNanos = unit.toNanos(lifoThreshold);
+        int length = Math.min(capacity, INITIAL_ARRAY_LENGTH);
+        this.items = new Object[length];
+        this.enqueueNanos = new long[length];
+    }
+
+    /**
+     * Set a new capacity for the queue. The arrays are not reallocated, they
+     * grow on demand.
+     *
+     * @param capacity the new capacity for the queue
+     * @throws IllegalArgumentException if <tt>capacity</tt> is not greater
+     *                                  than zero.
+     */
+    @Override
+    public void setCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException();
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            int oldCapacity = this.capacity;
+            this.capacity = capacity;
+            if (capacity > oldCapacity && count < capacity) {
+                notFull.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Set a new LIFO threshold, takes effect on the next dequeue.
+     *
+     * @param lifoThreshold waiting time of the oldest element that switches
+     *                      to LIFO order, non-positive to disable LIFO order
+     * @param unit          the time unit of the lifoThreshold argument
+     */
+    public void setLifoThreshold(long lifoThreshold, TimeUnit unit) {
+        this.lifoThresholdNanos = unit.toNanos(lifoThreshold);
+    }
+
+    /**
+     * Returns the LIFO threshold in the given time unit.
+     */
+    public long getLifoThreshold(TimeUnit unit) {
+        return unit.convert(lifoThresholdNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns whether the last dequeue was served in LIFO order.
+     */
+    public boolean isLifo() {
+        return lifo;
+    }
+
+    @Override
+    public int size() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return Math.max(0, capacity - count);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(E o) {
+        if (o == null) {
+            throw new NullPointerException();
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            if (count >= capacity) {
+                return false;
+            }
+            enqueue(o);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(E o) throws InterruptedException {
+        if (o == null) {
+            throw new NullPointerException();
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (count >= capacity) {
+                notFull.await();
+            }
+            enqueue(o);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(E o, long timeout, TimeUnit unit) throws InterruptedException {
+        if (o == null) {
+            throw new NullPointerException();
+        }
+        long nanos = unit.toNanos(timeout);
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (count >= capacity) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            enqueue(o);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E poll() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return (count == 0) ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves, but does not remove, the element the next dequeue would
+     * return at this moment.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return (count == 0) ? null : (E) items[isBacklogged(System.nanoTime()) ? index(count - 1) : head];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return removeFirstMatching(o, false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the matching elements with one compaction of the circular
+     * arrays, keeping the remaining elements in head to tail order.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<E> removeMatching(Predicate<? super E> filter) {
+        if (filter == null) {
+            throw new NullPointerException();
+        }
+        List<E> removed = new ArrayList<>();
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            final Object[] items = this.items;
+            final long[] enqueueNanos = this.enqueueNanos;
+            // test every element before touching the arrays, so that a throwing filter leaves the queue intact
+            boolean[] matched = new boolean[count];
+            for (int i = 0; i < count; i++) {
+                E each = (E) items[index(i)];
+                if (filter.test(each)) {
+                    matched[i] = true;
+                    removed.add(each);
+                }
+            }
+            if (removed.isEmpty()) {
+                return removed;
+            }
+            int w = 0;
+            for (int i = 0; i < count; i++) {
+                if (!matched[i]) {
+                    int to = index(w++);
+                    int from = index(i);
+                    items[to] = items[from];
+                    enqueueNanos[to] = enqueueNanos[from];
+                }
+            }
+            for (int i = w; i < count; i++) {
+                items[index(i)] = null;
+            }
+            count = w;
+            notFull.signalAll();
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            Arrays.fill(items, null);
+            head = 0;
+            count = 0;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Drains the elements from head to tail, ignoring the LIFO threshold, so
+     * that the tasks returned by {@code shutdownNow} keep submission order.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == null) {
+            throw new NullPointerException();
+        }
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        if (maxElements <= 0) {
+            return 0;
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            int n = Math.min(maxElements, count);
+            for (int i = 0; i < n; i++) {
+                c.add((E) items[head]);
+                items[head] = null;
+                head = inc(head);
+            }
+            count -= n;
+            if (n > 0) {
+                notFull.signalAll();
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Object[] toArray() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return snapshot().toArray();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return snapshot().toArray(a);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return snapshot().toString();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the elements in this queue, from
+     * head (oldest) to tail (newest). The iterator never throws
+     * {@link java.util.ConcurrentModificationException}.
+     *
+     * @return an iterator over the elements in this queue
+     */
+    @Override
+    public Iterator<E> iterator() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return new Itr(snapshot());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends element at the tail and signals. Call only when holding lock.
+     */
+    private void enqueue(E x) {
+        if (count == items.length) {
+            grow();
+        }
+        int tail = index(count);
+        items[tail] = x;
+        enqueueNanos[tail] = System.nanoTime();
+        count++;
+        notEmpty.signal();
+    }
+
+    /**
+     * Removes the head or the tail depending on the age of the head, and
+     * signals. Call only when holding lock.
+     */
+    @SuppressWarnings("unchecked")
+    private E dequeue() {
+        int i = nextIndex(System.nanoTime());
+        E x = (E) items[i];
+        items[i] = null;
+        if (i == head) {
+            head = inc(head);
+        }
+        count--;
+        notFull.signal();
+        return x;
+    }
+
+    /**
+     * Array index of the element to take next: the tail while the head is
+     * older than the LIFO threshold, otherwise the head. Also records the
+     * chosen order. Call only when holding lock and count is positive.
+     */
+    private int nextIndex(long nowNanos) {
+        boolean backlogged = isBacklogged(nowNanos);
+        lifo = backlogged;
+        return backlogged ? index(count - 1) : head;
+    }
+
+    /**
+     * Whether the head is older than the LIFO threshold, without recording
+     * the order. Call only when holding lock and count is positive.
+     */
+    private boolean isBacklogged(long nowNanos) {
+        long threshold = lifoThresholdNanos;
+        return threshold > 0 && nowNanos - enqueueNanos[head] > threshold;
+    }
+
+    /**
+     * Doubles the arrays, never beyond the capacity, unrolling the circular
+     * layout so that head starts at zero. Called only when the arrays are full
+     * and count is below the capacity. Call only when holding lock.
+     */
+    private void grow() {
+        int oldLength = items.length;
+        int newLength = (int) Math.min((long) capacity, oldLength * 2L);
+        Object[] newItems = new Object[newLength];
+        long[] newEnqueueNanos = new long[newLength];
+        int firstPart = oldLength - head;
+        System.arraycopy(items, head, newItems, 0, firstPart);
+        System.arraycopy(items, 0, newItems, firstPart, head);
+        System.arraycopy(enqueueNanos, head, newEnqueueNanos, 0, firstPart);
+        System.arraycopy(enqueueNanos, 0, newEnqueueNanos, firstPart, head);
+        items = newItems;
+        enqueueNanos = newEnqueueNanos;
+        head = 0;
+    }
+
+    /**
+     * Array index of the i-th element counted from head.
+     */
+    private int index(int i) {
+        int j = head + i;
+        return j >= items.length ? j - items.length : j;
+    }
+
+    private int inc(int i) {
+        return (++i == items.length) ? 0 : i;
+    }
+
+    /**
+     * Removes the first element matching o. Call only when holding lock.
+     */
+    private boolean removeFirstMatching(Object o, boolean identity) {
+        final Object[] items = this.items;
+        for (int i = 0; i < count; i++) {
+            Object each = items[index(i)];
+            if (identity ? o == each : o.equals(each)) {
+                removeAt(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the i-th element counted from head, shifting the following
+     * elements towards head. Call only when holding lock.
+     */
+    private void removeAt(int i) {
+        final Object[] items = this.items;
+        final long[] enqueueNanos = this.enqueueNanos;
+        for (int k = i; k < count - 1; k++) {
+            int to = index(k);
+            int from = index(k + 1);
+            items[to] = items[from];
+            enqueueNanos[to] = enqueueNanos[from];
+        }
+        items[index(count - 1)] = null;
+        count--;
+        notFull.signal();
+    }
+
+    /**
+     * Copy the queued elements from head to tail. Call only when holding lock.
+     */
+    @SuppressWarnings("unchecked")
+    private List<E> snapshot() {
+        List<E> elements = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            elements.add((E) items[index(i)]);
+        }
+        return elements;
+    }
+
+    /**
+     * Snapshot iterator.
+     */
+    private class Itr implements Iterator<E> {
+
+        private final List<E> elements;
+        private int cursor;
+        private E lastRet;
+
+        Itr(List<E> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < elements.size();
+        }
+
+        @Override
+        public E next() {
+            if (cursor >= elements.size()) {
+                throw new NoSuchElementException();
+            }
+            lastRet = elements.get(cursor++);
+            return lastRet;
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet == null) {
+                throw new IllegalStateException();
+            }
+            final ReentrantLock lock = AdaptiveLifoBlockingQueue.this.lock;
+            lock.lock();
+            try {
+                removeFirstMatching(lastRet, true);
+            } finally {
+                lock.unlock();
+            }
+            lastRet = null;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package cn.yoaoso.threadpool.core.executor.support;
+
+import cn.yoaoso.threadpool.core.executor.TidePoolExecutor;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Drayd
+ * @description 阻塞提交线程的拒绝策略，在限定时间内等待队列空位，超时后抛出 {@link RejectedExecutionException}
+ * <p>
+ * 与 CallerRunsPolicy 相比，提交线程最多阻塞固定时间，不会因为在调用方执行任务而被长任务拖住；适合提交方可以承受短暂阻塞的生产者
+ * 等待时间应远小于 Netty、Servlet 等请求线程的超时时间，事件循环线程不应使用该策略
+ * @create 2026-10-18 17:10
+ */
+public class BlockingOfferPolicy implements RejectedExecutionHandler {
+
+    /**
+     * 最长等待时间，单位纳秒
+     */
+    private final long timeoutNanos;
+
+    /**
+     * 等待后成功入队的任务数
+     */
+    private final LongAdder acceptedCount = new LongAdder();
+
+    /**
+     * 等待超时或线程池关闭被拒绝的任务数
+     */
+    private final LongAdder timeoutCount = new LongAdder();
+
+    /**
+     * 提交线程累计阻塞时间，单位纳秒
+     */
+    private final LongAdder blockedNanos = new LongAdder();
+
+    public BlockingOfferPolicy(long timeout, TimeUnit unit) {
+        this.timeoutNanos = unit.toNanos(Math.max(0L, timeout));
+    }
+
+    @Override
+    public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            timeoutCount.increment();
+            throw new RejectedExecutionException("Task " + r + " rejected from " + executor + ", executor is shutdown");
+        }
+
+        long startNanos = System.nanoTime();
+        boolean accepted;
+        try {
+            accepted = executor instanceof TidePoolExecutor
+                    ? ((TidePoolExecutor) executor).requeue(r, timeoutNanos, TimeUnit.NANOSECONDS)
+                    : executor.getQueue().offer(r, timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        } finally {
+            blockedNanos.add(System.nanoTime() - startNanos);
+        }
+
+        if (!accepted) {
+            timeoutCount.increment();
+            throw new RejectedExecutionException("Task " + r + " rejected from " + executor + " after blocking "
+                    + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms");
+        }
+        acceptedCount.increment();
+    }
+
+    /**
+     * 获取等待后成功入队的任务数
+     */
+    public long getAcceptedCount() {
+        return acceptedCount.sum();
+    }
+
+    /**
+     * 获取等待超时被拒绝的任务数
+     */
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    /**
+     * 获取提交线程累计阻塞时间，单位纳秒
+     */
+    public long getBlockedNanos() {
+        return blockedNanos.sum();
+    }
+}
@@ -116,6 +116,111 @@ public enum BlockingQueueTypeEnum {
         <T> BlockingQueue<T> of() {
             return new ResizableCapacityLinkedBlockingQueue<>();
         }
+    },
+
+    /**
+     * {@link ResizableCapacityLockFreeQueue}
+     */
+    RESIZABLE_CAPACITY_LOCK_FREE_QUEUE("ResizableCapacityLockFreeQueue") {
+        @Override
+        <T> BlockingQueue<T> of(Integer capacity) {
+            return new ResizableCapacityLockFreeQueue<>(capacity);
+        }
+
+        @Override
+        <T> BlockingQueue<T> of() {
+            return new ResizableCapacityLockFreeQueue<>();
+        }
+    },
+
+    /**
+     * {@link ResizableCapacityArrayBlockingQueue}
+     */
+    RESIZABLE_CAPACITY_ARRAY_BLOCKING_QUEUE("ResizableCapacityArrayBlockingQueue") {
+        @Override
+        <T> BlockingQueue<T> of(Integer capacity) {
+            return new ResizableCapacityArrayBlockingQueue<>(capacity);
+        }
+
+        @Override
+        <T> BlockingQueue<T> of() {
+            return new ResizableCapacityArrayBlockingQueue<>(DEFAULT_CAPACITY);
+        }
+    },
+
+    /**
+     * {@link ResizableCapacityChunkedArrayBlockingQueue}
+     */
+    RESIZABLE_CAPACITY_CHUNKED_ARRAY_BLOCKING_QUEUE("ResizableCapacityChunkedArrayBlockingQueue") {
+        @Override
+        <T> BlockingQueue<T> of(Integer capacity) {
+            return new ResizableCapacityChunkedArrayBlockingQueue<>(capacity);
+        }
+
+        @Override
+        <T> BlockingQueue<T> of() {
+            return new ResizableCapacityChunkedArrayBlockingQueue<>();
+        }
+    },
+
+    /**
+     * {@link ResizableCapacityPriorityBlockingQueue}
+     */
+    RESIZABLE_CAPACITY_PRIORITY_BLOCKING_QUEUE("ResizableCapacityPriorityBlockingQueue") {
+        @Override
+        <T> BlockingQueue<T> of(Integer capacity) {
+            return new ResizableCapacityPriorityBlockingQueue<>(capacity);
+        }
+
+        @Override
+        <T> BlockingQueue<T> of() {
+            return new ResizableCapacityPriorityBlockingQueue<>(DEFAULT_CAPACITY);
+        }
+    },
+
+    /**
+     * {@link CoDelTaskQueue}，需要绑定动态线程池才会丢弃排队超时的任务
+     */
+    CODEL_TASK_QUEUE("CoDelTaskQueue") {
+        @Override
+        <T> BlockingQueue<T> of(Integer capacity) {
+            return (BlockingQueue<T>) new CoDelTaskQueue(capacity);
+        }
+
+        @Override
+        <T> BlockingQueue<T> of() {
+            return (BlockingQueue<T>) new CoDelTaskQueue(DEFAULT_CAPACITY);
+        }
+    },
+
+    /**
+     * {@link AdaptiveLifoBlockingQueue}
+     */
+    ADAPTIVE_LIFO_BLOCKING_QUEUE("AdaptiveLifoBlockingQueue") {
+        @Override
+        <T> BlockingQueue<T> of(Integer capacity) {
+            return new AdaptiveLifoBlockingQueue<>(capacity);
+        }
+
+        @Override
+        <T> BlockingQueue<T> of() {
+            return new AdaptiveLifoBlockingQueue<>(DEFAULT_CAPACITY);
+        }
+    },
+
+    /**
+     * {@link SpillableBlockingQueue}，容量为内存队头的容量，超出部分溢出到磁盘
+     */
+    SPILLABLE_BLOCKING_QUEUE("SpillableBlockingQueue") {
+        @Override
+        <T> BlockingQueue<T> of(Integer capacity) {
+            return (BlockingQueue<T>) new SpillableBlockingQueue(capacity);
+        }
+
+        @Override
+        <T> BlockingQueue<T> of() {
+            return (BlockingQueue<T>) new SpillableBlockingQueue(DEFAULT_CAPACITY);
+        }
     };
 
     @Getter
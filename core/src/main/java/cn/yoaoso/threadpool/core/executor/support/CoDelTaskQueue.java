@@ -0,0 +1,168 @@
+package cn.yoaoso.threadpool.core.executor.support;
+
+import cn.yoaoso.threadpool.core.executor.KeyedSerialExecutor;
+import cn.yoaoso.threadpool.core.executor.TidePoolExecutor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Drayd
+ * @description 基于排队时长（sojourn time）主动丢弃任务的队列，过载算法参考 CoDel 在服务端请求队列上的变体（Facebook wangle）
+ * <p>
+ * 过载时队列中积压的任务调用方往往早已超时，继续执行只会消耗 CPU，同时新请求因队列已满被拒绝
+ * 该队列在出队时计算任务的排队时长，并统计每个周期内的最小排队时长：最小值都超过目标延迟，说明队列在整个周期内都没有排空，判定为过载；
+ * 过载期间排队时长超过两倍目标延迟的任务在出队时直接丢弃，计入线程池的丢弃次数并交给 {@link TaskDropHandler} 处理（默认取消通过 submit 提交的任务），直到某个周期的最小排队时长回落到目标延迟以内
+ * <p>
+ * 排队时长依赖 {@link TidePoolExecutor} 包装任务时记录的入队时间，未绑定线程池或任务未包装时退化为普通的有界队列
+ * @create 2026-10-18 14:40
+ */
+public class CoDelTaskQueue extends ResizableCapacityLinkedBlockingQueue<Runnable> {
+
+    private static final long serialVersionUID = 3512684067285183047L;
+
+    /**
+     * 默认目标延迟，单位毫秒
+     */
+    public static final long DEFAULT_TARGET_MILLIS = 100L;
+
+    /**
+     * 默认检测周期，单位毫秒
+     */
+    public static final long DEFAULT_INTERVAL_MILLIS = 1000L;
+
+    /**
+     * 目标延迟，单位纳秒
+     */
+    private final long targetNanos;
+
+    /**
+     * 检测周期，单位纳秒
+     */
+    private final long intervalNanos;
+
+    /**
+     * 当前周期的结束时间，周期切换通过 CAS 保证只由一个出队线程完成
+     */
+    private final AtomicLong intervalEndNanos;
+
+    /**
+     * 当前周期内的最小排队时长，只在出现更小的值时 CAS 更新
+     */
+    private final AtomicLong minSojournNanos = new AtomicLong(Long.MAX_VALUE);
+
+    /**
+     * 是否处于过载状态
+     */
+    private volatile boolean overloaded;
+
+    /**
+     * 绑定的线程池，未绑定前不丢弃任务
+     */
+    private transient volatile TidePoolExecutor executor;
+
+    public CoDelTaskQueue(int capacity) {
+        this(capacity, DEFAULT_TARGET_MILLIS, DEFAULT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param capacity 队列容量
+     * @param target   目标延迟
+     * @param interval 检测周期
+     * @param unit     目标延迟和检测周期的时间单位
+     */
+    public CoDelTaskQueue(int capacity, long target, long interval, TimeUnit unit) {
+        super(capacity);
+        if (target <= 0 || interval <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.targetNanos = unit.toNanos(target);
+        this.intervalNanos = unit.toNanos(interval);
+        this.intervalEndNanos = new AtomicLong(System.nanoTime() + intervalNanos);
+    }
+
+    /**
+     * 绑定线程池，线程池创建后调用
+     *
+     * @param executor 使用该队列的线程池
+     */
+    public void setExecutor(TidePoolExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * 是否处于过载状态
+     */
+    public boolean isOverloaded() {
+        return overloaded;
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        Runnable runnable;
+        do {
+            runnable = super.take();
+        } while (shouldDrop(runnable));
+        return runnable;
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        Runnable runnable;
+        do {
+            runnable = super.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } while (runnable != null && shouldDrop(runnable));
+        return runnable;
+    }
+
+    @Override
+    public Runnable poll() {
+        Runnable runnable;
+        do {
+            runnable = super.poll();
+        } while (runnable != null && shouldDrop(runnable));
+        return runnable;
+    }
+
+    /**
+     * 判断出队的任务是否需要丢弃，需要丢弃时交给线程池处理
+     */
+    private boolean shouldDrop(Runnable runnable) {
+        TidePoolExecutor currentExecutor = this.executor;
+        if (currentExecutor == null || !(runnable instanceof TimedRunnable)
+                || KeyedSerialExecutor.isSerialWorker(TimedRunnable.unwrap(runnable))) {
+            return false;
+        }
+
+        long nowNanos = System.nanoTime();
+        long sojournNanos = nowNanos - ((TimedRunnable) runnable).getEnqueueNanos();
+        if (!isOverloaded(sojournNanos, nowNanos) || sojournNanos <= 2 * targetNanos) {
+            return false;
+        }
+
+        currentExecutor.dropTask(runnable);
+        return true;
+    }
+
+    /**
+     * 更新当前周期的最小排队时长，周期结束时根据最小排队时长切换过载状态
+     * <p>
+     * 每次出队都会调用，因此不加锁：只有周期切换需要互斥，通过 CAS 由一个线程完成；切换瞬间其他线程的样本可能计入上一个周期，不影响过载判断
+     */
+    private boolean isOverloaded(long sojournNanos, long nowNanos) {
+        long endNanos = intervalEndNanos.get();
+        if (nowNanos - endNanos >= 0 && intervalEndNanos.compareAndSet(endNanos, nowNanos + intervalNanos)) {
+            // 新周期以当前任务作为起始最小值；周期内没有出队记录时（构造后的首个周期）不判定为过载
+            long lastMinNanos = minSojournNanos.getAndSet(sojournNanos);
+            boolean nowOverloaded = lastMinNanos != Long.MAX_VALUE && lastMinNanos > targetNanos;
+            overloaded = nowOverloaded;
+            return nowOverloaded;
+        }
+        long minNanos = minSojournNanos.get();
+        while (sojournNanos < minNanos && !minSojournNanos.compareAndSet(minNanos, sojournNanos)) {
+            minNanos = minSojournNanos.get();
+        }
+        return overloaded;
+    }
+}
@@ -0,0 +1,28 @@
+package cn.yoaoso.threadpool.core.executor.support;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * @author Drayd
+ * @description 带截止时间提交的 FutureTask，过期未执行时以 {@link TimeoutException} 结束，调用方 get() 立即感知
+ * @create 2026-10-18 15:22
+ */
+public class DeadlineFutureTask<V> extends FutureTask<V> {
+
+    public DeadlineFutureTask(Callable<V> callable) {
+        super(callable);
+    }
+
+    public DeadlineFutureTask(Runnable runnable, V result) {
+        super(runnable, result);
+    }
+
+    /**
+     * 以超时异常结束任务，任务已结束时不做处理
+     */
+    public void expire() {
+        setException(new TimeoutException("The task expired before execution."));
+    }
+}
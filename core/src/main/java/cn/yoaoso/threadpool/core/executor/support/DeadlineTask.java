@@ -0,0 +1,89 @@
+package cn.yoaoso.threadpool.core.executor.support;
+
+import lombok.Getter;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Drayd
+ * @description 带截止时间的任务包装，工作线程取出任务时已超过截止时间则不再执行，交给 {@link TaskExpiryHandler} 处理
+ * <p>
+ * 截止时间为基于 {@link System#nanoTime()} 的绝对时间，可以由上游请求的剩余超时时间换算得到，扇出调用时多个子任务共用同一个截止时间
+ * @create 2026-10-18 15:20
+ */
+public class DeadlineTask implements Runnable {
+
+    /**
+     * 原始任务
+     */
+    @Getter
+    private final Runnable task;
+
+    /**
+     * 截止时间，基于 {@link System#nanoTime()}
+     */
+    @Getter
+    private final long deadlineNanos;
+
+    public DeadlineTask(Runnable task, long deadlineNanos) {
+        if (task == null) {
+            throw new NullPointerException();
+        }
+        this.task = task;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * 创建从当前时刻起指定时间后截止的任务
+     *
+     * @param task    原始任务
+     * @param timeout 超时时间
+     * @param unit    超时时间单位
+     * @return 带截止时间的任务
+     */
+    public static DeadlineTask of(Runnable task, long timeout, TimeUnit unit) {
+        return new DeadlineTask(task, System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    /**
+     * 获取线程池任务对应的截止时间任务，会先拆开动态线程池的 {@link TimedRunnable} 包装
+     *
+     * @param runnable 线程池中的任务
+     * @return 截止时间任务，未设置截止时间返回 null
+     */
+    public static DeadlineTask deadlineOf(Runnable runnable) {
+        Runnable task = TimedRunnable.unwrap(runnable);
+        return (task instanceof DeadlineTask) ? (DeadlineTask) task : null;
+    }
+
+    /**
+     * 是否已过截止时间
+     *
+     * @param nowNanos 当前时间，基于 {@link System#nanoTime()}
+     */
+    public boolean isExpired(long nowNanos) {
+        return nowNanos - deadlineNanos > 0L;
+    }
+
+    /**
+     * 以异常结束任务：{@link DeadlineFutureTask} 以 TimeoutException 结束，其余 Future 取消，普通任务直接跳过
+     */
+    public void completeExceptionally() {
+        if (task instanceof DeadlineFutureTask) {
+            ((DeadlineFutureTask<?>) task).expire();
+        } else if (task instanceof Future) {
+            ((Future<?>) task).cancel(false);
+        }
+    }
+
+    @Override
+    public void run() {
+        task.run();
+    }
+
+    @Override
+    public String toString() {
+        return task.toString();
+    }
+}
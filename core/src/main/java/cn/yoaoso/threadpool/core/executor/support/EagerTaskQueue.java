@@ -0,0 +1,84 @@
+package cn.yoaoso.threadpool.core.executor.support;
+
+import cn.yoaoso.threadpool.core.executor.TidePoolExecutor;
+
+import java.util.List;
+
+/**
+ * @author Drayd
+ * @description 线程优先扩容的任务队列（eager 模式），参考 Tomcat TaskQueue
+ * <p>
+ * 原生线程池只有在队列满后才会创建非核心线程，IO 密集型场景下容易出现线程数停留在核心线程数、队列大量积压的情况
+ * 该队列在线程数未达到最大线程数且没有空闲线程时拒绝入队，迫使线程池先创建非核心线程，线程数打满后才开始排队
+ * <p>
+ * 线程数和在途任务数均来自 {@link TidePoolExecutor} 的无锁计数器，入队判断不会获取线程池 mainLock
+ * @create 2026-10-18 11:40
+ */
+public class EagerTaskQueue extends ResizableCapacityLinkedBlockingQueue<Runnable> {
+
+    private static final long serialVersionUID = -2635853580887179627L;
+
+    /**
+     * 绑定的线程池，未绑定前退化为普通的有界队列
+     */
+    private transient volatile TidePoolExecutor executor;
+
+    public EagerTaskQueue(int capacity) {
+        super(capacity);
+    }
+
+    /**
+     * 绑定线程池，线程池创建后调用
+     *
+     * @param executor 使用该队列的线程池
+     */
+    public void setExecutor(TidePoolExecutor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public boolean offer(Runnable runnable) {
+        TidePoolExecutor currentExecutor = this.executor;
+        if (currentExecutor == null) {
+            return super.offer(runnable);
+        }
+
+        int liveThreadCount = currentExecutor.getLiveThreadCount();
+        // 线程数已达到最大线程数，只能排队
+        if (liveThreadCount >= currentExecutor.getMaximumPoolSize()) {
+            return super.offer(runnable);
+        }
+
+        // 在途任务数不超过线程数，说明存在空闲线程，入队即可被立即消费
+        if (currentExecutor.getInflightTaskCount() <= liveThreadCount) {
+            return super.offer(runnable);
+        }
+
+        // 返回 false 让线程池创建非核心线程
+        return false;
+    }
+
+    /**
+     * eager 模式需要逐个任务判断是否先创建线程，批量入队不接收任何任务，由线程池逐个提交
+     */
+    @Override
+    public int offerAll(List<? extends Runnable> elements) {
+        return executor == null ? super.offerAll(elements) : 0;
+    }
+
+    /**
+     * 线程池创建非核心线程失败后重新入队
+     * <p>
+     * 线程计数存在短暂滞后，判断可以扩容但线程数实际已达上限时，任务会进入拒绝流程，此时需要再给一次入队机会
+     *
+     * @param runnable 任务
+     * @return 是否入队成功
+     */
+    public boolean retryOffer(Runnable runnable) {
+        TidePoolExecutor currentExecutor = this.executor;
+        if (currentExecutor == null || currentExecutor.isShutdown()) {
+            return false;
+        }
+        return super.offer(runnable);
+    }
+}
@@ -0,0 +1,197 @@
+package cn.yoaoso.threadpool.core.executor.support;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * @author Drayd
+ * @description 无锁、零分配的对数分桶延迟直方图，单位纳秒
+ * <p>
+ * 每个 2 的幂区间再均分为 8 个子桶，相对误差不超过 12.5%，覆盖 0 ~ Long.MAX_VALUE 仅需 488 个桶
+ * 记录路径只有一次桶下标计算和一次原子自增，可以在生产环境常开
+ * <p>
+ * 计数按线程分条，与 {@link java.util.concurrent.atomic.LongAdder} 同理：大部分耗时落在相邻的几个桶里，同一缓存行上的计数如果由所有工作线程共享，
+ * 多核下原子自增会互相争用；分条后每条计数只被少数线程写入，快照时再合并。分条在线程首次记录时创建，线程数少的线程池只占用少量分条
+ * @create 2026-10-18 10:12
+ */
+public class LatencyHistogram {
+
+    /**
+     * 每个 2 的幂区间的子桶位数
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /**
+     * 每个 2 的幂区间的子桶数量
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * 桶总数，正数 long 的最高位指数最大为 62
+     */
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    /**
+     * 分条数量，取不小于 CPU 核数的 2 的幂，最多 64 条
+     */
+    private static final int STRIPE_COUNT = Math.min(64, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1);
+
+    /**
+     * 分条计数，每条前 {@link #BUCKET_COUNT} 个元素为各个桶的计数，最后一个元素为该分条记录到的最大值
+     */
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPE_COUNT);
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 耗时，单位纳秒，负数按 0 处理
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0L);
+        AtomicLongArray counts = stripe();
+        counts.getAndIncrement(bucketIndex(value));
+        // 只有出现更大的值时才需要 CAS，稳定运行后基本只有一次 volatile 读
+        long currentMax = counts.get(BUCKET_COUNT);
+        while (value > currentMax && !counts.compareAndSet(BUCKET_COUNT, currentMax, value)) {
+            currentMax = counts.get(BUCKET_COUNT);
+        }
+    }
+
+    /**
+     * 按线程 ID 选择分条，工作线程长期存活，同一个线程始终写入同一条
+     */
+    private AtomicLongArray stripe() {
+        long id = Thread.currentThread().getId();
+        int index = (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & (STRIPE_COUNT - 1);
+        AtomicLongArray counts = stripes.get(index);
+        if (counts == null) {
+            stripes.compareAndSet(index, null, new AtomicLongArray(BUCKET_COUNT + 1));
+            counts = stripes.get(index);
+        }
+        return counts;
+    }
+
+    /**
+     * 获取自创建（或上次重置）以来的累计快照
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long maxValue = 0L;
+        for (int s = 0; s < STRIPE_COUNT; s++) {
+            AtomicLongArray counts = stripes.get(s);
+            if (counts == null) {
+                continue;
+            }
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                copy[i] += counts.get(i);
+            }
+            maxValue = Math.max(maxValue, counts.get(BUCKET_COUNT));
+        }
+        return buildSnapshot(copy, maxValue);
+    }
+
+    /**
+     * 获取快照并清零，用于按采集周期统计区间分位数
+     */
+    public Snapshot snapshotAndReset() {
+        long[] copy = new long[BUCKET_COUNT];
+        long maxValue = 0L;
+        for (int s = 0; s < STRIPE_COUNT; s++) {
+            AtomicLongArray counts = stripes.get(s);
+            if (counts == null) {
+                continue;
+            }
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                copy[i] += counts.getAndSet(i, 0L);
+            }
+            maxValue = Math.max(maxValue, counts.getAndSet(BUCKET_COUNT, 0L));
+        }
+        return buildSnapshot(copy, maxValue);
+    }
+
+    private static Snapshot buildSnapshot(long[] buckets, long maxValue) {
+        long total = 0L;
+        for (long each : buckets) {
+            total += each;
+        }
+        return new Snapshot(
+                total,
+                percentile(buckets, total, 0.5D, maxValue),
+                percentile(buckets, total, 0.99D, maxValue),
+                percentile(buckets, total, 0.999D, maxValue),
+                maxValue
+        );
+    }
+
+    private static long percentile(long[] buckets, long total, double quantile, long maxValue) {
+        if (total == 0L) {
+            return 0L;
+        }
+        long target = (long) Math.ceil(quantile * total);
+        long cumulative = 0L;
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += buckets[i];
+            if (cumulative >= target) {
+                return Math.min(bucketUpperBound(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long lowerBound = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+
+    /**
+     * 直方图快照，所有耗时单位为纳秒
+     */
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static class Snapshot {
+
+        /**
+         * 样本数量
+         */
+        private final long count;
+
+        /**
+         * 50 分位
+         */
+        private final long p50;
+
+        /**
+         * 99 分位
+         */
+        private final long p99;
+
+        /**
+         * 99.9 分位
+         */
+        private final long p999;
+
+        /**
+         * 最大值
+         */
+        private final long max;
+    }
+}
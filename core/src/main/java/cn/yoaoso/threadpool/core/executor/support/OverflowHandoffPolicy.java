@@ -0,0 +1,98 @@
+package cn.yoaoso.threadpool.core.executor.support;
+
+import cn.yoaoso.threadpool.core.executor.ForkJoinPoolHolder;
+import cn.yoaoso.threadpool.core.executor.ThreadPoolExecutorHolder;
+import cn.yoaoso.threadpool.core.executor.ThreadPoolRegistry;
+import lombok.Getter;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Drayd
+ * @description 转交溢出线程池的拒绝策略，被拒绝的任务提交到 {@link ThreadPoolRegistry} 中指定的线程池执行
+ * <p>
+ * 溢出线程池每次拒绝时按标识查找，溢出线程池晚于当前线程池注册或被替换时无需重建策略
+ * 溢出线程池未注册、是当前线程池本身或同样拒绝任务时抛出 {@link RejectedExecutionException}；
+ * 转交过程中再次触发转交（两个线程池互为溢出线程池）时直接拒绝，不会循环转交
+ * @create 2026-10-18 17:20
+ */
+public class OverflowHandoffPolicy implements RejectedExecutionHandler {
+
+    /**
+     * 当前线程正在转交任务，用于阻止循环转交
+     */
+    private static final ThreadLocal<Boolean> HANDING_OFF = new ThreadLocal<>();
+
+    /**
+     * 溢出线程池唯一标识
+     */
+    @Getter
+    private final String overflowThreadPoolId;
+
+    /**
+     * 转交成功的任务数
+     */
+    private final LongAdder handoffCount = new LongAdder();
+
+    /**
+     * 转交失败被拒绝的任务数
+     */
+    private final LongAdder handoffFailCount = new LongAdder();
+
+    public OverflowHandoffPolicy(String overflowThreadPoolId) {
+        this.overflowThreadPoolId = overflowThreadPoolId;
+    }
+
+    @Override
+    public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+        Executor overflowExecutor = resolveOverflowExecutor();
+        if (overflowExecutor == null || overflowExecutor == executor || HANDING_OFF.get() != null) {
+            handoffFailCount.increment();
+            throw new RejectedExecutionException("Task " + r + " rejected from " + executor
+                    + ", overflow thread pool unavailable: " + overflowThreadPoolId);
+        }
+
+        HANDING_OFF.set(Boolean.TRUE);
+        try {
+            // 溢出线程池重新记录入队时间，排队耗时按溢出线程池统计
+            overflowExecutor.execute(TimedRunnable.unwrap(r));
+        } catch (RejectedExecutionException ex) {
+            handoffFailCount.increment();
+            throw new RejectedExecutionException("Task " + r + " rejected from " + executor
+                    + " and overflow thread pool: " + overflowThreadPoolId, ex);
+        } finally {
+            HANDING_OFF.remove();
+        }
+        handoffCount.increment();
+    }
+
+    private Executor resolveOverflowExecutor() {
+        if (overflowThreadPoolId == null) {
+            return null;
+        }
+        ThreadPoolExecutorHolder holder = ThreadPoolRegistry.getHolder(overflowThreadPoolId);
+        if (holder != null) {
+            return holder.getExecutor();
+        }
+        ForkJoinPoolHolder forkJoinHolder = ThreadPoolRegistry.getForkJoinHolder(overflowThreadPoolId);
+        return forkJoinHolder != null ? forkJoinHolder.getForkJoinPool() : null;
+    }
+
+    /**
+     * 获取转交成功的任务数
+     */
+    public long getHandoffCount() {
+        return handoffCount.sum();
+    }
+
+    /**
+     * 获取转交失败被拒绝的任务数
+     */
+    public long getHandoffFailCount() {
+        return handoffFailCount.sum();
+    }
+}
@@ -0,0 +1,70 @@
+package cn.yoaoso.threadpool.core.executor.support;
+
+import lombok.Getter;
+
+/**
+ * @author Drayd
+ * @description 带优先级的任务包装，配合 {@link ResizableCapacityPriorityBlockingQueue} 使用，数值越大越先执行
+ * <p>
+ * 需要通过 execute 提交，submit 会将任务再包装为 FutureTask，队列无法识别优先级
+ * @create 2026-10-18 13:40
+ */
+public class PriorityTask implements Runnable {
+
+    /**
+     * 默认优先级，未包装的任务按默认优先级处理
+     */
+    public static final int DEFAULT_PRIORITY = 0;
+
+    /**
+     * 原始任务
+     */
+    @Getter
+    private final Runnable task;
+
+    /**
+     * 优先级，数值越大越先执行
+     */
+    @Getter
+    private final int priority;
+
+    public PriorityTask(Runnable task, int priority) {
+        if (task == null) {
+            throw new NullPointerException();
+        }
+        this.task = task;
+        this.priority = priority;
+    }
+
+    /**
+     * 创建带优先级的任务
+     *
+     * @param priority 优先级，数值越大越先执行
+     * @param task     原始任务
+     * @return 优先级任务
+     */
+    public static PriorityTask of(int priority, Runnable task) {
+        return new PriorityTask(task, priority);
+    }
+
+    /**
+     * 获取队列元素的优先级，会先拆开动态线程池的 {@link TimedRunnable} 包装
+     *
+     * @param element 队列元素
+     * @return 优先级，非优先级任务返回 {@link #DEFAULT_PRIORITY}
+     */
+    public static int priorityOf(Object element) {
+        Object task = (element instanceof TimedRunnable) ? ((TimedRunnable) element).getTask() : element;
+        return (task instanceof PriorityTask) ? ((PriorityTask) task).priority : DEFAULT_PRIORITY;
+    }
+
+    @Override
+    public void run() {
+        task.run();
+    }
+
+    @Override
+    public String toString() {
+        return task.toString();
+    }
+}
@@ -2,12 +2,14 @@
 
 package cn.yoaoso.threadpool.core.executor.support;
 
+import cn.yoaoso.threadpool.core.executor.ThreadPoolExecutorProperties;
 import lombok.Getter;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 拒绝策略类型枚举
@@ -32,7 +34,38 @@ public enum RejectedPolicyTypeEnum {
     /**
      * {@link ThreadPoolExecutor.DiscardOldestPolicy}
      */
-    DISCARD_OLDEST_POLICY("DiscardOldestPolicy", new ThreadPoolExecutor.DiscardOldestPolicy());
+    DISCARD_OLDEST_POLICY("DiscardOldestPolicy", new ThreadPoolExecutor.DiscardOldestPolicy()),
+
+    /**
+     * {@link BlockingOfferPolicy}，每个线程池单独创建实例
+     */
+    BLOCKING_OFFER_POLICY("BlockingOfferPolicy", null) {
+        @Override
+        RejectedExecutionHandler create(ThreadPoolExecutorProperties.RejectPolicyConfig config) {
+            return new BlockingOfferPolicy(config.getBlockTimeoutMillis(), TimeUnit.MILLISECONDS);
+        }
+    },
+
+    /**
+     * {@link RetryBackoffPolicy}，每个线程池单独创建实例
+     */
+    RETRY_BACKOFF_POLICY("RetryBackoffPolicy", null) {
+        @Override
+        RejectedExecutionHandler create(ThreadPoolExecutorProperties.RejectPolicyConfig config) {
+            return new RetryBackoffPolicy(config.getRetryMaxAttempts(), config.getRetryInitialDelayMillis(),
+                    config.getRetryMaxDelayMillis(), TimeUnit.MILLISECONDS, config.getRetryMaxPending());
+        }
+    },
+
+    /**
+     * {@link OverflowHandoffPolicy}，每个线程池单独创建实例
+     */
+    OVERFLOW_HANDOFF_POLICY("OverflowHandoffPolicy", null) {
+        @Override
+        RejectedExecutionHandler create(ThreadPoolExecutorProperties.RejectPolicyConfig config) {
+            return new OverflowHandoffPolicy(config.getOverflowThreadPoolId());
+        }
+    };
 
     @Getter
     private String name;
@@ -45,6 +78,17 @@ public enum RejectedPolicyTypeEnum {
         this.rejectedHandler = rejectedHandler;
     }
 
+    /**
+     * Creates the handler for a thread pool. Stateless JDK handlers are shared,
+     * handlers with parameters or counters override it to create a new instance.
+     *
+     * @param config the reject policy parameters of the thread pool
+     * @return the handler instance
+     */
+    RejectedExecutionHandler create(ThreadPoolExecutorProperties.RejectPolicyConfig config) {
+        return rejectedHandler;
+    }
+
     private static final Map<String, RejectedPolicyTypeEnum> NAME_TO_ENUM_MAP;
 
     static {
@@ -64,9 +108,22 @@ public enum RejectedPolicyTypeEnum {
      * @throws IllegalArgumentException if no matching rejected policy type is found
      */
     public static RejectedExecutionHandler createPolicy(String rejectedPolicyName) {
+        return createPolicy(rejectedPolicyName, null);
+    }
+
+    /**
+     * Creates a {@link RejectedExecutionHandler} based on the given
+     * {@link RejectedPolicyTypeEnum#name RejectedPolicyTypeEnum.name} and parameters.
+     *
+     * @param rejectedPolicyName the {@link RejectedPolicyTypeEnum#name RejectedPolicyTypeEnum.name}
+     * @param config             the reject policy parameters, defaults are used if {@code null}
+     * @return the corresponding {@link RejectedExecutionHandler} instance
+     * @throws IllegalArgumentException if no matching rejected policy type is found
+     */
+    public static RejectedExecutionHandler createPolicy(String rejectedPolicyName, ThreadPoolExecutorProperties.RejectPolicyConfig config) {
         RejectedPolicyTypeEnum rejectedPolicyTypeEnum = NAME_TO_ENUM_MAP.get(rejectedPolicyName);
         if (rejectedPolicyTypeEnum != null) {
-            return rejectedPolicyTypeEnum.rejectedHandler;
+            return rejectedPolicyTypeEnum.create(config != null ? config : new ThreadPoolExecutorProperties.RejectPolicyConfig());
         }
 
         throw new IllegalArgumentException("No matching type of rejected execution was found: " + rejectedPolicyName);
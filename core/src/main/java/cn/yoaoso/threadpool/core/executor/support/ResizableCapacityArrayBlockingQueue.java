@@ -0,0 +1,649 @@
+package cn.yoaoso.threadpool.core.executor.support;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * A variant of {@linkplain java.util.concurrent.ArrayBlockingQueue} with the
+ * addition of a {@link #setCapacity(int)} method, allowing us to change the
+ * capacity of the queue while it is in use.<p>
+ * <p>
+ * Elements are held in a circular array, so enqueueing never allocates a node
+ * per element. When the capacity grows the ring buffer is reallocated to the
+ * new capacity and the elements are copied in FIFO order. When the capacity
+ * shrinks below the current number of elements, no element is dropped: new
+ * insertions are refused until the queue drains below the new bound, and the
+ * ring buffer is compacted to the new capacity as soon as the elements fit.
+ * <p>
+ * This queue orders elements FIFO (first-in-first-out). All operations are
+ * guarded by a single lock, as in {@code ArrayBlockingQueue}. Iterators are
+ * weakly consistent and traverse a snapshot of the queue taken when the
+ * iterator is created.
+ *
+ * @param <E> the type of elements held in this collection
+ */
+public class ResizableCapacityArrayBlockingQueue<E> extends AbstractQueue<E>
+        implements ResizableCapacityBlockingQueue<E> {
+
+    /**
+     * The queued items
+     */
+    private Object[] items;
+
+    /**
+     * items index for next take, poll, peek or remove
+     */
+    private int takeIndex;
+
+    /**
+     * items index for next put, offer, or add
+     */
+    private int putIndex;
+
+    /**
+     * Number of elements in the queue
+     */
+    private int count;
+
+    /**
+     * The capacity bound, may be smaller than items.length while a shrink is pending
+     */
+    private volatile int capacity;
+
+    /**
+     * Main lock guarding all access
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Condition for waiting takes
+     */
+    private final Condition notEmpty = lock.newCondition();
+
+    /**
+     * Condition for waiting puts
+     */
+    private final Condition notFull = lock.newCondition();
+
+    /**
+     * Creates a queue with the given initial capacity.
+     *
+     * @param capacity the capacity of this queue.
+     * @throws IllegalArgumentException if <tt>capacity</tt> is not greater
+     *                                  than zero.
+     */
+    public ResizableCapacityArrayBlockingQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.capacity = capacity;
+        this.items = new Object[capacity];
+    }
+
+    /**
+     * Set a new capacity for the queue. The ring buffer is resized in place
+     * under the queue lock.
+     *
+     * @param capacity the new capacity for the queue
+     * @throws IllegalArgumentException if <tt>capacity</tt> is not greater
+     *                                  than zero.
+     */
+    @Override
+    public void setCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException();
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            this.capacity = capacity;
+            if (capacity >= count) {
+                resize(capacity);
+                notFull.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public int size() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return capacity - count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(E o) {
+        if (o == null) {
+            throw new NullPointerException();
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            if (count >= capacity) {
+                return false;
+            }
+            enqueue(o);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(E o) throws InterruptedException {
+        if (o == null) {
+            throw new NullPointerException();
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (count >= capacity) {
+                notFull.await();
+            }
+            enqueue(o);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(E o, long timeout, TimeUnit unit) throws InterruptedException {
+        if (o == null) {
+            throw new NullPointerException();
+        }
+        long nanos = unit.toNanos(timeout);
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (count >= capacity) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            enqueue(o);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts leading elements of the given list until the queue is full,
+     * taking the lock and signalling takers once for the whole batch.
+     */
+    @Override
+    public int offerAll(List<? extends E> elements) {
+        for (E each : elements) {
+            if (each == null) {
+                throw new NullPointerException();
+            }
+        }
+        int n = 0;
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            Iterator<? extends E> it = elements.iterator();
+            while (count < capacity && it.hasNext()) {
+                insert(it.next());
+                n++;
+            }
+            if (n > 0) {
+                // one signal for the whole batch, woken takers cascade to the next one
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return n;
+    }
+
+    @Override
+    public E poll() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return (count == 0) ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                notEmpty.await();
+            }
+            return dequeueAndSignalNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeueAndSignalNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return (E) items[takeIndex];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return removeFirstMatching(o, false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the matching elements with one compaction of the ring buffer.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<E> removeMatching(Predicate<? super E> filter) {
+        if (filter == null) {
+            throw new NullPointerException();
+        }
+        List<E> removed = new ArrayList<>();
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            final Object[] items = this.items;
+            // test every element before touching the buffer, so that a throwing filter leaves the queue intact
+            boolean[] matched = new boolean[count];
+            for (int i = 0, k = takeIndex; i < count; i++) {
+                if (filter.test((E) items[k])) {
+                    matched[i] = true;
+                    removed.add((E) items[k]);
+                }
+                k = inc(k, items.length);
+            }
+            if (removed.isEmpty()) {
+                return removed;
+            }
+            int w = takeIndex;
+            for (int i = 0, k = takeIndex; i < count; i++) {
+                if (!matched[i]) {
+                    items[w] = items[k];
+                    w = inc(w, items.length);
+                }
+                k = inc(k, items.length);
+            }
+            for (int i = 0, k = w; i < removed.size(); i++) {
+                items[k] = null;
+                k = inc(k, items.length);
+            }
+            putIndex = w;
+            count -= removed.size();
+            resizeIfPending();
+            notFull.signalAll();
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            final Object[] items = this.items;
+            for (int i = 0, k = takeIndex; i < count; i++) {
+                items[k] = null;
+                k = inc(k, items.length);
+            }
+            count = 0;
+            takeIndex = putIndex = 0;
+            resizeIfPending();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == null) {
+            throw new NullPointerException();
+        }
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        if (maxElements <= 0) {
+            return 0;
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            final Object[] items = this.items;
+            int n = Math.min(maxElements, count);
+            int k = takeIndex;
+            for (int i = 0; i < n; i++) {
+                c.add((E) items[k]);
+                items[k] = null;
+                k = inc(k, items.length);
+            }
+            if (n > 0) {
+                count -= n;
+                takeIndex = k;
+                resizeIfPending();
+                notFull.signalAll();
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Object[] toArray() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return snapshot().toArray();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return snapshot().toArray(a);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return snapshot().toString();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the elements in this queue in
+     * proper sequence. The iterator never throws
+     * {@link java.util.ConcurrentModificationException}.
+     *
+     * @return an iterator over the elements in this queue in proper sequence.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return new Itr(snapshot());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts element at current put position and signals. Call only when
+     * holding lock and count is below capacity.
+     */
+    private void enqueue(E x) {
+        insert(x);
+        notEmpty.signal();
+    }
+
+    /**
+     * Inserts element at current put position without signalling. Call only
+     * when holding lock and count is below capacity.
+     */
+    private void insert(E x) {
+        final Object[] items = this.items;
+        items[putIndex] = x;
+        putIndex = inc(putIndex, items.length);
+        count++;
+    }
+
+    /**
+     * Extracts element at current take position and signals. Call only when
+     * holding lock and count is not zero.
+     */
+    @SuppressWarnings("unchecked")
+    private E dequeue() {
+        final Object[] items = this.items;
+        E x = (E) items[takeIndex];
+        items[takeIndex] = null;
+        takeIndex = inc(takeIndex, items.length);
+        count--;
+        resizeIfPending();
+        notFull.signal();
+        return x;
+    }
+
+    /**
+     * Extracts element for a blocking taker and, if elements remain, signals
+     * the next waiting taker so that a batch inserted with a single signal
+     * still wakes as many takers as it has elements. Call only when holding
+     * lock and count is not zero.
+     */
+    private E dequeueAndSignalNext() {
+        E x = dequeue();
+        if (count > 0) {
+            notEmpty.signal();
+        }
+        return x;
+    }
+
+    /**
+     * Compact the ring buffer once the elements fit into a reduced capacity.
+     * Call only when holding lock.
+     */
+    private void resizeIfPending() {
+        if (items.length != capacity && count <= capacity) {
+            resize(capacity);
+        }
+    }
+
+    /**
+     * Copy the elements in FIFO order into a new ring buffer of the given
+     * length. Call only when holding lock and count is not above newLength.
+     */
+    private void resize(int newLength) {
+        final Object[] items = this.items;
+        if (items.length == newLength) {
+            return;
+        }
+        Object[] newItems = new Object[newLength];
+        for (int i = 0, k = takeIndex; i < count; i++) {
+            newItems[i] = items[k];
+            k = inc(k, items.length);
+        }
+        this.items = newItems;
+        this.takeIndex = 0;
+        this.putIndex = (count == newLength) ? 0 : count;
+    }
+
+    /**
+     * Remove the first element matching the given object. Call only when
+     * holding lock.
+     *
+     * @param o        the object to match
+     * @param identity whether to match by reference instead of {@code equals}
+     * @return <tt>true</tt> if an element was removed
+     */
+    private boolean removeFirstMatching(Object o, boolean identity) {
+        final Object[] items = this.items;
+        for (int i = 0, k = takeIndex; i < count; i++) {
+            Object item = items[k];
+            if (identity ? item == o : o.equals(item)) {
+                removeAt(k);
+                return true;
+            }
+            k = inc(k, items.length);
+        }
+        return false;
+    }
+
+    /**
+     * Delete the item at the given index by shifting the following items
+     * backwards. Call only when holding lock.
+     */
+    private void removeAt(int removeIndex) {
+        final Object[] items = this.items;
+        if (removeIndex == takeIndex) {
+            items[takeIndex] = null;
+            takeIndex = inc(takeIndex, items.length);
+        } else {
+            int i = removeIndex;
+            for (; ; ) {
+                int next = inc(i, items.length);
+                if (next != putIndex) {
+                    items[i] = items[next];
+                    i = next;
+                } else {
+                    items[i] = null;
+                    putIndex = i;
+                    break;
+                }
+            }
+        }
+        count--;
+        resizeIfPending();
+        notFull.signal();
+    }
+
+    /**
+     * Copy the queued elements in FIFO order. Call only when holding lock.
+     */
+    @SuppressWarnings("unchecked")
+    private List<E> snapshot() {
+        final Object[] items = this.items;
+        List<E> elements = new ArrayList<>(count);
+        for (int i = 0, k = takeIndex; i < count; i++) {
+            elements.add((E) items[k]);
+            k = inc(k, items.length);
+        }
+        return elements;
+    }
+
+    /**
+     * Circularly increment i.
+     */
+    private static int inc(int i, int length) {
+        return (++i == length) ? 0 : i;
+    }
+
+    /**
+     * Snapshot iterator.
+     */
+    private class Itr implements Iterator<E> {
+
+        private final List<E> elements;
+        private int cursor;
+        private E lastRet;
+
+        Itr(List<E> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < elements.size();
+        }
+
+        @Override
+        public E next() {
+            if (cursor >= elements.size()) {
+                throw new NoSuchElementException();
+            }
+            lastRet = elements.get(cursor++);
+            return lastRet;
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet == null) {
+                throw new IllegalStateException();
+            }
+            final ReentrantLock lock = ResizableCapacityArrayBlockingQueue.this.lock;
+            lock.lock();
+            try {
+                removeFirstMatching(lastRet, true);
+            } finally {
+                lock.unlock();
+            }
+            lastRet = null;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package cn.yoaoso.threadpool.core.executor.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Predicate;
+
+/**
+ * 支持运行时调整容量的阻塞队列
+ * <p>
+ * 配置中心刷新队列容量时，只要线程池的阻塞队列实现了该接口即可原地调整容量，无需重建队列
+ *
+ * @param <E> the type of elements held in this queue
+ */
+public interface ResizableCapacityBlockingQueue<E> extends BlockingQueue<E> {
+
+    /**
+     * Set a new capacity for the queue.
+     *
+     * @param capacity the new capacity for the queue
+     */
+    void setCapacity(int capacity);
+
+    /**
+     * Returns the current capacity bound of the queue.
+     *
+     * @return the capacity of the queue
+     */
+    int getCapacity();
+
+    /**
+     * Inserts elements of the given list in order until the queue is full,
+     * returning immediately. Elements from the returned index on were not
+     * inserted and are left to the caller.
+     * <p>
+     * The default implementation offers the elements one by one; lock based
+     * implementations override it to take the lock and signal waiting takers
+     * once per batch.
+     *
+     * @param elements the elements to add
+     * @return the number of leading elements inserted
+     * @throws NullPointerException if any of the elements is {@code null}
+     */
+    default int offerAll(List<? extends E> elements) {
+        int inserted = 0;
+        for (E each : elements) {
+            if (!offer(each)) {
+                break;
+            }
+            inserted++;
+        }
+        return inserted;
+    }
+
+    /**
+     * Removes all elements matching the given filter and returns exactly the
+     * elements that were removed. Unlike {@link #removeIf}, an element that a
+     * concurrent taker got first is never reported as removed, so the caller
+     * may safely hand the returned elements elsewhere.
+     * <p>
+     * The default implementation removes the matching elements one by one
+     * with {@link #remove(Object)}; implementations override it to remove
+     * them in a single pass.
+     *
+     * @param filter a predicate which returns {@code true} for elements to be removed
+     * @return the removed elements, in queue order
+     * @throws NullPointerException if the filter is {@code null}
+     */
+    default List<E> removeMatching(Predicate<? super E> filter) {
+        if (filter == null) {
+            throw new NullPointerException();
+        }
+        List<E> removed = new ArrayList<>();
+        for (E each : this) {
+            if (filter.test(each) && remove(each)) {
+                removed.add(each);
+            }
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,792 @@
+package cn.yoaoso.threadpool.core.executor.support;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * An optionally-bounded blocking queue made of fixed-size array chunks, with
+ * a {@link #setCapacity(int)} method allowing us to change the capacity of the
+ * queue while it is in use.<p>
+ * <p>
+ * Elements are stored in a linked list of array chunks ({@value #DEFAULT_CHUNK_SIZE}
+ * slots by default). Chunks are allocated on demand when the tail chunk fills
+ * up and are recycled through a small free list once consumers have drained
+ * them, so the memory footprint follows the real backlog instead of the
+ * configured capacity, and enqueueing does not allocate a node per element.
+ * <p>
+ * Like {@linkplain java.util.concurrent.LinkedBlockingQueue} it uses the
+ * "two lock queue" algorithm: puts only contend on the putLock and the tail
+ * chunk, takes only on the takeLock and the head chunk.
+ * <p>
+ * This queue orders elements FIFO (first-in-first-out). Iterators are weakly
+ * consistent and traverse a snapshot of the queue taken when the iterator is
+ * created.
+ *
+ * @param <E> the type of elements held in this collection
+ */
+public class ResizableCapacityChunkedArrayBlockingQueue<E> extends AbstractQueue<E>
+        implements ResizableCapacityBlockingQueue<E> {
+
+    /**
+     * Default number of slots of every chunk
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    /**
+     * Maximum number of drained chunks kept for reuse
+     */
+    private static final int MAX_FREE_CHUNKS = 4;
+
+    /**
+     * Marker of a slot whose element has been removed by remove(Object)
+     */
+    private static final Object REMOVED = new Object();
+
+    /**
+     * Array chunk of the queue
+     */
+    static final class Chunk {
+
+        final Object[] items;
+
+        Chunk next;
+
+        Chunk(int chunkSize) {
+            this.items = new Object[chunkSize];
+        }
+    }
+
+    /**
+     * Number of slots of every chunk
+     */
+    private final int chunkSize;
+
+    /**
+     * The capacity bound, or Integer.MAX_VALUE if none
+     */
+    private volatile int capacity;
+
+    /**
+     * Current number of elements
+     */
+    private final AtomicInteger count = new AtomicInteger();
+
+    /**
+     * Chunk holding the head of the queue, guarded by takeLock
+     */
+    private Chunk head;
+
+    /**
+     * Index of the next element to take in the head chunk, guarded by takeLock
+     */
+    private int takeIndex;
+
+    /**
+     * Chunk holding the tail of the queue, guarded by putLock
+     */
+    private Chunk tail;
+
+    /**
+     * Index of the next slot to fill in the tail chunk, guarded by putLock
+     */
+    private int putIndex;
+
+    /**
+     * Drained chunks kept for reuse, shared lock-free between puts and takes
+     */
+    private final AtomicReferenceArray<Chunk> freeChunks = new AtomicReferenceArray<>(MAX_FREE_CHUNKS);
+
+    /**
+     * Lock held by take, poll, etc
+     */
+    private final ReentrantLock takeLock = new ReentrantLock();
+
+    /**
+     * Wait queue for waiting takes
+     */
+    private final Condition notEmpty = takeLock.newCondition();
+
+    /**
+     * Lock held by put, offer, etc
+     */
+    private final ReentrantLock putLock = new ReentrantLock();
+
+    /**
+     * Wait queue for waiting puts
+     */
+    private final Condition notFull = putLock.newCondition();
+
+    /**
+     * Creates a queue with a capacity of {@link Integer#MAX_VALUE}.
+     */
+    public ResizableCapacityChunkedArrayBlockingQueue() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a queue with the given capacity and the default chunk size.
+     *
+     * @param capacity the capacity of this queue.
+     */
+    public ResizableCapacityChunkedArrayBlockingQueue(int capacity) {
+        this(capacity, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a queue with the given capacity and chunk size.
+     *
+     * @param capacity  the capacity of this queue.
+     * @param chunkSize the number of slots of every chunk.
+     * @throws IllegalArgumentException if <tt>capacity</tt> or <tt>chunkSize</tt>
+     *                                  is not greater than zero.
+     */
+    public ResizableCapacityChunkedArrayBlockingQueue(int capacity, int chunkSize) {
+        if (capacity <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.capacity = capacity;
+        this.chunkSize = chunkSize;
+        this.head = this.tail = new Chunk(chunkSize);
+    }
+
+    @Override
+    public void setCapacity(int capacity) {
+        final int oldCapacity = this.capacity;
+        this.capacity = capacity;
+        final int size = count.get();
+        if (capacity > size && size >= oldCapacity) {
+            signalNotFull();
+        }
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public int size() {
+        return count.get();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - count.get();
+    }
+
+    @Override
+    public void put(E o) throws InterruptedException {
+        if (o == null) {
+            throw new NullPointerException();
+        }
+        int c;
+        final ReentrantLock putLock = this.putLock;
+        final AtomicInteger count = this.count;
+        putLock.lockInterruptibly();
+        try {
+            try {
+                while (count.get() >= capacity) {
+                    notFull.await();
+                }
+            } catch (InterruptedException ie) {
+                notFull.signal(); // propagate to a non-interrupted thread
+                throw ie;
+            }
+            insert(o);
+            c = count.getAndIncrement();
+            if (c + 1 < capacity) {
+                notFull.signal();
+            }
+        } finally {
+            putLock.unlock();
+        }
+        if (c == 0) {
+            signalNotEmpty();
+        }
+    }
+
+    @Override
+    public boolean offer(E o, long timeout, TimeUnit unit) throws InterruptedException {
+        if (o == null) {
+            throw new NullPointerException();
+        }
+        long nanos = unit.toNanos(timeout);
+        int c;
+        final ReentrantLock putLock = this.putLock;
+        final AtomicInteger count = this.count;
+        putLock.lockInterruptibly();
+        try {
+            for (; ; ) {
+                if (count.get() < capacity) {
+                    insert(o);
+                    c = count.getAndIncrement();
+                    if (c + 1 < capacity) {
+                        notFull.signal();
+                    }
+                    break;
+                }
+                if (nanos <= 0) {
+                    return false;
+                }
+                try {
+                    nanos = notFull.awaitNanos(nanos);
+                } catch (InterruptedException ie) {
+                    notFull.signal(); // propagate to a non-interrupted thread
+                    throw ie;
+                }
+            }
+        } finally {
+            putLock.unlock();
+        }
+        if (c == 0) {
+            signalNotEmpty();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean offer(E o) {
+        if (o == null) {
+            throw new NullPointerException();
+        }
+        final AtomicInteger count = this.count;
+        if (count.get() >= capacity) {
+            return false;
+        }
+        int c = -1;
+        final ReentrantLock putLock = this.putLock;
+        putLock.lock();
+        try {
+            if (count.get() < capacity) {
+                insert(o);
+                c = count.getAndIncrement();
+                if (c + 1 < capacity) {
+                    notFull.signal();
+                }
+            }
+        } finally {
+            putLock.unlock();
+        }
+        if (c == 0) {
+            signalNotEmpty();
+        }
+        return c >= 0;
+    }
+
+    /**
+     * Inserts leading elements of the given list until the queue is full,
+     * taking the putLock once and signalling a waiting take at most once for
+     * the whole batch.
+     */
+    @Override
+    public int offerAll(List<? extends E> elements) {
+        for (E each : elements) {
+            if (each == null) {
+                throw new NullPointerException();
+            }
+        }
+        final AtomicInteger count = this.count;
+        if (elements.isEmpty() || count.get() >= capacity) {
+            return 0;
+        }
+        int n = 0;
+        int c = -1;
+        final ReentrantLock putLock = this.putLock;
+        putLock.lock();
+        try {
+            int available = capacity - count.get();
+            if (available > 0) {
+                Iterator<? extends E> it = elements.iterator();
+                while (n < available && it.hasNext()) {
+                    insert(it.next());
+                    n++;
+                }
+                c = count.getAndAdd(n);
+                if (c + n < capacity) {
+                    notFull.signal();
+                }
+            }
+        } finally {
+            putLock.unlock();
+        }
+        if (c == 0) {
+            signalNotEmpty();
+        }
+        return n;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        E x;
+        int c;
+        final AtomicInteger count = this.count;
+        final ReentrantLock takeLock = this.takeLock;
+        takeLock.lockInterruptibly();
+        try {
+            try {
+                while (count.get() == 0) {
+                    notEmpty.await();
+                }
+            } catch (InterruptedException ie) {
+                notEmpty.signal(); // propagate to a non-interrupted thread
+                throw ie;
+            }
+            x = extract();
+            c = count.getAndDecrement();
+            if (c > 1) {
+                notEmpty.signal();
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (c >= capacity) {
+            signalNotFull();
+        }
+        return x;
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E x;
+        int c;
+        long nanos = unit.toNanos(timeout);
+        final AtomicInteger count = this.count;
+        final ReentrantLock takeLock = this.takeLock;
+        takeLock.lockInterruptibly();
+        try {
+            for (; ; ) {
+                if (count.get() > 0) {
+                    x = extract();
+                    c = count.getAndDecrement();
+                    if (c > 1) {
+                        notEmpty.signal();
+                    }
+                    break;
+                }
+                if (nanos <= 0) {
+                    return null;
+                }
+                try {
+                    nanos = notEmpty.awaitNanos(nanos);
+                } catch (InterruptedException ie) {
+                    notEmpty.signal(); // propagate to a non-interrupted thread
+                    throw ie;
+                }
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (c >= capacity) {
+            signalNotFull();
+        }
+        return x;
+    }
+
+    @Override
+    public E poll() {
+        final AtomicInteger count = this.count;
+        if (count.get() == 0) {
+            return null;
+        }
+        E x = null;
+        int c = -1;
+        final ReentrantLock takeLock = this.takeLock;
+        takeLock.lock();
+        try {
+            if (count.get() > 0) {
+                x = extract();
+                c = count.getAndDecrement();
+                if (c > 1) {
+                    notEmpty.signal();
+                }
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (c >= capacity) {
+            signalNotFull();
+        }
+        return x;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        if (count.get() == 0) {
+            return null;
+        }
+        fullyLock();
+        try {
+            Chunk chunk = head;
+            int index = takeIndex;
+            while (chunk != null) {
+                int end = (chunk == tail) ? putIndex : chunkSize;
+                for (; index < end; index++) {
+                    Object item = chunk.items[index];
+                    if (item != REMOVED) {
+                        return (E) item;
+                    }
+                }
+                chunk = chunk.next;
+                index = 0;
+            }
+            return null;
+        } finally {
+            fullyUnlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        fullyLock();
+        try {
+            return removeFirstMatching(o, false);
+        } finally {
+            fullyUnlock();
+        }
+    }
+
+    /**
+     * Removes the matching elements in a single pass, marking their slots
+     * like {@link #remove(Object)} does.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<E> removeMatching(Predicate<? super E> filter) {
+        if (filter == null) {
+            throw new NullPointerException();
+        }
+        List<E> removed = new ArrayList<>();
+        fullyLock();
+        try {
+            Chunk chunk = head;
+            int index = takeIndex;
+            while (chunk != null) {
+                int end = (chunk == tail) ? putIndex : chunkSize;
+                Object[] items = chunk.items;
+                for (; index < end; index++) {
+                    Object item = items[index];
+                    if (item != REMOVED && filter.test((E) item)) {
+                        items[index] = REMOVED;
+                        removed.add((E) item);
+                    }
+                }
+                chunk = chunk.next;
+                index = 0;
+            }
+        } finally {
+            // also reached when the filter throws, the slots marked so far are already gone
+            if (!removed.isEmpty() && count.getAndAdd(-removed.size()) >= capacity) {
+                notFull.signalAll();
+            }
+            fullyUnlock();
+        }
+        return removed;
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == null) {
+            throw new NullPointerException();
+        }
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        if (maxElements <= 0) {
+            return 0;
+        }
+        int n = 0;
+        int c0 = -1;
+        final ReentrantLock takeLock = this.takeLock;
+        takeLock.lock();
+        try {
+            n = Math.min(maxElements, count.get());
+            for (int i = 0; i < n; i++) {
+                c.add(extract());
+            }
+            if (n > 0) {
+                c0 = count.getAndAdd(-n);
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (c0 >= capacity && c0 - n < capacity) {
+            signalNotFull();
+        }
+        return n;
+    }
+
+    @Override
+    public Object[] toArray() {
+        fullyLock();
+        try {
+            return snapshot().toArray();
+        } finally {
+            fullyUnlock();
+        }
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        fullyLock();
+        try {
+            return snapshot().toArray(a);
+        } finally {
+            fullyUnlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        fullyLock();
+        try {
+            return snapshot().toString();
+        } finally {
+            fullyUnlock();
+        }
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the elements in this queue in
+     * proper sequence. The iterator never throws
+     * {@link java.util.ConcurrentModificationException}.
+     *
+     * @return an iterator over the elements in this queue in proper sequence.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        fullyLock();
+        try {
+            return new Itr(snapshot());
+        } finally {
+            fullyUnlock();
+        }
+    }
+
+    /**
+     * Store the element at the tail, linking a new chunk when the tail chunk is
+     * full. Call only when holding putLock.
+     *
+     * @param x the item
+     */
+    private void insert(E x) {
+        if (putIndex == chunkSize) {
+            Chunk chunk = allocateChunk();
+            tail.next = chunk;
+            tail = chunk;
+            putIndex = 0;
+        }
+        tail.items[putIndex++] = x;
+    }
+
+    /**
+     * Remove the element at the head, skipping removed slots and recycling
+     * drained chunks. Call only when holding takeLock and count is not zero.
+     *
+     * @return the element
+     */
+    @SuppressWarnings("unchecked")
+    private E extract() {
+        for (; ; ) {
+            if (takeIndex == chunkSize) {
+                Chunk drained = head;
+                head = drained.next;
+                drained.next = null;
+                takeIndex = 0;
+                recycleChunk(drained);
+            }
+            Object[] items = head.items;
+            Object x = items[takeIndex];
+            items[takeIndex++] = null;
+            if (x != REMOVED) {
+                return (E) x;
+            }
+        }
+    }
+
+    /**
+     * Take a chunk from the free list, or allocate a new one.
+     */
+    private Chunk allocateChunk() {
+        final AtomicReferenceArray<Chunk> freeChunks = this.freeChunks;
+        for (int i = 0; i < MAX_FREE_CHUNKS; i++) {
+            if (freeChunks.get(i) != null) {
+                Chunk chunk = freeChunks.getAndSet(i, null);
+                if (chunk != null) {
+                    return chunk;
+                }
+            }
+        }
+        return new Chunk(chunkSize);
+    }
+
+    /**
+     * Put a drained chunk on the free list, or leave it to the garbage
+     * collector when the free list is full. Drained chunks have all slots
+     * cleared by {@link #extract()}.
+     */
+    private void recycleChunk(Chunk chunk) {
+        final AtomicReferenceArray<Chunk> freeChunks = this.freeChunks;
+        for (int i = 0; i < MAX_FREE_CHUNKS; i++) {
+            if (freeChunks.get(i) == null && freeChunks.compareAndSet(i, null, chunk)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Mark the first element matching the given object as removed. Call only
+     * when holding both locks.
+     *
+     * @param o        the object to match
+     * @param identity whether to match by reference instead of {@code equals}
+     * @return <tt>true</tt> if an element was removed
+     */
+    private boolean removeFirstMatching(Object o, boolean identity) {
+        Chunk chunk = head;
+        int index = takeIndex;
+        while (chunk != null) {
+            int end = (chunk == tail) ? putIndex : chunkSize;
+            Object[] items = chunk.items;
+            for (; index < end; index++) {
+                Object item = items[index];
+                if (item != REMOVED && (identity ? item == o : o.equals(item))) {
+                    items[index] = REMOVED;
+                    if (count.getAndDecrement() >= capacity) {
+                        notFull.signalAll();
+                    }
+                    return true;
+                }
+            }
+            chunk = chunk.next;
+            index = 0;
+        }
+        return false;
+    }
+
+    /**
+     * Copy the queued elements in FIFO order. Call only when holding both locks.
+     */
+    @SuppressWarnings("unchecked")
+    private List<E> snapshot() {
+        List<E> elements = new ArrayList<>(count.get());
+        Chunk chunk = head;
+        int index = takeIndex;
+        while (chunk != null) {
+            int end = (chunk == tail) ? putIndex : chunkSize;
+            Object[] items = chunk.items;
+            for (; index < end; index++) {
+                Object item = items[index];
+                if (item != REMOVED) {
+                    elements.add((E) item);
+                }
+            }
+            chunk = chunk.next;
+            index = 0;
+        }
+        return elements;
+    }
+
+    /**
+     * Signal a waiting take. Called only from put/offer (which do not
+     * otherwise ordinarily lock takeLock.)
+     */
+    private void signalNotEmpty() {
+        final ReentrantLock takeLock = this.takeLock;
+        takeLock.lock();
+        try {
+            notEmpty.signal();
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    /**
+     * Signal a waiting put. Called only from take/poll.
+     */
+    private void signalNotFull() {
+        final ReentrantLock putLock = this.putLock;
+        putLock.lock();
+        try {
+            notFull.signal();
+        } finally {
+            putLock.unlock();
+        }
+    }
+
+    /**
+     * Lock to prevent both puts and takes.
+     */
+    private void fullyLock() {
+        putLock.lock();
+        takeLock.lock();
+    }
+
+    /**
+     * Unlock to allow both puts and takes.
+     */
+    private void fullyUnlock() {
+        takeLock.unlock();
+        putLock.unlock();
+    }
+
+    /**
+     * Snapshot iterator.
+     */
+    private class Itr implements Iterator<E> {
+
+        private final List<E> elements;
+        private int cursor;
+        private E lastRet;
+
+        Itr(List<E> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < elements.size();
+        }
+
+        @Override
+        public E next() {
+            if (cursor >= elements.size()) {
+                throw new NoSuchElementException();
+            }
+            lastRet = elements.get(cursor++);
+            return lastRet;
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet == null) {
+                throw new IllegalStateException();
+            }
+            fullyLock();
+            try {
+                removeFirstMatching(lastRet, true);
+            } finally {
+                fullyUnlock();
+            }
+            lastRet = null;
+        }
+    }
+}
@@ -1,14 +1,17 @@
 package cn.yoaoso.threadpool.core.executor.support;
 
 import java.util.AbstractQueue;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
 
 /**
  * A clone of {@linkplain java.util.concurrent.LinkedBlockingQueue}
@@ -48,7 +51,7 @@ import java.util.concurrent.locks.ReentrantLock;
  **/
 public class ResizableCapacityLinkedBlockingQueue<E> extends AbstractQueue<E>
         implements
-        BlockingQueue<E>,
+        ResizableCapacityBlockingQueue<E>,
         java.io.Serializable {
 
     private static final long serialVersionUID = -6903933977591709194L;
@@ -239,6 +242,7 @@ public class ResizableCapacityLinkedBlockingQueue<E> extends AbstractQueue<E>
      *
      * @param capacity the new capacity for the queue
      */
+    @Override
     public void setCapacity(int capacity) {
         final int oldCapacity = this.capacity;
         this.capacity = capacity;
@@ -248,6 +252,11 @@ public class ResizableCapacityLinkedBlockingQueue<E> extends AbstractQueue<E>
         }
     }
 
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
     // this doc comment is a modified copy of the inherited doc comment,
     // without the reference to unlimited queues.
 
@@ -404,6 +413,54 @@ public class ResizableCapacityLinkedBlockingQueue<E> extends AbstractQueue<E>
         return c >= 0;
     }
 
+    /**
+     * Inserts leading elements of the given list at the tail of this queue
+     * until it is full, returning immediately. The put lock is taken once
+     * for the whole batch and a waiting taker is signalled at most once; the
+     * cascading notifies in take/poll wake further takers while elements
+     * remain.
+     *
+     * @param elements the elements to add.
+     * @return the number of leading elements inserted.
+     * @throws NullPointerException if any of the elements is <tt>null</tt>.
+     */
+    @Override
+    public int offerAll(List<? extends E> elements) {
+        for (E each : elements) {
+            if (each == null) {
+                throw new NullPointerException();
+            }
+        }
+        final AtomicInteger count = this.count;
+        if (elements.isEmpty() || count.get() >= capacity) {
+            return 0;
+        }
+        int n = 0;
+        int c = -1;
+        final ReentrantLock putLock = this.putLock;
+        putLock.lock();
+        try {
+            int available = capacity - count.get();
+            if (available > 0) {
+                Iterator<? extends E> it = elements.iterator();
+                while (n < available && it.hasNext()) {
+                    insert(it.next());
+                    n++;
+                }
+                c = count.getAndAdd(n);
+                if (c + n < capacity) {
+                    notFull.signal();
+                }
+            }
+        } finally {
+            putLock.unlock();
+        }
+        if (c == 0) {
+            signalNotEmpty();
+        }
+        return n;
+    }
+
     @Override
     public E take() throws InterruptedException {
         E x;
@@ -539,6 +596,9 @@ public class ResizableCapacityLinkedBlockingQueue<E> extends AbstractQueue<E>
             if (removed) {
                 p.item = null;
                 trail.next = p.next;
+                if (last == p) {
+                    last = trail;
+                }
                 if (count.getAndDecrement() >= capacity) {
                     notFull.signalAll();
                 }
@@ -549,6 +609,43 @@ public class ResizableCapacityLinkedBlockingQueue<E> extends AbstractQueue<E>
         return removed;
     }
 
+    /**
+     * Removes the matching elements in a single pass over the nodes.
+     */
+    @Override
+    public List<E> removeMatching(Predicate<? super E> filter) {
+        if (filter == null) {
+            throw new NullPointerException();
+        }
+        List<E> removed = new ArrayList<>();
+        fullyLock();
+        try {
+            Node<E> trail = head;
+            Node<E> p = head.next;
+            while (p != null) {
+                E item = p.item;
+                if (filter.test(item)) {
+                    p.item = null;
+                    trail.next = p.next;
+                    if (last == p) {
+                        last = trail;
+                    }
+                    removed.add(item);
+                } else {
+                    trail = p;
+                }
+                p = p.next;
+            }
+        } finally {
+            // also reached when the filter throws, the nodes unlinked so far are already gone
+            if (!removed.isEmpty() && count.getAndAdd(-removed.size()) >= capacity) {
+                notFull.signalAll();
+            }
+            fullyUnlock();
+        }
+        return removed;
+    }
+
     @Override
     public Object[] toArray() {
         fullyLock();
@@ -599,6 +696,7 @@ public class ResizableCapacityLinkedBlockingQueue<E> extends AbstractQueue<E>
         fullyLock();
         try {
             head.next = null;
+            last = head;
             if (count.getAndSet(0) >= capacity) {
                 notFull.signalAll();
             }
@@ -620,6 +718,7 @@ public class ResizableCapacityLinkedBlockingQueue<E> extends AbstractQueue<E>
         try {
             first = head.next;
             head.next = null;
+            last = head;
             if (count.getAndSet(0) >= capacity) {
                 notFull.signalAll();
             }
@@ -659,6 +758,9 @@ public class ResizableCapacityLinkedBlockingQueue<E> extends AbstractQueue<E>
             }
             if (n != 0) {
                 head.next = p;
+                if (p == null) {
+                    last = head;
+                }
                 if (count.getAndAdd(-n) >= capacity) {
                     notFull.signalAll();
                 }
@@ -761,6 +863,9 @@ public class ResizableCapacityLinkedBlockingQueue<E> extends AbstractQueue<E>
                 if (p == node) {
                     p.item = null;
                     trail.next = p.next;
+                    if (last == p) {
+                        last = trail;
+                    }
                     int c = count.getAndDecrement();
                     if (c >= capacity) {
                         notFull.signalAll();
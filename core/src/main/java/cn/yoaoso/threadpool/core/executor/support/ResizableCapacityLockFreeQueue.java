@@ -0,0 +1,575 @@
+package cn.yoaoso.threadpool.core.executor.support;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * A lock-free, multi-producer multi-consumer bounded blocking queue whose
+ * capacity can be changed while it is in use.<p>
+ * <p>
+ * Elements are stored in a linked list of fixed-size array segments
+ * ({@value #SEGMENT_SIZE} slots each), following the FAA array queue algorithm:
+ * producers and consumers claim slots with a single fetch-and-add on the
+ * segment index and publish or take the element with one CAS. A new segment
+ * is only allocated every {@value #SEGMENT_SIZE} insertions, so there is no
+ * per-element node allocation.
+ * <p>
+ * The capacity bound is enforced by an atomic element count which is reserved
+ * before the element is linked, so {@link #setCapacity(int)} only has to
+ * publish a new bound. Locks are used exclusively to park and wake threads
+ * that have to wait (an empty queue for takers, a full queue for putters);
+ * the non-blocking {@code offer}/{@code poll} paths used by
+ * {@link java.util.concurrent.ThreadPoolExecutor} never take a lock while no
+ * thread is waiting.
+ * <p>
+ * This queue orders elements FIFO (first-in-first-out). Iterators are weakly
+ * consistent and traverse a snapshot of the queue taken when the iterator is
+ * created.
+ *
+ * @param <E> the type of elements held in this collection
+ */
+public class ResizableCapacityLockFreeQueue<E> extends AbstractQueue<E>
+        implements ResizableCapacityBlockingQueue<E> {
+
+    /**
+     * Number of slots of every array segment
+     */
+    static final int SEGMENT_SIZE = 1024;
+
+    /**
+     * Marker of a slot whose element has been taken or removed
+     */
+    private static final Object TAKEN = new Object();
+
+    /**
+     * Array segment of the queue
+     */
+    static final class Segment {
+
+        final AtomicInteger enqueueIndex = new AtomicInteger();
+
+        final AtomicInteger dequeueIndex = new AtomicInteger();
+
+        final AtomicReferenceArray<Object> items = new AtomicReferenceArray<>(SEGMENT_SIZE);
+
+        final AtomicReference<Segment> next = new AtomicReference<>();
+
+        Segment() {
+        }
+
+        /**
+         * Create a segment holding the given element in its first slot
+         */
+        Segment(Object first) {
+            items.lazySet(0, first);
+            enqueueIndex.lazySet(1);
+        }
+    }
+
+    /**
+     * The capacity bound, or Integer.MAX_VALUE if none
+     */
+    private volatile int capacity;
+
+    /**
+     * Current number of elements, including elements reserved but not yet linked
+     */
+    private final AtomicInteger count = new AtomicInteger();
+
+    /**
+     * Segment consumers take elements from
+     */
+    private final AtomicReference<Segment> head;
+
+    /**
+     * Segment producers append elements to
+     */
+    private final AtomicReference<Segment> tail;
+
+    /**
+     * Lock only held while parking or waking waiting threads
+     */
+    private final ReentrantLock waitLock = new ReentrantLock();
+
+    /**
+     * Wait queue for waiting takes
+     */
+    private final Condition notEmpty = waitLock.newCondition();
+
+    /**
+     * Wait queue for waiting puts
+     */
+    private final Condition notFull = waitLock.newCondition();
+
+    /**
+     * Number of threads parked on notEmpty, guarded by waitLock
+     */
+    private volatile int waitingTakers;
+
+    /**
+     * Number of threads parked on notFull, guarded by waitLock
+     */
+    private volatile int waitingPutters;
+
+    /**
+     * Creates a queue with a capacity of {@link Integer#MAX_VALUE}.
+     */
+    public ResizableCapacityLockFreeQueue() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a queue with the given initial capacity.
+     *
+     * @param capacity the capacity of this queue.
+     * @throws IllegalArgumentException if <tt>capacity</tt> is not greater
+     *                                  than zero.
+     */
+    public ResizableCapacityLockFreeQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.capacity = capacity;
+        Segment segment = new Segment();
+        this.head = new AtomicReference<>(segment);
+        this.tail = new AtomicReference<>(segment);
+    }
+
+    @Override
+    public void setCapacity(int capacity) {
+        final int oldCapacity = this.capacity;
+        this.capacity = capacity;
+        if (capacity > oldCapacity) {
+            signalNotFull();
+        }
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public int size() {
+        return count.get();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - count.get();
+    }
+
+    @Override
+    public boolean offer(E o) {
+        if (o == null) {
+            throw new NullPointerException();
+        }
+        if (!tryReserve()) {
+            return false;
+        }
+        linkLast(o);
+        signalNotEmpty();
+        return true;
+    }
+
+    @Override
+    public void put(E o) throws InterruptedException {
+        if (offer(o)) {
+            return;
+        }
+        final ReentrantLock waitLock = this.waitLock;
+        waitLock.lockInterruptibly();
+        try {
+            waitingPutters++;
+            try {
+                while (!offer(o)) {
+                    notFull.await();
+                }
+            } finally {
+                waitingPutters--;
+            }
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(E o, long timeout, TimeUnit unit) throws InterruptedException {
+        if (offer(o)) {
+            return true;
+        }
+        long nanos = unit.toNanos(timeout);
+        final ReentrantLock waitLock = this.waitLock;
+        waitLock.lockInterruptibly();
+        try {
+            waitingPutters++;
+            try {
+                while (!offer(o)) {
+                    if (nanos <= 0) {
+                        return false;
+                    }
+                    nanos = notFull.awaitNanos(nanos);
+                }
+                return true;
+            } finally {
+                waitingPutters--;
+            }
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    @Override
+    public E poll() {
+        if (count.get() == 0) {
+            return null;
+        }
+        E x = unlinkFirst();
+        if (x != null) {
+            count.getAndDecrement();
+            signalNotFull();
+        }
+        return x;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        E x = poll();
+        if (x != null) {
+            return x;
+        }
+        final ReentrantLock waitLock = this.waitLock;
+        waitLock.lockInterruptibly();
+        try {
+            waitingTakers++;
+            try {
+                while ((x = poll()) == null) {
+                    notEmpty.await();
+                }
+                return x;
+            } finally {
+                waitingTakers--;
+            }
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E x = poll();
+        if (x != null) {
+            return x;
+        }
+        long nanos = unit.toNanos(timeout);
+        final ReentrantLock waitLock = this.waitLock;
+        waitLock.lockInterruptibly();
+        try {
+            waitingTakers++;
+            try {
+                while ((x = poll()) == null) {
+                    if (nanos <= 0) {
+                        return null;
+                    }
+                    nanos = notEmpty.awaitNanos(nanos);
+                }
+                return x;
+            } finally {
+                waitingTakers--;
+            }
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        for (Segment s = head.get(); s != null; s = s.next.get()) {
+            int end = Math.min(s.enqueueIndex.get(), SEGMENT_SIZE);
+            for (int i = Math.min(s.dequeueIndex.get(), SEGMENT_SIZE); i < end; i++) {
+                Object item = s.items.get(i);
+                if (item != null && item != TAKEN) {
+                    return (E) item;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        return removeFirstMatching(o, false);
+    }
+
+    /**
+     * Removes the matching elements in a single pass over the segments. An
+     * element is only reported once its slot was claimed, so elements taken
+     * concurrently are never reported as removed.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<E> removeMatching(Predicate<? super E> filter) {
+        if (filter == null) {
+            throw new NullPointerException();
+        }
+        List<E> removed = new ArrayList<>();
+        for (Segment s = head.get(); s != null; s = s.next.get()) {
+            int end = Math.min(s.enqueueIndex.get(), SEGMENT_SIZE);
+            for (int i = Math.min(s.dequeueIndex.get(), SEGMENT_SIZE); i < end; i++) {
+                Object item = s.items.get(i);
+                if (item == null || item == TAKEN) {
+                    continue;
+                }
+                if (filter.test((E) item) && s.items.compareAndSet(i, item, TAKEN)) {
+                    count.getAndDecrement();
+                    removed.add((E) item);
+                }
+            }
+        }
+        if (!removed.isEmpty()) {
+            signalNotFull();
+        }
+        return removed;
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == null) {
+            throw new NullPointerException();
+        }
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        int n = 0;
+        E x;
+        while (n < maxElements && (x = poll()) != null) {
+            c.add(x);
+            ++n;
+        }
+        return n;
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the elements in this queue in
+     * proper sequence. The iterator never throws
+     * {@link java.util.ConcurrentModificationException}.
+     *
+     * @return an iterator over the elements in this queue in proper sequence.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr(snapshot());
+    }
+
+    /**
+     * Reserve a slot in the capacity bound.
+     *
+     * @return <tt>true</tt> if a slot was reserved, <tt>false</tt> if the queue is full
+     */
+    private boolean tryReserve() {
+        final AtomicInteger count = this.count;
+        for (; ; ) {
+            int c = count.get();
+            if (c >= capacity) {
+                return false;
+            }
+            if (count.compareAndSet(c, c + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Append the element to the tail segment, allocating a new segment once the
+     * tail segment is exhausted.
+     *
+     * @param x the item
+     */
+    private void linkLast(E x) {
+        for (; ; ) {
+            Segment last = tail.get();
+            int index = last.enqueueIndex.getAndIncrement();
+            if (index >= SEGMENT_SIZE) {
+                if (last != tail.get()) {
+                    continue;
+                }
+                Segment next = last.next.get();
+                if (next == null) {
+                    Segment segment = new Segment(x);
+                    if (last.next.compareAndSet(null, segment)) {
+                        tail.compareAndSet(last, segment);
+                        return;
+                    }
+                } else {
+                    tail.compareAndSet(last, next);
+                }
+                continue;
+            }
+            // A consumer that claimed this slot first marks it TAKEN, in which case retry with a new slot
+            if (last.items.compareAndSet(index, null, x)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Take the element from the head segment.
+     *
+     * @return the element, or <tt>null</tt> if no element is linked
+     */
+    @SuppressWarnings("unchecked")
+    private E unlinkFirst() {
+        for (; ; ) {
+            Segment first = head.get();
+            if (first.dequeueIndex.get() >= first.enqueueIndex.get() && first.next.get() == null) {
+                return null;
+            }
+            int index = first.dequeueIndex.getAndIncrement();
+            if (index >= SEGMENT_SIZE) {
+                Segment next = first.next.get();
+                if (next == null) {
+                    return null;
+                }
+                head.compareAndSet(first, next);
+                continue;
+            }
+            Object x = first.items.getAndSet(index, TAKEN);
+            // null: the producer of this slot has not published yet and will retry elsewhere
+            // TAKEN: the element has been removed by remove(Object)
+            if (x != null && x != TAKEN) {
+                return (E) x;
+            }
+        }
+    }
+
+    /**
+     * Remove the first element matching the given object.
+     *
+     * @param o        the object to match
+     * @param identity whether to match by reference instead of {@code equals}
+     * @return <tt>true</tt> if an element was removed
+     */
+    private boolean removeFirstMatching(Object o, boolean identity) {
+        for (Segment s = head.get(); s != null; s = s.next.get()) {
+            int end = Math.min(s.enqueueIndex.get(), SEGMENT_SIZE);
+            for (int i = Math.min(s.dequeueIndex.get(), SEGMENT_SIZE); i < end; i++) {
+                Object item = s.items.get(i);
+                if (item == null || item == TAKEN) {
+                    continue;
+                }
+                boolean matches = identity ? item == o : o.equals(item);
+                if (matches && s.items.compareAndSet(i, item, TAKEN)) {
+                    count.getAndDecrement();
+                    signalNotFull();
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copy the currently linked elements in FIFO order.
+     */
+    @SuppressWarnings("unchecked")
+    private List<E> snapshot() {
+        List<E> elements = new ArrayList<>();
+        for (Segment s = head.get(); s != null; s = s.next.get()) {
+            int end = Math.min(s.enqueueIndex.get(), SEGMENT_SIZE);
+            for (int i = Math.min(s.dequeueIndex.get(), SEGMENT_SIZE); i < end; i++) {
+                Object item = s.items.get(i);
+                if (item != null && item != TAKEN) {
+                    elements.add((E) item);
+                }
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * Signal a waiting take, only taking the wait lock when some taker is parked.
+     */
+    private void signalNotEmpty() {
+        if (waitingTakers > 0) {
+            final ReentrantLock waitLock = this.waitLock;
+            waitLock.lock();
+            try {
+                notEmpty.signal();
+            } finally {
+                waitLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Signal waiting puts, only taking the wait lock when some putter is parked.
+     */
+    private void signalNotFull() {
+        if (waitingPutters > 0) {
+            final ReentrantLock waitLock = this.waitLock;
+            waitLock.lock();
+            try {
+                notFull.signalAll();
+            } finally {
+                waitLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Snapshot iterator.
+     */
+    private class Itr implements Iterator<E> {
+
+        private final List<E> elements;
+        private int cursor;
+        private E lastRet;
+
+        Itr(List<E> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < elements.size();
+        }
+
+        @Override
+        public E next() {
+            if (cursor >= elements.size()) {
+                throw new NoSuchElementException();
+            }
+            lastRet = elements.get(cursor++);
+            return lastRet;
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet == null) {
+                throw new IllegalStateException();
+            }
+            removeFirstMatching(lastRet, true);
+            lastRet = null;
+        }
+    }
+}
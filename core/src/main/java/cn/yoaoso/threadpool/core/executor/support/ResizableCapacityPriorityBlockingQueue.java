@@ -0,0 +1,666 @@
+package cn.yoaoso.threadpool.core.executor.support;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * A bounded priority {@linkplain java.util.concurrent.BlockingQueue blocking queue}
+ * with a {@link #setCapacity(int)} method, allowing us to change the capacity
+ * of the queue while it is in use.<p>
+ * <p>
+ * Unlike {@linkplain java.util.concurrent.PriorityBlockingQueue}, elements do
+ * not need to be {@link Comparable}. The priority of an element is read from
+ * a {@link PriorityTask} wrapper (see {@link PriorityTask#priorityOf(Object)}),
+ * plain tasks get {@link PriorityTask#DEFAULT_PRIORITY}. Higher priorities are
+ * taken first.
+ * <p>
+ * To keep low-priority work from starving, waiting time ages the priority:
+ * one priority level is worth {@code agingNanos} of waiting. Each element is
+ * ordered by the static key {@code enqueueTime - priority * agingNanos}, so
+ * an element that has waited long enough overtakes newly arriving elements of
+ * a higher priority, and elements of equal priority are taken in FIFO order.
+ * Because the key never changes after insertion, aging costs nothing beyond
+ * the O(log n) heap operations.
+ * <p>
+ * Keys and elements are kept in parallel arrays forming a binary min-heap,
+ * so no node or comparator object is allocated per element. The arrays grow
+ * on demand up to the capacity. When the capacity shrinks below the current
+ * number of elements, no element is dropped: new insertions are refused
+ * until the queue drains below the new bound. All operations are guarded by
+ * a single lock. Iterators traverse a snapshot of the queue in no particular
+ * order.
+ *
+ * @param <E> the type of elements held in this collection
+ */
+public class ResizableCapacityPriorityBlockingQueue<E> extends AbstractQueue<E>
+        implements ResizableCapacityBlockingQueue<E> {
+
+    /**
+     * Default waiting time worth one priority level
+     */
+    public static final long DEFAULT_AGING_MILLIS = 1000L;
+
+    /**
+     * Initial length of the heap arrays
+     */
+    private static final int INITIAL_ARRAY_LENGTH = 16;
+
+    /**
+     * Bound of the priority offset, keeps key arithmetic free of overflow
+     */
+    private static final long MAX_PRIORITY_OFFSET = 1L << 61;
+
+    /**
+     * The queued items, heap ordered together with keys
+     */
+    private Object[] items;
+
+    /**
+     * Ordering keys of the queued items, smaller key is taken first
+     */
+    private long[] keys;
+
+    /**
+     * Number of elements in the queue
+     */
+    private int count;
+
+    /**
+     * The capacity bound
+     */
+    private volatile int capacity;
+
+    /**
+     * Waiting time worth one priority level, in nanoseconds
+     */
+    private final long agingNanos;
+
+    /**
+     * Origin of enqueue timestamps, keeps relative times small and non-negative
+     */
+    private final long originNanos = System.nanoTime();
+
+    /**
+     * Main lock guarding all access
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Condition for waiting takes
+     */
+    private final Condition notEmpty = lock.newCondition();
+
+    /**
+     * Condition for waiting puts
+     */
+    private final Condition notFull = lock.newCondition();
+
+    /**
+     * Creates a queue with the given capacity and the default aging interval.
+     *
+     * @param capacity the capacity of this queue.
+     * @throws IllegalArgumentException if <tt>capacity</tt> is not greater
+     *                                  than zero.
+     */
+    public ResizableCapacityPriorityBlockingQueue(int capacity) {
+        this(capacity, DEFAULT_AGING_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a queue with the given capacity and aging interval.
+     *
+     * @param capacity the capacity of this queue.
+     * @param aging    waiting time worth one priority level
+     * @param unit     the time unit of the aging argument
+     * @throws IllegalArgumentException if <tt>capacity</tt> or <tt>aging</tt>
+     *                                  is not greater than zero.
+     */
+    public ResizableCapacityPriorityBlockingQueue(int capacity, long aging, TimeUnit unit) {
+        if (capacity <= 0 || aging <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.capacity = capacity;
+        this.agingNanos = unit.toNanos(aging);
+        int length = Math.min(capacity, INITIAL_ARRAY_LENGTH);
+        this.items = new Object[length];
+        this.keys = new long[length];
+    }
+
+    /**
+     * Set a new capacity for the queue. The heap arrays are not reallocated,
+     * they grow on demand.
+     *
+     * @param capacity the new capacity for the queue
+     * @throws IllegalArgumentException if <tt>capacity</tt> is not greater
+     *                                  than zero.
+     */
+    @Override
+    public void setCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException();
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            int oldCapacity = this.capacity;
+            this.capacity = capacity;
+            if (capacity > oldCapacity && count < capacity) {
+                notFull.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public int size() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return Math.max(0, capacity - count);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(E o) {
+        if (o == null) {
+            throw new NullPointerException();
+        }
+        long key = keyOf(o);
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            if (count >= capacity) {
+                return false;
+            }
+            enqueue(o, key);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(E o) throws InterruptedException {
+        if (o == null) {
+            throw new NullPointerException();
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (count >= capacity) {
+                notFull.await();
+            }
+            enqueue(o, keyOf(o));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(E o, long timeout, TimeUnit unit) throws InterruptedException {
+        if (o == null) {
+            throw new NullPointerException();
+        }
+        long nanos = unit.toNanos(timeout);
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (count >= capacity) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            enqueue(o, keyOf(o));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts leading elements of the given list until the queue is full,
+     * taking the lock once for the whole batch.
+     */
+    @Override
+    public int offerAll(List<? extends E> elements) {
+        for (E each : elements) {
+            if (each == null) {
+                throw new NullPointerException();
+            }
+        }
+        int n = 0;
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            Iterator<? extends E> it = elements.iterator();
+            while (count < capacity && it.hasNext()) {
+                E each = it.next();
+                enqueue(each, keyOf(each));
+                n++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return n;
+    }
+
+    @Override
+    public E poll() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return (count == 0) ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return (count == 0) ? null : (E) items[0];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return removeFirstMatching(o, false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the matching elements with one compaction of the heap array
+     * followed by a bottom-up heapify.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<E> removeMatching(Predicate<? super E> filter) {
+        if (filter == null) {
+            throw new NullPointerException();
+        }
+        List<E> removed = new ArrayList<>();
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            final Object[] items = this.items;
+            final long[] keys = this.keys;
+            // test every element before touching the heap, so that a throwing filter leaves the queue intact
+            boolean[] matched = new boolean[count];
+            for (int i = 0; i < count; i++) {
+                if (filter.test((E) items[i])) {
+                    matched[i] = true;
+                    removed.add((E) items[i]);
+                }
+            }
+            if (removed.isEmpty()) {
+                return removed;
+            }
+            int w = 0;
+            for (int i = 0; i < count; i++) {
+                if (!matched[i]) {
+                    items[w] = items[i];
+                    keys[w] = keys[i];
+                    w++;
+                }
+            }
+            Arrays.fill(items, w, count, null);
+            count = w;
+            for (int i = (count >>> 1) - 1; i >= 0; i--) {
+                siftDown(i, items[i], keys[i]);
+            }
+            notFull.signalAll();
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            Arrays.fill(items, 0, count, null);
+            count = 0;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == null) {
+            throw new NullPointerException();
+        }
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        if (maxElements <= 0) {
+            return 0;
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            int n = Math.min(maxElements, count);
+            for (int i = 0; i < n; i++) {
+                c.add(dequeue());
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Object[] toArray() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return Arrays.copyOf(items, count);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return snapshot().toArray(a);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return snapshot().toString();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the elements in this queue. The
+     * iterator does not return the elements in any particular order and never
+     * throws {@link java.util.ConcurrentModificationException}.
+     *
+     * @return an iterator over the elements in this queue
+     */
+    @Override
+    public Iterator<E> iterator() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return new Itr(snapshot());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Computes the ordering key of an element outside the lock.
+     */
+    private long keyOf(Object o) {
+        long waitedNanos = System.nanoTime() - originNanos;
+        int priority = PriorityTask.priorityOf(o);
+        long offset;
+        if (Math.abs((long) priority) > MAX_PRIORITY_OFFSET / agingNanos) {
+            offset = priority > 0 ? MAX_PRIORITY_OFFSET : -MAX_PRIORITY_OFFSET;
+        } else {
+            offset = priority * agingNanos;
+        }
+        return waitedNanos - offset;
+    }
+
+    /**
+     * Inserts element into the heap and signals. Call only when holding lock.
+     */
+    private void enqueue(E x, long key) {
+        if (count == items.length) {
+            grow();
+        }
+        siftUp(count++, x, key);
+        notEmpty.signal();
+    }
+
+    /**
+     * Removes the head of the heap and signals. Call only when holding lock.
+     */
+    @SuppressWarnings("unchecked")
+    private E dequeue() {
+        final Object[] items = this.items;
+        E x = (E) items[0];
+        int last = --count;
+        Object moved = items[last];
+        long movedKey = keys[last];
+        items[last] = null;
+        if (last > 0) {
+            siftDown(0, moved, movedKey);
+        }
+        notFull.signal();
+        return x;
+    }
+
+    /**
+     * Doubles the heap arrays, never beyond the capacity. Called only when
+     * the arrays are full and count is below the capacity, so the arrays
+     * always grow by at least one slot. Call only when holding lock.
+     */
+    private void grow() {
+        int oldLength = items.length;
+        int newLength = (int) Math.min((long) capacity, oldLength * 2L);
+        items = Arrays.copyOf(items, newLength);
+        keys = Arrays.copyOf(keys, newLength);
+    }
+
+    private void siftUp(int k, Object x, long key) {
+        final Object[] items = this.items;
+        final long[] keys = this.keys;
+        while (k > 0) {
+            int parent = (k - 1) >>> 1;
+            if (key >= keys[parent]) {
+                break;
+            }
+            items[k] = items[parent];
+            keys[k] = keys[parent];
+            k = parent;
+        }
+        items[k] = x;
+        keys[k] = key;
+    }
+
+    private void siftDown(int k, Object x, long key) {
+        final Object[] items = this.items;
+        final long[] keys = this.keys;
+        int half = count >>> 1;
+        while (k < half) {
+            int child = (k << 1) + 1;
+            int right = child + 1;
+            if (right < count && keys[right] < keys[child]) {
+                child = right;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            items[k] = items[child];
+            keys[k] = keys[child];
+            k = child;
+        }
+        items[k] = x;
+        keys[k] = key;
+    }
+
+    /**
+     * Removes the first element matching o. Call only when holding lock.
+     */
+    private boolean removeFirstMatching(Object o, boolean identity) {
+        final Object[] items = this.items;
+        for (int i = 0; i < count; i++) {
+            if (identity ? o == items[i] : o.equals(items[i])) {
+                removeAt(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the element at the given heap index. Call only when holding lock.
+     */
+    private void removeAt(int i) {
+        final Object[] items = this.items;
+        int last = --count;
+        if (last == i) {
+            items[i] = null;
+        } else {
+            Object moved = items[last];
+            long movedKey = keys[last];
+            items[last] = null;
+            siftDown(i, moved, movedKey);
+            if (items[i] == moved) {
+                siftUp(i, moved, movedKey);
+            }
+        }
+        notFull.signal();
+    }
+
+    /**
+     * Copy the queued elements in heap order. Call only when holding lock.
+     */
+    @SuppressWarnings("unchecked")
+    private List<E> snapshot() {
+        List<E> elements = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            elements.add((E) items[i]);
+        }
+        return elements;
+    }
+
+    /**
+     * Snapshot iterator.
+     */
+    private class Itr implements Iterator<E> {
+
+        private final List<E> elements;
+        private int cursor;
+        private E lastRet;
+
+        Itr(List<E> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < elements.size();
+        }
+
+        @Override
+        public E next() {
+            if (cursor >= elements.size()) {
+                throw new NoSuchElementException();
+            }
+            lastRet = elements.get(cursor++);
+            return lastRet;
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet == null) {
+                throw new IllegalStateException();
+            }
+            final ReentrantLock lock = ResizableCapacityPriorityBlockingQueue.this.lock;
+            lock.lock();
+            try {
+                removeFirstMatching(lastRet, true);
+            } finally {
+                lock.unlock();
+            }
+            lastRet = null;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package cn.yoaoso.threadpool.core.executor.support;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * @author Drayd
+ * @description 支持运行时调整许可总数的信号量
+ * <p>
+ * 调小许可时通过 {@link #reducePermits(int)} 扣减，已发放的许可不会被收回，可用许可可能暂时为负数，直到持有者陆续归还
+ * @create 2026-10-18 12:05
+ */
+public class ResizableSemaphore extends Semaphore {
+
+    private static final long serialVersionUID = 5916412297417151239L;
+
+    /**
+     * 许可总数
+     */
+    private int maxPermits;
+
+    public ResizableSemaphore(int permits) {
+        super(permits);
+        this.maxPermits = permits;
+    }
+
+    /**
+     * 调整许可总数
+     *
+     * @param permits 新的许可总数
+     */
+    public synchronized void setMaxPermits(int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("The permits must be greater than 0.");
+        }
+        int delta = permits - maxPermits;
+        if (delta > 0) {
+            release(delta);
+        } else if (delta < 0) {
+            reducePermits(-delta);
+        }
+        maxPermits = permits;
+    }
+
+    /**
+     * 获取许可总数
+     */
+    public synchronized int getMaxPermits() {
+        return maxPermits;
+    }
+}
@@ -0,0 +1,200 @@
+package cn.yoaoso.threadpool.core.executor.support;
+
+import cn.yoaoso.threadpool.core.toolkit.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Drayd
+ * @description 指数退避重试的拒绝策略，被拒绝的任务交给共享的调度线程延迟后重新提交，提交线程立即返回
+ * <p>
+ * 第 n 次重试的延迟为首次延迟的 2^(n-1) 倍，不超过延迟上限，并在延迟的后半段随机取值，避免同一时刻被拒绝的任务同时重试
+ * 每次重试都重新走线程池的 execute 流程，可以创建非核心线程；重试仍被拒绝时计入线程池的拒绝次数
+ * 超过最大重试次数或线程池已关闭时放弃任务，通过 submit 提交的任务会被取消；等待重试的任务数达到上限时新的拒绝直接抛出 {@link RejectedExecutionException}
+ * <p>
+ * 放弃任务与 DiscardPolicy 一样不会通知提交方，不适用于 {@link cn.yoaoso.threadpool.core.executor.KeyedSerialExecutor} 使用的线程池
+ * @create 2026-10-18 17:15
+ */
+@Slf4j
+public class RetryBackoffPolicy implements RejectedExecutionHandler {
+
+    /**
+     * 所有线程池共享的重试调度器，只负责重新提交任务，不执行任务
+     */
+    private static final ScheduledThreadPoolExecutor RETRY_SCHEDULER;
+
+    /**
+     * 调度线程正在重试时标记本次提交，拒绝策略据此判断重试失败而不是重新调度
+     */
+    private static final ThreadLocal<RetryAttempt> CURRENT_ATTEMPT = new ThreadLocal<>();
+
+    static {
+        RETRY_SCHEDULER = new ScheduledThreadPoolExecutor(1, ThreadFactoryBuilder.builder()
+                .namePrefix("tidepool-reject-retry-")
+                .daemon(true)
+                .build());
+        RETRY_SCHEDULER.setRemoveOnCancelPolicy(true);
+    }
+
+    private final int maxAttempts;
+
+    private final long initialDelayNanos;
+
+    private final long maxDelayNanos;
+
+    private final int maxPending;
+
+    /**
+     * 等待重试的任务数
+     */
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    /**
+     * 重试次数
+     */
+    private final LongAdder retryCount = new LongAdder();
+
+    /**
+     * 重试后成功提交的任务数
+     */
+    private final LongAdder recoveredCount = new LongAdder();
+
+    /**
+     * 放弃的任务数，包括重试耗尽、线程池关闭和等待重试的任务数达到上限
+     */
+    private final LongAdder exhaustedCount = new LongAdder();
+
+    public RetryBackoffPolicy(int maxAttempts, long initialDelay, long maxDelay, TimeUnit unit, int maxPending) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialDelayNanos = Math.max(1L, unit.toNanos(initialDelay));
+        this.maxDelayNanos = Math.max(this.initialDelayNanos, unit.toNanos(maxDelay));
+        this.maxPending = Math.max(1, maxPending);
+    }
+
+    @Override
+    public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+        RetryAttempt attempt = CURRENT_ATTEMPT.get();
+        if (attempt != null) {
+            // 调度线程重试时再次被拒绝，由重试任务决定是否继续退避
+            attempt.rejected = true;
+            return;
+        }
+
+        if (executor.isShutdown()) {
+            exhaustedCount.increment();
+            throw new RejectedExecutionException("Task " + r + " rejected from " + executor + ", executor is shutdown");
+        }
+        if (pendingCount.incrementAndGet() > maxPending) {
+            pendingCount.decrementAndGet();
+            exhaustedCount.increment();
+            throw new RejectedExecutionException("Task " + r + " rejected from " + executor + ", retry backlog is full");
+        }
+        schedule(new RetryAttempt(r, executor), 1);
+    }
+
+    private void schedule(RetryAttempt attempt, int attemptNumber) {
+        attempt.attemptNumber = attemptNumber;
+        long delayNanos = Math.min(maxDelayNanos, initialDelayNanos << Math.min(attemptNumber - 1, 30));
+        delayNanos = delayNanos / 2 + ThreadLocalRandom.current().nextLong(delayNanos / 2 + 1);
+        try {
+            RETRY_SCHEDULER.schedule(attempt, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException ex) {
+            giveUp(attempt);
+        }
+    }
+
+    private void giveUp(RetryAttempt attempt) {
+        pendingCount.decrementAndGet();
+        exhaustedCount.increment();
+        Runnable task = TimedRunnable.unwrap(attempt.task);
+        if (task instanceof Future) {
+            ((Future<?>) task).cancel(false);
+        }
+        log.debug("Rejected task abandoned after {} retries: {}", attempt.attemptNumber, attempt.task);
+    }
+
+    /**
+     * 获取等待重试的任务数
+     */
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    /**
+     * 获取重试次数
+     */
+    public long getRetryCount() {
+        return retryCount.sum();
+    }
+
+    /**
+     * 获取重试后成功提交的任务数
+     */
+    public long getRecoveredCount() {
+        return recoveredCount.sum();
+    }
+
+    /**
+     * 获取放弃的任务数
+     */
+    public long getExhaustedCount() {
+        return exhaustedCount.sum();
+    }
+
+    /**
+     * 单个被拒绝任务的重试
+     */
+    private final class RetryAttempt implements Runnable {
+
+        private final Runnable task;
+
+        private final ThreadPoolExecutor executor;
+
+        private int attemptNumber;
+
+        private boolean rejected;
+
+        private RetryAttempt(Runnable task, ThreadPoolExecutor executor) {
+            this.task = task;
+            this.executor = executor;
+        }
+
+        @Override
+        public void run() {
+            if (executor.isShutdown()) {
+                giveUp(this);
+                return;
+            }
+
+            retryCount.increment();
+            rejected = false;
+            CURRENT_ATTEMPT.set(this);
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException ex) {
+                // 重试期间拒绝策略被切换为会抛出异常的策略
+                rejected = true;
+            } finally {
+                CURRENT_ATTEMPT.remove();
+            }
+
+            if (!rejected) {
+                pendingCount.decrementAndGet();
+                recoveredCount.increment();
+            } else if (attemptNumber >= maxAttempts) {
+                giveUp(this);
+            } else {
+                schedule(this, attemptNumber + 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package cn.yoaoso.threadpool.core.executor.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+/**
+ * @author Drayd
+ * @description 基于 JDK 序列化的任务编解码器，只编码实现了 {@link Serializable} 的任务
+ * <p>
+ * 通过 submit 提交的任务被包装为 FutureTask，不能序列化，不会溢出到磁盘
+ * @create 2026-10-18 16:42
+ */
+public class SerializableTaskCodec implements TaskCodec {
+
+    @Override
+    public byte[] encode(Runnable task) {
+        if (!(task instanceof Serializable)) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(task);
+        } catch (IOException ex) {
+            // 任务引用了不可序列化的对象
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Runnable decode(byte[] payload) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+            return (Runnable) in.readObject();
+        } catch (IOException | ClassNotFoundException | ClassCastException ex) {
+            throw new IllegalStateException("Failed to decode spilled task", ex);
+        }
+    }
+}
@@ -0,0 +1,726 @@
+package cn.yoaoso.threadpool.core.executor.support;
+
+import cn.yoaoso.threadpool.core.executor.ThreadPoolExecutorProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * @author Drayd
+ * @description 内存队头 + 磁盘溢出的任务队列，突发流量超过内存容量时将任务追加到内存映射的分段文件中，而不是触发拒绝策略
+ * <p>
+ * 队列容量为内存队头的容量：队头未满且没有溢出的任务时直接入队；否则通过 {@link TaskCodec} 编码后追加到最后一个分段文件，
+ * 之后的任务也都追加到磁盘，保证先进先出。每出队一个任务就从磁盘按顺序读回一个任务补充到队头，读完的分段文件即删除
+ * 读回的任务在出队时由消费线程解码，编码也在锁外完成，锁内只做内存拷贝；恢复的任务保留原始入队时间，排队耗时统计和 CoDel 判定不受影响
+ * <p>
+ * 以下情况队列视为已满（offer 返回 false）：编解码器不支持该任务（如通过 submit 提交的 FutureTask）、单条记录超过分段大小、分段文件数量达到上限或写入失败
+ * 溢出的任务只在当前进程内有效，分段文件随进程退出删除，不会恢复；迭代器、remove 和 contains 只作用于内存队头中的任务
+ * @create 2026-10-18 16:45
+ */
+@Slf4j
+public class SpillableBlockingQueue extends AbstractQueue<Runnable> implements ResizableCapacityBlockingQueue<Runnable> {
+
+    /**
+     * 默认分段文件大小，单位字节
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * 默认分段文件数量上限
+     */
+    public static final int DEFAULT_MAX_SEGMENTS = 64;
+
+    /**
+     * 默认溢出目录
+     */
+    public static final String DEFAULT_DIRECTORY = Paths.get(System.getProperty("java.io.tmpdir"), "tidepool-spill").toString();
+
+    /**
+     * 记录头：任务字节长度（int）+ 入队时间（long）
+     */
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+    /**
+     * 入队时未包装的任务，读回时不再包装
+     */
+    private static final long UNTIMED = Long.MIN_VALUE;
+
+    private static final AtomicLong INSTANCE_SEQUENCE = new AtomicLong();
+
+    private final long instanceId = INSTANCE_SEQUENCE.incrementAndGet();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    private final Condition notFull = lock.newCondition();
+
+    /**
+     * 内存队头，元素为任务或从磁盘读回尚未解码的 {@link SpilledRecord}
+     */
+    private final ArrayDeque<Object> head = new ArrayDeque<>();
+
+    /**
+     * 分段文件，按写入顺序排列
+     */
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+
+    private volatile int capacity;
+
+    /**
+     * 磁盘中的任务数量，只在持有锁时写入
+     */
+    private volatile int spillDepth;
+
+    /**
+     * 累计写入磁盘的字节数，只在持有锁时写入
+     */
+    private volatile long spillWriteBytes;
+
+    /**
+     * 累计从磁盘读回的字节数，只在持有锁时写入
+     */
+    private volatile long spillReadBytes;
+
+    private long segmentSequence;
+
+    private volatile Path directory = Paths.get(DEFAULT_DIRECTORY);
+
+    private volatile int segmentSize = DEFAULT_SEGMENT_SIZE;
+
+    private volatile int maxSegments = DEFAULT_MAX_SEGMENTS;
+
+    private volatile TaskCodec codec = new SerializableTaskCodec();
+
+    public SpillableBlockingQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * 应用线程池的溢出配置，目录、分段大小和编解码器只对之后创建的分段文件生效，已溢出的任务仍按原有方式读回
+     *
+     * @param config 溢出配置，为空时保持当前配置
+     */
+    public void configure(ThreadPoolExecutorProperties.SpillConfig config) {
+        if (config == null) {
+            return;
+        }
+        if (config.getDirectory() != null && !config.getDirectory().isEmpty()) {
+            setDirectory(Paths.get(config.getDirectory()));
+        }
+        if (config.getSegmentSize() != null) {
+            setSegmentSize(config.getSegmentSize());
+        }
+        if (config.getMaxSegments() != null) {
+            setMaxSegments(config.getMaxSegments());
+        }
+        if (config.getCodec() != null && !config.getCodec().equals(codec.getClass().getName())) {
+            setCodec(createCodec(config.getCodec()));
+        }
+    }
+
+    private static TaskCodec createCodec(String className) {
+        try {
+            Class<?> codecClass = Class.forName(className, true, Thread.currentThread().getContextClassLoader());
+            return (TaskCodec) codecClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException ex) {
+            throw new IllegalArgumentException("Invalid task codec: " + className, ex);
+        }
+    }
+
+    public void setDirectory(Path directory) {
+        this.directory = Objects.requireNonNull(directory);
+    }
+
+    public void setSegmentSize(int segmentSize) {
+        if (segmentSize <= RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+        }
+        this.segmentSize = segmentSize;
+    }
+
+    public void setMaxSegments(int maxSegments) {
+        if (maxSegments <= 0) {
+            throw new IllegalArgumentException("Max segments must be positive: " + maxSegments);
+        }
+        this.maxSegments = maxSegments;
+    }
+
+    /**
+     * 替换编解码器，已溢出的任务由新的编解码器解码，替换前需确保两者格式兼容或磁盘中没有任务
+     */
+    public void setCodec(TaskCodec codec) {
+        this.codec = Objects.requireNonNull(codec);
+    }
+
+    /**
+     * 获取磁盘中的任务数量
+     */
+    public int getSpillDepth() {
+        return spillDepth;
+    }
+
+    /**
+     * 获取累计写入磁盘的字节数
+     */
+    public long getSpillWriteBytes() {
+        return spillWriteBytes;
+    }
+
+    /**
+     * 获取累计从磁盘读回的字节数
+     */
+    public long getSpillReadBytes() {
+        return spillReadBytes;
+    }
+
+    @Override
+    public void setCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        lock.lock();
+        try {
+            this.capacity = capacity;
+            // 扩容后立即从磁盘补充队头
+            pageIn();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public boolean offer(Runnable e) {
+        Objects.requireNonNull(e);
+        lock.lock();
+        try {
+            if (offerHead(e)) {
+                return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // 编码可能较慢，在锁外完成
+        byte[] payload = encode(e);
+        if (payload == null) {
+            return false;
+        }
+        long enqueueNanos = (e instanceof TimedRunnable) ? ((TimedRunnable) e).getEnqueueNanos() : UNTIMED;
+        lock.lock();
+        try {
+            // 编码期间队头可能已经排空
+            if (offerHead(e)) {
+                return true;
+            }
+            if (!append(payload, enqueueNanos)) {
+                return false;
+            }
+            spillDepth++;
+            pageIn();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(Runnable e) throws InterruptedException {
+        Objects.requireNonNull(e);
+        while (!offer(e)) {
+            awaitNotFull(Long.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public boolean offer(Runnable e, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(e);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!offer(e)) {
+            long nanos = deadline - System.nanoTime();
+            if (nanos <= 0L) {
+                return false;
+            }
+            awaitNotFull(nanos);
+        }
+        return true;
+    }
+
+    /**
+     * 等待出队，磁盘写满或任务不支持编码时只能等队头出现空位
+     */
+    private void awaitNotFull(long nanos) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            if (spillDepth > 0 || head.size() >= capacity) {
+                notFull.awaitNanos(nanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        Object x;
+        lock.lockInterruptibly();
+        try {
+            while (head.isEmpty()) {
+                notEmpty.await();
+            }
+            x = dequeue();
+        } finally {
+            lock.unlock();
+        }
+        return resolve(x);
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        Object x;
+        lock.lockInterruptibly();
+        try {
+            while (head.isEmpty()) {
+                if (nanos <= 0L) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            x = dequeue();
+        } finally {
+            lock.unlock();
+        }
+        return resolve(x);
+    }
+
+    @Override
+    public Runnable poll() {
+        Object x;
+        lock.lock();
+        try {
+            if (head.isEmpty()) {
+                return null;
+            }
+            x = dequeue();
+        } finally {
+            lock.unlock();
+        }
+        return resolve(x);
+    }
+
+    /**
+     * 返回队首任务，队首是从磁盘读回的任务时返回解码得到的副本
+     */
+    @Override
+    public Runnable peek() {
+        Object x;
+        lock.lock();
+        try {
+            x = head.peekFirst();
+        } finally {
+            lock.unlock();
+        }
+        return x == null ? null : resolve(x);
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return head.size() + spillDepth;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 返回内存队头的剩余容量，有任务溢出到磁盘时为 0
+     */
+    @Override
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return spillDepth > 0 ? 0 : Math.max(0, capacity - head.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        lock.lock();
+        try {
+            Iterator<Object> it = head.iterator();
+            while (it.hasNext()) {
+                if (o.equals(it.next())) {
+                    it.remove();
+                    pageIn();
+                    notFull.signal();
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 单次遍历移除内存队头中匹配的任务，与 remove 一样不作用于已溢出到磁盘的任务
+     */
+    @Override
+    public List<Runnable> removeMatching(Predicate<? super Runnable> filter) {
+        Objects.requireNonNull(filter);
+        List<Runnable> removed = new ArrayList<>();
+        lock.lock();
+        try {
+            // 从磁盘读回尚未解码的记录不可能与调用方持有的任务匹配，直接跳过
+            head.removeIf(each -> !(each instanceof SpilledRecord) && filter.test((Runnable) each) && removed.add((Runnable) each));
+            if (!removed.isEmpty()) {
+                pageIn();
+                notFull.signalAll();
+            }
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o == null) {
+            return false;
+        }
+        lock.lock();
+        try {
+            return head.contains(o);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            head.clear();
+            releaseSegments();
+            spillDepth = 0;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> c, int maxElements) {
+        Objects.requireNonNull(c);
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        if (maxElements <= 0) {
+            return 0;
+        }
+        List<Object> drained = new ArrayList<>();
+        lock.lock();
+        try {
+            // 连同磁盘中的任务一起转移，线程池 shutdownNow 时不会遗漏溢出的任务
+            while (drained.size() < maxElements && (!head.isEmpty() || spillDepth > 0)) {
+                drained.add(head.isEmpty() ? readSpilled() : head.pollFirst());
+            }
+            pageIn();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Object each : drained) {
+            c.add(resolve(each));
+        }
+        return drained.size();
+    }
+
+    /**
+     * 返回内存队头中已解码任务的快照迭代器，不包含从磁盘读回尚未解码的任务
+     */
+    @Override
+    public Iterator<Runnable> iterator() {
+        List<Runnable> snapshot = new ArrayList<>();
+        lock.lock();
+        try {
+            for (Object each : head) {
+                if (each instanceof Runnable) {
+                    snapshot.add((Runnable) each);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        Iterator<Runnable> it = snapshot.iterator();
+        return new Iterator<Runnable>() {
+
+            private Runnable last;
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public Runnable next() {
+                last = it.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                SpillableBlockingQueue.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    /**
+     * 队头未满且没有溢出的任务时直接放入队头，需持有锁
+     */
+    private boolean offerHead(Runnable e) {
+        if (spillDepth > 0 || head.size() >= capacity) {
+            return false;
+        }
+        head.addLast(e);
+        notEmpty.signal();
+        return true;
+    }
+
+    /**
+     * 出队并从磁盘补充队头，需持有锁
+     */
+    private Object dequeue() {
+        Object x = head.pollFirst();
+        pageIn();
+        notFull.signal();
+        return x;
+    }
+
+    /**
+     * 按顺序从磁盘读回任务，直到队头填满或磁盘为空，需持有锁
+     */
+    private void pageIn() {
+        boolean added = false;
+        while (spillDepth > 0 && head.size() < capacity) {
+            head.addLast(readSpilled());
+            added = true;
+        }
+        if (added) {
+            notEmpty.signal();
+        }
+    }
+
+    /**
+     * 读取磁盘中的第一条记录，需持有锁且磁盘不为空
+     */
+    private SpilledRecord readSpilled() {
+        Segment segment = segments.peekFirst();
+        SpilledRecord record = segment.read();
+        spillDepth--;
+        spillReadBytes += RECORD_HEADER_SIZE + record.payload.length;
+        if (segment.isDrained()) {
+            // 读完的分段直接删除，最后一个分段也不保留，否则队列排空后仍占用映射内存和文件句柄，下次溢出时重新创建
+            segments.pollFirst();
+            segment.release();
+        }
+        return record;
+    }
+
+    /**
+     * 追加一条记录到最后一个分段，空间不足时创建新的分段，需持有锁
+     */
+    private boolean append(byte[] payload, long enqueueNanos) {
+        int recordSize = RECORD_HEADER_SIZE + payload.length;
+        Segment tail = segments.peekLast();
+        if (tail == null || tail.remaining() < recordSize) {
+            if (recordSize > segmentSize || segments.size() >= maxSegments) {
+                return false;
+            }
+            try {
+                tail = Segment.create(directory.resolve("spill-" + instanceId + "-" + (++segmentSequence) + ".seg"), segmentSize);
+            } catch (IOException | RuntimeException ex) {
+                log.warn("Failed to create spill segment in directory: {}", directory, ex);
+                return false;
+            }
+            segments.addLast(tail);
+        }
+        tail.write(payload, enqueueNanos);
+        spillWriteBytes += recordSize;
+        return true;
+    }
+
+    private void releaseSegments() {
+        Segment segment;
+        while ((segment = segments.pollFirst()) != null) {
+            segment.release();
+        }
+    }
+
+    private byte[] encode(Runnable e) {
+        try {
+            return codec.encode(TimedRunnable.unwrap(e));
+        } catch (RuntimeException ex) {
+            log.warn("Failed to encode task for spilling: {}", e, ex);
+            return null;
+        }
+    }
+
+    /**
+     * 将队头元素转换为任务，磁盘读回的记录在锁外解码；解码失败的任务执行时抛出异常，由线程池按任务异常处理
+     */
+    private Runnable resolve(Object x) {
+        if (!(x instanceof SpilledRecord)) {
+            return (Runnable) x;
+        }
+        SpilledRecord record = (SpilledRecord) x;
+        Runnable task;
+        try {
+            task = codec.decode(record.payload);
+        } catch (RuntimeException ex) {
+            log.error("Failed to decode spilled task, payload size: {}", record.payload.length, ex);
+            task = () -> {
+                throw new IllegalStateException("Failed to decode spilled task", ex);
+            };
+        }
+        return record.enqueueNanos == UNTIMED ? task : new TimedRunnable(task, record.enqueueNanos);
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return "SpillableBlockingQueue[capacity=" + capacity + ", head=" + head.size() + ", spilled=" + spillDepth
+                    + ", segments=" + segments.size() + "]";
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 从磁盘读回尚未解码的任务
+     */
+    private static final class SpilledRecord {
+
+        private final byte[] payload;
+
+        private final long enqueueNanos;
+
+        private SpilledRecord(byte[] payload, long enqueueNanos) {
+            this.payload = payload;
+            this.enqueueNanos = enqueueNanos;
+        }
+    }
+
+    /**
+     * 内存映射的分段文件，记录依次追加，读写位置只在持有队列锁时访问
+     */
+    private static final class Segment {
+
+        private final Path file;
+
+        private final FileChannel channel;
+
+        private final MappedByteBuffer buffer;
+
+        private int writePosition;
+
+        private int readPosition;
+
+        private Segment(Path file, FileChannel channel, MappedByteBuffer buffer) {
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment create(Path file, int size) throws IOException {
+            Files.createDirectories(file.getParent());
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+            try {
+                return new Segment(file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0L, size));
+            } catch (IOException | RuntimeException ex) {
+                channel.close();
+                throw ex;
+            }
+        }
+
+        int remaining() {
+            return buffer.capacity() - writePosition;
+        }
+
+        void write(byte[] payload, long enqueueNanos) {
+            buffer.putInt(writePosition, payload.length);
+            buffer.putLong(writePosition + Integer.BYTES, enqueueNanos);
+            buffer.put(writePosition + RECORD_HEADER_SIZE, payload);
+            writePosition += RECORD_HEADER_SIZE + payload.length;
+        }
+
+        SpilledRecord read() {
+            int length = buffer.getInt(readPosition);
+            long enqueueNanos = buffer.getLong(readPosition + Integer.BYTES);
+            byte[] payload = new byte[length];
+            buffer.get(readPosition + RECORD_HEADER_SIZE, payload);
+            readPosition += RECORD_HEADER_SIZE + length;
+            return new SpilledRecord(payload, enqueueNanos);
+        }
+
+        boolean isDrained() {
+            return readPosition == writePosition;
+        }
+
+        /**
+         * 关闭文件通道，文件以 DELETE_ON_CLOSE 方式打开，关闭时删除（部分平台打开后即删除目录项），映射内存在缓冲区被回收时释放
+         */
+        void release() {
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                log.warn("Failed to release spill segment: {}", file, ex);
+            }
+        }
+    }
+}
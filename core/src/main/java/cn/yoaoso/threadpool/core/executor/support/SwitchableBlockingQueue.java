@@ -0,0 +1,461 @@
+package cn.yoaoso.threadpool.core.executor.support;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A task queue that delegates to a backing {@link BlockingQueue} which can be
+ * replaced at runtime with {@link #switchTo(BlockingQueue)}, migrating the
+ * queued tasks to the new backing queue.
+ * <p>
+ * {@code ThreadPoolExecutor} keeps its work queue in a final field, so the
+ * executor is built on this queue once and only the backing queue changes.
+ * Switches are rare, so inserting and taking a task only read the volatile
+ * backing queue field; all the coordination is done by the switch and by the
+ * few operations that race with it:
+ * <ul>
+ * <li>A producer re-reads the backing queue after inserting. If it changed,
+ * the element may have been inserted after the switch drained the replaced
+ * queue, so the producer drains the replaced queue into the current one
+ * itself. This also covers elements the replaced queue does not hand back
+ * through {@code remove} (e.g. spilled to disk).</li>
+ * <li>A consumer only registers when the backing queue is empty and it is
+ * about to block. The switch interrupts the registered consumers, so no
+ * marker element has to be inserted into a queue that may require
+ * {@link Comparable} elements or an encodable task. The interrupted call
+ * throws {@link InterruptedException}; {@code ThreadPoolExecutor} workers
+ * treat that as a retry of {@code getTask()}, so they just move over to the
+ * new backing queue.</li>
+ * </ul>
+ * A registered consumer is only interrupted while it is still waiting: it
+ * leaves with a state transition that the switch has to win before it may
+ * interrupt, and a consumer that loses the race absorbs the interrupt before
+ * returning, so a task is never started with an interrupt from a switch.
+ * <p>
+ * Tasks already queued are appended to the new backing queue after the ones
+ * inserted concurrently with the switch, so FIFO order is only guaranteed
+ * outside of the switch window.
+ */
+public class SwitchableBlockingQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+    /**
+     * The consumer is not registered or has left its blocking call
+     */
+    private static final int RUNNING = 0;
+
+    /**
+     * The consumer is registered and may block on the backing queue
+     */
+    private static final int WAITING = 1;
+
+    /**
+     * A switch is interrupting the consumer
+     */
+    private static final int WAKING = 2;
+
+    /**
+     * A switch has interrupted the consumer
+     */
+    private static final int WOKEN = 3;
+
+    /**
+     * Registration of the calling consumer, allocated once per thread
+     */
+    private static final ThreadLocal<Waiter> WAITER = ThreadLocal.withInitial(Waiter::new);
+
+    /**
+     * Current backing queue
+     */
+    private volatile Generation current;
+
+    /**
+     * Receives the tasks that a producer migrates after a switch and that do
+     * not fit into the new backing queue
+     */
+    private volatile Consumer<Runnable> overflowHandler;
+
+    public SwitchableBlockingQueue(BlockingQueue<Runnable> delegate) {
+        this.current = new Generation(Objects.requireNonNull(delegate));
+    }
+
+    /**
+     * Returns the current backing queue.
+     */
+    public BlockingQueue<Runnable> getDelegate() {
+        return current.queue;
+    }
+
+    /**
+     * Sets the handler for the tasks that a producer racing a switch migrates
+     * to the new backing queue and that do not fit into it. Without a handler
+     * the producer blocks until they fit.
+     *
+     * @param overflowHandler the handler, e.g. passing the task to the rejection policy
+     */
+    public void setOverflowHandler(Consumer<Runnable> overflowHandler) {
+        this.overflowHandler = overflowHandler;
+    }
+
+    /**
+     * Replaces the backing queue and migrates the queued tasks to it.
+     *
+     * @param delegate the new backing queue
+     * @return the tasks that did not fit into the new backing queue, in queue order
+     */
+    public synchronized List<Runnable> switchTo(BlockingQueue<Runnable> delegate) {
+        Objects.requireNonNull(delegate);
+        Generation old = current;
+        if (old.queue == delegate) {
+            return Collections.emptyList();
+        }
+        current = new Generation(delegate);
+
+        // Consumers blocked on the old queue would never see new tasks. A consumer
+        // registering from now on sees the new backing queue and does not block
+        for (Waiter each : old.waiters) {
+            if (each.state.compareAndSet(WAITING, WAKING)) {
+                each.thread.interrupt();
+                each.state.set(WOKEN);
+            }
+        }
+
+        List<Runnable> drained = new ArrayList<>();
+        old.queue.drainTo(drained);
+        List<Runnable> rejected = new ArrayList<>();
+        for (Runnable each : drained) {
+            if (!migrate(delegate, each)) {
+                rejected.add(each);
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * Inserts a migrated task without the admission policy of the new backing
+     * queue (the timed offer bypasses {@link EagerTaskQueue#offer(Runnable)}).
+     */
+    private static boolean migrate(BlockingQueue<Runnable> queue, Runnable task) {
+        try {
+            return queue.offer(task, 0L, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return queue.offer(task);
+        }
+    }
+
+    /**
+     * Called by a producer after inserting into the given backing queue. If a
+     * switch replaced it meanwhile, the switch may have drained it before the
+     * insertion, so the producer drains it into the current backing queue.
+     * The check pairs with the write of {@link #current} in
+     * {@link #switchTo(BlockingQueue)}: either the producer sees the new
+     * backing queue, or its insertion precedes the drain of the switch.
+     */
+    private void afterInsert(Generation gen) {
+        while (gen != current) {
+            Generation target = current;
+            List<Runnable> drained = new ArrayList<>();
+            gen.queue.drainTo(drained);
+            for (Runnable each : drained) {
+                if (!migrate(target.queue, each)) {
+                    overflow(target.queue, each);
+                }
+            }
+            // The target may have been replaced while migrating, repeat on it
+            gen = target;
+        }
+    }
+
+    private void overflow(BlockingQueue<Runnable> queue, Runnable task) {
+        Consumer<Runnable> handler = overflowHandler;
+        if (handler != null) {
+            handler.accept(task);
+            return;
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(task);
+                break;
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean offer(Runnable e) {
+        return offer(e, BlockingQueue::offer);
+    }
+
+    /**
+     * Inserts the element with the given insertion operation on the current
+     * backing queue, e.g. {@link EagerTaskQueue#retryOffer(Runnable)}, and
+     * retries on the new backing queue if a switch happened meanwhile.
+     *
+     * @param e        the element to add
+     * @param inserter the insertion operation, returning whether the element was added
+     * @return {@code true} if the element was added to this queue
+     */
+    public boolean offer(Runnable e, BiPredicate<BlockingQueue<Runnable>, Runnable> inserter) {
+        Objects.requireNonNull(e);
+        for (; ; ) {
+            Generation gen = current;
+            if (inserter.test(gen.queue, e)) {
+                afterInsert(gen);
+                return true;
+            }
+            if (gen == current) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Inserts the elements of the given list in order until the backing
+     * queue is full, using {@link ResizableCapacityBlockingQueue#offerAll(List)}
+     * when the backing queue supports it.
+     *
+     * @param elements the elements to add
+     * @return the elements that were not added
+     */
+    public List<Runnable> offerAll(List<Runnable> elements) {
+        Generation gen = current;
+        int accepted = 0;
+        if (gen.queue instanceof ResizableCapacityBlockingQueue) {
+            accepted = ((ResizableCapacityBlockingQueue<Runnable>) gen.queue).offerAll(elements);
+        } else {
+            while (accepted < elements.size() && gen.queue.offer(elements.get(accepted))) {
+                accepted++;
+            }
+        }
+        if (accepted > 0) {
+            afterInsert(gen);
+        }
+        return new ArrayList<>(elements.subList(accepted, elements.size()));
+    }
+
+    @Override
+    public void put(Runnable e) throws InterruptedException {
+        Objects.requireNonNull(e);
+        // A put blocked on a full replaced queue resumes once the switch drains it
+        Generation gen = current;
+        gen.queue.put(e);
+        afterInsert(gen);
+    }
+
+    @Override
+    public boolean offer(Runnable e, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(e);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (; ; ) {
+            Generation gen = current;
+            if (gen.queue.offer(e, deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                afterInsert(gen);
+                return true;
+            }
+            if (gen == current || deadline - System.nanoTime() <= 0L) {
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        for (; ; ) {
+            Generation gen = current;
+            Runnable e = gen.queue.poll();
+            if (e != null) {
+                return e;
+            }
+            Waiter waiter = enterWaiting(gen);
+            if (waiter == null) {
+                continue;
+            }
+            try {
+                return gen.queue.take();
+            } finally {
+                leaveWaiting(gen, waiter);
+            }
+        }
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (; ; ) {
+            Generation gen = current;
+            Runnable e = gen.queue.poll();
+            if (e != null) {
+                return e;
+            }
+            Waiter waiter = enterWaiting(gen);
+            if (waiter == null) {
+                continue;
+            }
+            try {
+                return gen.queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } finally {
+                leaveWaiting(gen, waiter);
+            }
+        }
+    }
+
+    /**
+     * Registers the calling consumer before it blocks on the given backing
+     * queue. Pairs with the write of {@link #current} in
+     * {@link #switchTo(BlockingQueue)}: either the consumer sees the new
+     * backing queue, or the switch sees the registration.
+     *
+     * @return the registration, or {@code null} if the backing queue was replaced meanwhile
+     */
+    private Waiter enterWaiting(Generation gen) {
+        Waiter waiter = WAITER.get();
+        waiter.state.set(WAITING);
+        gen.waiters.add(waiter);
+        if (gen == current) {
+            return waiter;
+        }
+        leaveWaiting(gen, waiter);
+        return null;
+    }
+
+    private void leaveWaiting(Generation gen, Waiter waiter) {
+        gen.waiters.remove(waiter);
+        if (!waiter.state.compareAndSet(WAITING, RUNNING)) {
+            // A switch won the race, wait for its interrupt and clear it so that
+            // it cannot hit the task the caller is about to run
+            while (waiter.state.get() != WOKEN) {
+                Thread.onSpinWait();
+            }
+            Thread.interrupted();
+            waiter.state.set(RUNNING);
+        }
+    }
+
+    @Override
+    public Runnable poll() {
+        return current.queue.poll();
+    }
+
+    @Override
+    public Runnable peek() {
+        return current.queue.peek();
+    }
+
+    @Override
+    public int size() {
+        return current.queue.size();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return current.queue.remainingCapacity();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return current.queue.remove(o);
+    }
+
+    /**
+     * Removes the matching elements from the current backing queue, see
+     * {@link ResizableCapacityBlockingQueue#removeMatching(Predicate)}.
+     *
+     * @param filter a predicate which returns {@code true} for elements to be removed
+     * @return the removed elements
+     */
+    public List<Runnable> removeMatching(Predicate<? super Runnable> filter) {
+        BlockingQueue<Runnable> queue = current.queue;
+        if (queue instanceof ResizableCapacityBlockingQueue) {
+            return ((ResizableCapacityBlockingQueue<Runnable>) queue).removeMatching(filter);
+        }
+        List<Runnable> removed = new ArrayList<>();
+        for (Runnable each : queue) {
+            if (filter.test(each) && queue.remove(each)) {
+                removed.add(each);
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return current.queue.contains(o);
+    }
+
+    @Override
+    public void clear() {
+        current.queue.clear();
+    }
+
+    @Override
+    public Object[] toArray() {
+        return current.queue.toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return current.queue.toArray(a);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> c) {
+        return current.queue.drainTo(c);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> c, int maxElements) {
+        return current.queue.drainTo(c, maxElements);
+    }
+
+    @Override
+    public Iterator<Runnable> iterator() {
+        return current.queue.iterator();
+    }
+
+    @Override
+    public String toString() {
+        return current.queue.toString();
+    }
+
+    /**
+     * A backing queue together with the consumers blocked on it
+     */
+    private static final class Generation {
+
+        private final BlockingQueue<Runnable> queue;
+
+        private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+
+        private Generation(BlockingQueue<Runnable> queue) {
+            this.queue = queue;
+        }
+    }
+
+    /**
+     * Registration of a consumer thread
+     */
+    private static final class Waiter {
+
+        private final Thread thread = Thread.currentThread();
+
+        private final AtomicInteger state = new AtomicInteger(RUNNING);
+    }
+}
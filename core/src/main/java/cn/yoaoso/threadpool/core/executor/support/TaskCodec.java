@@ -0,0 +1,28 @@
+package cn.yoaoso.threadpool.core.executor.support;
+
+/**
+ * @author Drayd
+ * @description 任务编解码器，{@link SpillableBlockingQueue} 溢出到磁盘时用于序列化任务
+ * <p>
+ * 实现类需要提供无参构造方法，以便通过配置的类名创建；编解码在生产和消费线程中调用，实现需要线程安全
+ * @create 2026-10-18 16:40
+ */
+public interface TaskCodec {
+
+    /**
+     * 编码任务
+     *
+     * @param task 原始任务（已解除 {@link TimedRunnable} 包装）
+     * @return 任务字节，任务不支持编码时返回 null，该任务不会溢出到磁盘
+     */
+    byte[] encode(Runnable task);
+
+    /**
+     * 解码任务
+     *
+     * @param payload {@link #encode(Runnable)} 返回的任务字节
+     * @return 任务
+     * @throws IllegalStateException 任务字节无法解码
+     */
+    Runnable decode(byte[] payload);
+}
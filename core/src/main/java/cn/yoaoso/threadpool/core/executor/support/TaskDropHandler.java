@@ -0,0 +1,32 @@
+package cn.yoaoso.threadpool.core.executor.support;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * @author Drayd
+ * @description 丢弃任务处理器，队列主动丢弃已出队的任务（如 CoDel 排队超时）时回调，通知提交方任务不会执行
+ * <p>
+ * 丢弃发生在工作线程中，提交线程早已返回；通过 execute 提交的任务只能借助该回调通知调用方，如完成调用方持有的回调或记录业务补偿
+ * @create 2026-10-18 18:20
+ */
+@FunctionalInterface
+public interface TaskDropHandler {
+
+    /**
+     * 默认处理：取消通过 submit 提交的任务，调用方 get() 立即感知，其余任务不做处理
+     */
+    TaskDropHandler CANCEL_FUTURE = (task, executor) -> {
+        if (task instanceof Future) {
+            ((Future<?>) task).cancel(false);
+        }
+    };
+
+    /**
+     * 处理被丢弃的任务，在工作线程中执行，应当尽快返回
+     *
+     * @param task     被丢弃的原始任务
+     * @param executor 线程池
+     */
+    void dropped(Runnable task, ThreadPoolExecutor executor);
+}
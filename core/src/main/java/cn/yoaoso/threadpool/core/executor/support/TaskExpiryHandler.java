@@ -0,0 +1,25 @@
+package cn.yoaoso.threadpool.core.executor.support;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * @author Drayd
+ * @description 过期任务处理器，工作线程取出已过截止时间的任务时回调，替代执行任务
+ * @create 2026-10-18 15:24
+ */
+@FunctionalInterface
+public interface TaskExpiryHandler {
+
+    /**
+     * 默认处理：以异常结束任务，见 {@link DeadlineTask#completeExceptionally()}
+     */
+    TaskExpiryHandler COMPLETE_EXCEPTIONALLY = (task, executor) -> task.completeExceptionally();
+
+    /**
+     * 处理过期任务，在工作线程中执行，应当尽快返回
+     *
+     * @param task     过期的任务
+     * @param executor 线程池
+     */
+    void expired(DeadlineTask task, ThreadPoolExecutor executor);
+}
@@ -0,0 +1,94 @@
+package cn.yoaoso.threadpool.core.executor.support;
+
+import cn.yoaoso.threadpool.core.jfr.TaskExecutedEvent;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * @author Drayd
+ * @description 动态线程池任务包装，携带任务入队时间，用于跨线程计算排队耗时
+ * <p>
+ * 比较时委托给原始任务，原始任务实现了 {@link Comparable} 的线程池仍可使用 PriorityBlockingQueue；线程池队列中保存的是包装后的任务，遍历 getQueue() 时通过 {@link #unwrap(Runnable)} 获取原始任务
+ * @create 2026-10-18 10:26
+ */
+public class TimedRunnable implements Runnable, Comparable<Runnable> {
+
+    /**
+     * 原始任务
+     */
+    @Getter
+    private final Runnable task;
+
+    /**
+     * 入队时间，基于 {@link System#nanoTime()}
+     */
+    @Getter
+    private final long enqueueNanos;
+
+    /**
+     * 开始执行时间，由执行任务的工作线程在 beforeExecute 中写入，并在同一线程的 afterExecute 中读取
+     */
+    @Getter
+    @Setter
+    private long startNanos;
+
+    /**
+     * 是否跳过执行（如任务已过截止时间），与 startNanos 一样只由执行任务的工作线程读写
+     */
+    @Getter
+    @Setter
+    private boolean skipped;
+
+    /**
+     * 执行中的 JFR 事件，仅在事件开启时由执行任务的工作线程设置，在 afterExecute 中提交
+     */
+    @Getter
+    @Setter
+    private TaskExecutedEvent executedEvent;
+
+    public TimedRunnable(Runnable task) {
+        this(task, System.nanoTime());
+    }
+
+    /**
+     * 使用指定的入队时间包装任务，用于恢复从队列外部（如磁盘）重新读入的任务
+     *
+     * @param task         原始任务
+     * @param enqueueNanos 入队时间，基于 {@link System#nanoTime()}
+     */
+    public TimedRunnable(Runnable task, long enqueueNanos) {
+        this.task = task;
+        this.enqueueNanos = enqueueNanos;
+    }
+
+    @Override
+    public void run() {
+        if (!skipped) {
+            task.run();
+        }
+    }
+
+    /**
+     * 与另一个队列元素比较，拆开双方的包装后交给原始任务比较；原始任务不可比较时与未包装时一样抛出 {@link ClassCastException}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int compareTo(Runnable other) {
+        return ((Comparable<Object>) task).compareTo(unwrap(other));
+    }
+
+    /**
+     * 获取原始任务，非包装任务原样返回
+     *
+     * @param runnable 线程池中的任务
+     * @return 原始任务
+     */
+    public static Runnable unwrap(Runnable runnable) {
+        return (runnable instanceof TimedRunnable) ? ((TimedRunnable) runnable).task : runnable;
+    }
+
+    @Override
+    public String toString() {
+        return task.toString();
+    }
+}
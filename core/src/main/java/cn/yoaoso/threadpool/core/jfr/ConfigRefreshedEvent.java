@@ -0,0 +1,50 @@
+package cn.yoaoso.threadpool.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * @author Drayd
+ * @description JFR 配置刷新事件，持续时间为将远程配置应用到线程池的耗时，记录所有实际生效的刷新
+ * @create 2026-10-18 20:00
+ */
+@Name("cn.yoaoso.tidepool.ConfigRefreshed")
+@Label("Config Refreshed")
+@Category({"TidePool", "Pool"})
+@Description("Remote configuration applied to a dynamic thread pool")
+@StackTrace(false)
+@Threshold("0 ms")
+public class ConfigRefreshedEvent extends Event {
+
+    @Label("Thread Pool Id")
+    String threadPoolId;
+
+    @Label("Previous Configuration")
+    String previousConfig;
+
+    @Label("Configuration")
+    String config;
+
+    /**
+     * 事件开启时填充字段并提交，配置内容只在提交时才转换为字符串
+     *
+     * @param threadPoolId   线程池唯一标识
+     * @param previousConfig 刷新前的配置
+     * @param config         刷新后的配置
+     */
+    public void commit(String threadPoolId, Object previousConfig, Object config) {
+        // 先结束计时，shouldCommit 才会按持续时间判断阈值
+        end();
+        if (shouldCommit()) {
+            this.threadPoolId = threadPoolId;
+            this.previousConfig = String.valueOf(previousConfig);
+            this.config = String.valueOf(config);
+            commit();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package cn.yoaoso.threadpool.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @author Drayd
+ * @description JFR 线程池调整事件，瞬时事件，核心线程数或最大线程数实际发生变化时提交，配置中心刷新和自动扩缩容都会触发
+ * @create 2026-10-18 20:00
+ */
+@Name("cn.yoaoso.tidepool.PoolResized")
+@Label("Pool Resized")
+@Category({"TidePool", "Pool"})
+@Description("Core or maximum pool size of a dynamic thread pool changed")
+public class PoolResizedEvent extends Event {
+
+    @Label("Thread Pool Id")
+    String threadPoolId;
+
+    @Label("Previous Core Pool Size")
+    int previousCorePoolSize;
+
+    @Label("Core Pool Size")
+    int corePoolSize;
+
+    @Label("Previous Maximum Pool Size")
+    int previousMaximumPoolSize;
+
+    @Label("Maximum Pool Size")
+    int maximumPoolSize;
+
+    /**
+     * 事件开启时填充字段并提交
+     */
+    public void commit(String threadPoolId, int previousCorePoolSize, int corePoolSize,
+                       int previousMaximumPoolSize, int maximumPoolSize) {
+        if (shouldCommit()) {
+            this.threadPoolId = threadPoolId;
+            this.previousCorePoolSize = previousCorePoolSize;
+            this.corePoolSize = corePoolSize;
+            this.previousMaximumPoolSize = previousMaximumPoolSize;
+            this.maximumPoolSize = maximumPoolSize;
+            commit();
+        }
+    }
+}
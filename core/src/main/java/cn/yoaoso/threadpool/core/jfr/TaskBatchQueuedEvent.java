@@ -0,0 +1,45 @@
+package cn.yoaoso.threadpool.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * @author Drayd
+ * @description JFR 批量提交事件，executeAll 整批提交一个事件而不是每个任务一个 {@link TaskQueuedEvent}，持续时间为提交线程在 executeAll 中的耗时，默认只记录超过 1 ms 的慢提交
+ * @create 2026-10-18 21:10
+ */
+@Name("cn.yoaoso.tidepool.TaskBatchQueued")
+@Label("Task Batch Queued")
+@Category({"TidePool", "Task"})
+@Description("Batch of tasks submitted to a dynamic thread pool, duration is the time spent in executeAll")
+@StackTrace(false)
+@Threshold("1 ms")
+public class TaskBatchQueuedEvent extends Event {
+
+    @Label("Thread Pool Id")
+    String threadPoolId;
+
+    @Label("Task Count")
+    int taskCount;
+
+    /**
+     * 满足阈值时填充字段并提交，未开启 JFR 或耗时低于阈值时不做任何事
+     *
+     * @param threadPoolId 线程池唯一标识
+     * @param taskCount    本批任务数量
+     */
+    public void commit(String threadPoolId, int taskCount) {
+        // 先结束计时，shouldCommit 才会按持续时间判断阈值
+        end();
+        if (shouldCommit()) {
+            this.threadPoolId = threadPoolId;
+            this.taskCount = taskCount;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package cn.yoaoso.threadpool.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * @author Drayd
+ * @description JFR 任务执行事件，在工作线程中开始和提交，持续时间为执行耗时，默认只记录执行超过 10 ms 的任务
+ * <p>
+ * 事件的线程和时间戳与同一线程上的 GC、锁等待等 JDK 事件一致，可以在 JMC 中按线程对齐分析
+ * @create 2026-10-18 20:00
+ */
+@Name("cn.yoaoso.tidepool.TaskExecuted")
+@Label("Task Executed")
+@Category({"TidePool", "Task"})
+@Description("Task executed by a dynamic thread pool, duration is the run time")
+@StackTrace(false)
+@Threshold("10 ms")
+public class TaskExecutedEvent extends Event {
+
+    @Label("Thread Pool Id")
+    String threadPoolId;
+
+    @Label("Task Class")
+    Class<?> taskClass;
+
+    @Label("Queue Wait")
+    @Description("Time between submission and the start of execution")
+    @Timespan(Timespan.NANOSECONDS)
+    long queueWait;
+
+    @Label("Failed")
+    @Description("Whether the task completed abruptly with an exception")
+    boolean failed;
+
+    /**
+     * 满足阈值时填充字段并提交，未开启 JFR 或执行耗时低于阈值时不做任何事
+     *
+     * @param threadPoolId   线程池唯一标识
+     * @param taskClass      原始任务类型
+     * @param queueWaitNanos 排队耗时，单位纳秒
+     * @param failed         任务是否抛出异常
+     */
+    public void commit(String threadPoolId, Class<?> taskClass, long queueWaitNanos, boolean failed) {
+        // 先结束计时，shouldCommit 才会按持续时间判断阈值
+        end();
+        if (shouldCommit()) {
+            this.threadPoolId = threadPoolId;
+            this.taskClass = taskClass;
+            this.queueWait = queueWaitNanos;
+            this.failed = failed;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package cn.yoaoso.threadpool.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * @author Drayd
+ * @description JFR 任务提交事件，持续时间为提交线程在 execute 中的耗时，默认只记录超过 1 ms 的慢提交（如阻塞入队、拒绝策略重试）
+ * @create 2026-10-18 20:00
+ */
+@Name("cn.yoaoso.tidepool.TaskQueued")
+@Label("Task Queued")
+@Category({"TidePool", "Task"})
+@Description("Task submitted to a dynamic thread pool, duration is the time spent in execute")
+@StackTrace(false)
+@Threshold("1 ms")
+public class TaskQueuedEvent extends Event {
+
+    @Label("Thread Pool Id")
+    String threadPoolId;
+
+    @Label("Task Class")
+    Class<?> taskClass;
+
+    /**
+     * 满足阈值时填充字段并提交，未开启 JFR 或耗时低于阈值时不做任何事
+     *
+     * @param threadPoolId 线程池唯一标识
+     * @param taskClass    原始任务类型
+     */
+    public void commit(String threadPoolId, Class<?> taskClass) {
+        // 先结束计时，shouldCommit 才会按持续时间判断阈值
+        end();
+        if (shouldCommit()) {
+            this.threadPoolId = threadPoolId;
+            this.taskClass = taskClass;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package cn.yoaoso.threadpool.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @author Drayd
+ * @description JFR 任务拒绝事件，瞬时事件，在提交线程中提交并记录调用栈，用于定位被拒绝任务的提交方
+ * @create 2026-10-18 20:00
+ */
+@Name("cn.yoaoso.tidepool.TaskRejected")
+@Label("Task Rejected")
+@Category({"TidePool", "Task"})
+@Description("Task rejected by a dynamic thread pool")
+public class TaskRejectedEvent extends Event {
+
+    @Label("Thread Pool Id")
+    String threadPoolId;
+
+    @Label("Task Class")
+    Class<?> taskClass;
+
+    @Label("Rejected Policy")
+    String rejectedPolicy;
+
+    /**
+     * 事件开启时填充字段并提交
+     *
+     * @param threadPoolId   线程池唯一标识
+     * @param taskClass      原始任务类型
+     * @param rejectedPolicy 拒绝策略名称
+     */
+    public void commit(String threadPoolId, Class<?> taskClass, String rejectedPolicy) {
+        if (shouldCommit()) {
+            this.threadPoolId = threadPoolId;
+            this.taskClass = taskClass;
+            this.rejectedPolicy = rejectedPolicy;
+            commit();
+        }
+    }
+}
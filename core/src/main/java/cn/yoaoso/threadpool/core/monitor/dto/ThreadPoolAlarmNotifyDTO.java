@@ -41,7 +41,7 @@ public class ThreadPoolAlarmNotifyDTO {
     private String receives;
 
     /**
-     * 报警类型：Capacity、Activity、Reject
+     * 报警类型：Capacity、Activity、Reject、Spill、Cpu、Allocation
      */
     private String alarmType;
 
@@ -105,6 +105,51 @@ public class ThreadPoolAlarmNotifyDTO {
      */
     private Long rejectCount;
 
+    /**
+     * 溢出到磁盘的任务数量，仅 SpillableBlockingQueue 有值
+     */
+    private Integer spillDepth;
+
+    /**
+     * 累计写入磁盘的字节数，仅 SpillableBlockingQueue 有值
+     */
+    private Long spillWriteBytes;
+
+    /**
+     * 累计从磁盘读回的字节数，仅 SpillableBlockingQueue 有值
+     */
+    private Long spillReadBytes;
+
+    /**
+     * 线程池线程的 CPU 使用率，以单核为 100%，来自最近一次资源采集
+     */
+    private Integer cpuUsage;
+
+    /**
+     * 线程池线程的内存分配速率，单位字节每秒，来自最近一次资源采集
+     */
+    private Long allocationRate;
+
+    /**
+     * 窃取任务次数，仅 ForkJoinPool 有值
+     */
+    private Long stealCount;
+
+    /**
+     * 外部提交队列任务数，仅 ForkJoinPool 有值
+     */
+    private Integer queuedSubmissionCount;
+
+    /**
+     * 未阻塞的工作线程数，仅 ForkJoinPool 有值
+     */
+    private Integer runningThreadCount;
+
+    /**
+     * 告警前最近一段时间的运行趋势，未开启趋势采样时为空
+     */
+    private ThreadPoolTrendDTO trend;
+
     /**
      * 当前时间
      */
@@ -0,0 +1,58 @@
+package cn.yoaoso.threadpool.core.monitor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 线程池运行趋势，按时间顺序排列，下标相同的元素属于同一个时间点
+ * <p>
+ * 降采样后每个时间点代表一个步长：线程数和队列长度取步长内的最大值，完成和拒绝任务数为步长内的增量之和
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThreadPoolTrendDTO {
+
+    /**
+     * 线程池唯一标识
+     */
+    private String threadPoolId;
+
+    /**
+     * 降采样步长，单位毫秒，0 表示原始采样点
+     */
+    private long stepMillis;
+
+    /**
+     * 时间点，降采样时为步长的起始时间，单位毫秒
+     */
+    private long[] timestamps;
+
+    /**
+     * 活跃线程数
+     */
+    private int[] activeCounts;
+
+    /**
+     * 当前线程数
+     */
+    private int[] poolSizes;
+
+    /**
+     * 队列元素数量
+     */
+    private int[] queueSizes;
+
+    /**
+     * 完成任务数增量
+     */
+    private long[] completedDeltas;
+
+    /**
+     * 拒绝次数增量，原生线程池没有拒绝次数统计，恒为 0
+     */
+    private long[] rejectDeltas;
+}
@@ -0,0 +1,253 @@
+package cn.yoaoso.threadpool.core.monitor.metrics;
+
+import cn.yoaoso.threadpool.core.config.BootstrapConfigProperties;
+import cn.yoaoso.threadpool.core.executor.ThreadPoolExecutorHolder;
+import cn.yoaoso.threadpool.core.executor.ThreadPoolRegistry;
+import cn.yoaoso.threadpool.core.executor.ThreadPoolRuntimeStats;
+import cn.yoaoso.threadpool.core.toolkit.ThreadFactoryBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * @author Drayd
+ * @description 不依赖 Actuator 的 Prometheus 指标导出端点，使用 JDK 内置 HttpServer 监听单独的端口
+ * <p>
+ * 定时任务每个采集间隔采集一次所有线程池的运行时统计快照，在复用的缓冲区中渲染为 Prometheus 文本格式，再发布为不可变的字节数组
+ * 抓取请求只把最近一次渲染结果直接写入连接，不访问线程池、不获取线程池的锁，也不重新渲染，多个 Prometheus 副本高频抓取的开销可以忽略
+ * <p>
+ * 原生线程池没有拒绝、丢弃和超时统计，未开启资源采集时没有 CPU 时间和分配字节数，对应指标不输出；ForkJoinPool 不在导出范围内
+ * @create 2026-10-18 19:05
+ */
+@Slf4j
+public class PrometheusMetricsExporter {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final List<MetricFamily> METRIC_FAMILIES = List.of(
+            new MetricFamily("tidepool_pool_core_size", "gauge", "Core pool size", ThreadPoolRuntimeStats::getCorePoolSize),
+            new MetricFamily("tidepool_pool_max_size", "gauge", "Maximum pool size", ThreadPoolRuntimeStats::getMaximumPoolSize),
+            new MetricFamily("tidepool_pool_size", "gauge", "Current number of threads", ThreadPoolRuntimeStats::getPoolSize),
+            new MetricFamily("tidepool_pool_largest_size", "gauge", "Largest number of threads", ThreadPoolRuntimeStats::getLargestPoolSize),
+            new MetricFamily("tidepool_pool_active", "gauge", "Number of threads executing tasks", ThreadPoolRuntimeStats::getActiveCount),
+            new MetricFamily("tidepool_queue_size", "gauge", "Number of queued tasks", ThreadPoolRuntimeStats::getQueueSize),
+            new MetricFamily("tidepool_queue_capacity", "gauge", "Queue capacity", ThreadPoolRuntimeStats::getQueueCapacity),
+            new MetricFamily("tidepool_tasks_submitted_total", "counter", "Submitted tasks", ThreadPoolRuntimeStats::getSubmittedTaskCount),
+            new MetricFamily("tidepool_tasks_completed_total", "counter", "Completed tasks", ThreadPoolRuntimeStats::getCompletedTaskCount),
+            new MetricFamily("tidepool_tasks_rejected_total", "counter", "Rejected tasks", ThreadPoolRuntimeStats::getRejectCount),
+            new MetricFamily("tidepool_tasks_dropped_total", "counter", "Tasks dropped from the queue", ThreadPoolRuntimeStats::getDropCount),
+            new MetricFamily("tidepool_tasks_expired_total", "counter", "Tasks expired in the queue", ThreadPoolRuntimeStats::getExpiredCount),
+            new MetricFamily("tidepool_spill_depth", "gauge", "Tasks spilled to disk", ThreadPoolRuntimeStats::getSpillDepth),
+            new MetricFamily("tidepool_spill_write_bytes_total", "counter", "Bytes written to the spill segments", ThreadPoolRuntimeStats::getSpillWriteBytes),
+            new MetricFamily("tidepool_spill_read_bytes_total", "counter", "Bytes read from the spill segments", ThreadPoolRuntimeStats::getSpillReadBytes),
+            new MetricFamily("tidepool_rejected_blocking_accepted_total", "counter", "Rejected tasks enqueued after blocking the submitter", ThreadPoolRuntimeStats::getBlockingAcceptedCount),
+            new MetricFamily("tidepool_rejected_blocking_timeout_total", "counter", "Rejected tasks that timed out blocking the submitter", ThreadPoolRuntimeStats::getBlockingTimeoutCount),
+            new MetricFamily("tidepool_rejected_blocking_seconds_total", "counter", "Time submitters spent blocked in the rejection policy", ThreadPoolRuntimeStats::getBlockingNanos, 1_000_000_000L),
+            new MetricFamily("tidepool_rejected_retry_pending", "gauge", "Rejected tasks waiting for a retry", ThreadPoolRuntimeStats::getRetryPendingCount),
+            new MetricFamily("tidepool_rejected_retry_attempts_total", "counter", "Retries of rejected tasks", ThreadPoolRuntimeStats::getRetryCount),
+            new MetricFamily("tidepool_rejected_retry_recovered_total", "counter", "Rejected tasks submitted by a retry", ThreadPoolRuntimeStats::getRetryRecoveredCount),
+            new MetricFamily("tidepool_rejected_retry_exhausted_total", "counter", "Rejected tasks abandoned after the last retry", ThreadPoolRuntimeStats::getRetryExhaustedCount),
+            new MetricFamily("tidepool_rejected_handoff_total", "counter", "Rejected tasks handed off to the overflow pool", ThreadPoolRuntimeStats::getHandoffCount),
+            new MetricFamily("tidepool_rejected_handoff_failed_total", "counter", "Rejected tasks the overflow pool also rejected", ThreadPoolRuntimeStats::getHandoffFailCount),
+            new MetricFamily("tidepool_thread_cpu_seconds_total", "counter", "CPU time consumed by pool threads, including exited threads", ThreadPoolRuntimeStats::getCpuTimeNanos, 1_000_000_000L),
+            new MetricFamily("tidepool_thread_allocated_bytes_total", "counter", "Heap bytes allocated by pool threads, including exited threads", ThreadPoolRuntimeStats::getAllocatedBytes)
+    );
+
+    private final BootstrapConfigProperties.PrometheusConfig prometheusConfig;
+
+    /**
+     * 采集间隔，单位秒
+     */
+    private final long collectIntervalSeconds;
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+            1,
+            ThreadFactoryBuilder.builder()
+                    .namePrefix("scheduler_thread-pool_prometheus_exporter")
+                    .build()
+    );
+
+    /**
+     * 渲染用的缓冲区，只在采集线程中使用，每次渲染复用
+     */
+    private final StringBuilder renderBuffer = new StringBuilder(4096);
+
+    /**
+     * 最近一次渲染结果，发布后不再修改，抓取请求直接写出
+     */
+    private volatile byte[] payload = new byte[0];
+
+    private ExecutorService httpExecutor;
+
+    private HttpServer httpServer;
+
+    public PrometheusMetricsExporter(BootstrapConfigProperties.MonitorConfig monitorConfig) {
+        this.prometheusConfig = Objects.requireNonNullElseGet(monitorConfig.getPrometheus(), BootstrapConfigProperties.PrometheusConfig::new);
+        this.collectIntervalSeconds = Math.max(1L, Objects.requireNonNullElse(monitorConfig.getCollectInterval(), 10L));
+    }
+
+    /**
+     * 渲染首个快照并启动 HttpServer 和定时采集任务
+     */
+    public synchronized void start() throws IOException {
+        collect();
+
+        String host = Objects.requireNonNullElse(prometheusConfig.getHost(), "0.0.0.0");
+        int port = Objects.requireNonNullElse(prometheusConfig.getPort(), 9464);
+        String path = Objects.requireNonNullElse(prometheusConfig.getPath(), "/metrics");
+        httpExecutor = Executors.newSingleThreadExecutor(ThreadFactoryBuilder.builder()
+                .namePrefix("tidepool-prometheus-exporter-")
+                .daemon(true)
+                .build());
+        httpServer = HttpServer.create(new InetSocketAddress(host, port), 0);
+        httpServer.createContext(path, this::handle);
+        httpServer.setExecutor(httpExecutor);
+        httpServer.start();
+
+        scheduler.scheduleWithFixedDelay(this::collect, collectIntervalSeconds, collectIntervalSeconds, TimeUnit.SECONDS);
+        log.info("Prometheus metrics exporter started on {}:{}{}.", host, port, path);
+    }
+
+    /**
+     * 停止 HttpServer 和定时采集任务
+     */
+    public synchronized void stop() {
+        if (!scheduler.isShutdown()) {
+            scheduler.shutdown();
+        }
+        if (httpServer != null) {
+            httpServer.stop(0);
+            httpExecutor.shutdown();
+            httpServer = null;
+        }
+    }
+
+    /**
+     * 获取最近一次渲染的指标文本
+     */
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    /**
+     * 采集所有线程池的快照并渲染为 Prometheus 文本格式
+     */
+    void collect() {
+        try {
+            List<String> threadPoolIds = new ArrayList<>();
+            List<ThreadPoolRuntimeStats> snapshots = new ArrayList<>();
+            for (ThreadPoolExecutorHolder holder : ThreadPoolRegistry.getAllHolders()) {
+                threadPoolIds.add(escapeLabelValue(holder.getThreadPoolId()));
+                snapshots.add(ThreadPoolRuntimeStats.of(holder.getExecutor()).fillResourceUsage(holder.getThreadPoolId()));
+            }
+            payload = render(threadPoolIds, snapshots);
+        } catch (Exception ex) {
+            // 异常会终止后续调度，只记录日志，继续提供上一次的渲染结果
+            log.warn("Failed to collect thread pool metrics for prometheus.", ex);
+        }
+    }
+
+    private byte[] render(List<String> threadPoolIds, List<ThreadPoolRuntimeStats> snapshots) {
+        StringBuilder buffer = renderBuffer;
+        buffer.setLength(0);
+        for (MetricFamily family : METRIC_FAMILIES) {
+            boolean headerWritten = false;
+            for (int i = 0; i < snapshots.size(); i++) {
+                long value = family.getter.applyAsLong(snapshots.get(i));
+                // 负数表示该线程池不支持此项统计
+                if (value < 0L) {
+                    continue;
+                }
+                if (!headerWritten) {
+                    buffer.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+                    buffer.append("# TYPE ").append(family.name).append(' ').append(family.type).append('\n');
+                    headerWritten = true;
+                }
+                buffer.append(family.name).append("{threadPoolId=\"").append(threadPoolIds.get(i)).append("\"} ");
+                if (family.divisor == 1L) {
+                    buffer.append(value);
+                } else {
+                    buffer.append((double) value / family.divisor);
+                }
+                buffer.append('\n');
+            }
+        }
+        return buffer.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body = payload;
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if ("HEAD".equals(method)) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length == 0 ? -1 : body.length);
+            OutputStream out = exchange.getResponseBody();
+            out.write(body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * 转义标签值中的反斜杠、双引号和换行符
+     */
+    private static String escapeLabelValue(String value) {
+        if (value.indexOf('\\') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * 同名指标的元数据和取值方法
+     */
+    private static class MetricFamily {
+
+        private final String name;
+
+        private final String type;
+
+        private final String help;
+
+        private final ToLongFunction<ThreadPoolRuntimeStats> getter;
+
+        /**
+         * 取值与导出单位的换算倍数，如纳秒换算为秒为 10^9，为 1 时按整数输出
+         */
+        private final long divisor;
+
+        MetricFamily(String name, String type, String help, ToLongFunction<ThreadPoolRuntimeStats> getter) {
+            this(name, type, help, getter, 1L);
+        }
+
+        MetricFamily(String name, String type, String help, ToLongFunction<ThreadPoolRuntimeStats> getter, long divisor) {
+            this.name = name;
+            this.type = type;
+            this.help = help;
+            this.getter = getter;
+            this.divisor = divisor;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package cn.yoaoso.threadpool.core.monitor.metrics;
+
+import cn.yoaoso.threadpool.core.config.BootstrapConfigProperties;
+import cn.yoaoso.threadpool.core.executor.ThreadPoolExecutorHolder;
+import cn.yoaoso.threadpool.core.executor.ThreadPoolRegistry;
+import cn.yoaoso.threadpool.core.executor.ThreadPoolRuntimeStats;
+import cn.yoaoso.threadpool.core.toolkit.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * @author Drayd
+ * @description 基于 Micrometer 的线程池指标采集，为注册中心中的每个线程池注册以 threadPoolId 为标签的 Gauge 和 FunctionCounter
+ * <p>
+ * 定时任务每个采集间隔为所有线程池生成一次运行时统计快照，指标只读取缓存的快照，抓取指标时不会访问线程池，也不会获取线程池的锁
+ * 每次采集同时比对注册中心：新注册的线程池补充注册指标，已移除的线程池从 MeterRegistry 中删除指标
+ * <p>
+ * ForkJoinPool 没有完成任务数和拒绝次数等统计，不在采集范围内
+ * @create 2026-10-18 18:40
+ */
+@Slf4j
+public class ThreadPoolMetricsBinder implements MeterBinder {
+
+    private static final String METRIC_PREFIX = "tidepool.";
+
+    private static final String TAG_THREAD_POOL_ID = "threadPoolId";
+
+    /**
+     * 采集间隔，单位秒
+     */
+    private final long collectIntervalSeconds;
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+            1,
+            ThreadFactoryBuilder.builder()
+                    .namePrefix("scheduler_thread-pool_metrics_collector")
+                    .build()
+    );
+
+    /**
+     * 已绑定的 MeterRegistry，Spring Boot 对每个 MeterRegistry 调用一次 {@link #bindTo(MeterRegistry)}
+     */
+    private final List<MeterRegistry> registries = new CopyOnWriteArrayList<>();
+
+    /**
+     * 各线程池已注册的指标，包括所有已绑定 MeterRegistry 中的指标
+     */
+    private final Map<String, List<Meter>> meterMap = new HashMap<>();
+
+    /**
+     * 最近一次采集的快照，每次采集整体替换
+     */
+    private volatile Map<String, ThreadPoolRuntimeStats> snapshots = Collections.emptyMap();
+
+    public ThreadPoolMetricsBinder(BootstrapConfigProperties.MonitorConfig monitorConfig) {
+        Long collectInterval = monitorConfig != null ? monitorConfig.getCollectInterval() : null;
+        this.collectIntervalSeconds = Math.max(1L, Objects.requireNonNullElse(collectInterval, 10L));
+    }
+
+    /**
+     * 启动定时采集任务
+     */
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::collect, collectIntervalSeconds, collectIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 停止定时采集任务，并删除已注册的指标
+     */
+    public synchronized void stop() {
+        if (!scheduler.isShutdown()) {
+            scheduler.shutdown();
+        }
+        meterMap.values().forEach(this::removeMeters);
+        meterMap.clear();
+    }
+
+    @Override
+    public synchronized void bindTo(MeterRegistry registry) {
+        registries.add(registry);
+        if (meterMap.isEmpty()) {
+            // 首次绑定时立即采集，避免第一个采集间隔内没有指标
+            collect();
+            return;
+        }
+        meterMap.forEach((threadPoolId, meters) -> meters.addAll(registerMeters(registry, threadPoolId)));
+    }
+
+    /**
+     * 采集所有线程池的快照，并同步注册中心新增和移除的线程池指标
+     */
+    synchronized void collect() {
+        try {
+            Map<String, ThreadPoolRuntimeStats> current = new HashMap<>();
+            for (ThreadPoolExecutorHolder holder : ThreadPoolRegistry.getAllHolders()) {
+                current.put(holder.getThreadPoolId(), ThreadPoolRuntimeStats.of(holder.getExecutor()).fillResourceUsage(holder.getThreadPoolId()));
+            }
+            snapshots = current;
+
+            Iterator<Map.Entry<String, List<Meter>>> iterator = meterMap.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, List<Meter>> entry = iterator.next();
+                if (!current.containsKey(entry.getKey())) {
+                    removeMeters(entry.getValue());
+                    iterator.remove();
+                }
+            }
+            for (String threadPoolId : current.keySet()) {
+                if (!meterMap.containsKey(threadPoolId)) {
+                    List<Meter> meters = new ArrayList<>();
+                    registries.forEach(registry -> meters.addAll(registerMeters(registry, threadPoolId)));
+                    meterMap.put(threadPoolId, meters);
+                }
+            }
+        } catch (Exception ex) {
+            // 异常会终止后续调度，只记录日志
+            log.warn("Failed to collect thread pool metrics.", ex);
+        }
+    }
+
+    private List<Meter> registerMeters(MeterRegistry registry, String threadPoolId) {
+        Tags tags = Tags.of(TAG_THREAD_POOL_ID, threadPoolId);
+        List<Meter> meters = new ArrayList<>();
+        meters.add(gauge(registry, "pool.core.size", "核心线程数", tags, threadPoolId, ThreadPoolRuntimeStats::getCorePoolSize));
+        meters.add(gauge(registry, "pool.max.size", "最大线程数", tags, threadPoolId, ThreadPoolRuntimeStats::getMaximumPoolSize));
+        meters.add(gauge(registry, "pool.size", "当前线程数", tags, threadPoolId, ThreadPoolRuntimeStats::getPoolSize));
+        meters.add(gauge(registry, "pool.active", "活跃线程数", tags, threadPoolId, ThreadPoolRuntimeStats::getActiveCount));
+        meters.add(gauge(registry, "queue.size", "队列元素个数", tags, threadPoolId, ThreadPoolRuntimeStats::getQueueSize));
+        meters.add(gauge(registry, "queue.capacity", "队列容量", tags, threadPoolId, ThreadPoolRuntimeStats::getQueueCapacity));
+        meters.add(counter(registry, "tasks.completed", "已完成任务数", tags, threadPoolId, ThreadPoolRuntimeStats::getCompletedTaskCount));
+        // 原生线程池没有拒绝次数统计，快照中为 -1，计为 0
+        meters.add(counter(registry, "tasks.rejected", "拒绝次数", tags, threadPoolId, stats -> Math.max(0L, stats.getRejectCount())));
+        // 未使用对应拒绝策略时快照中为 -1，计为 0
+        meters.add(counter(registry, "rejected.blocking.accepted", "阻塞等待后成功入队的任务数", tags, threadPoolId, stats -> Math.max(0L, stats.getBlockingAcceptedCount())));
+        meters.add(counter(registry, "rejected.blocking.timeout", "阻塞等待超时的任务数", tags, threadPoolId, stats -> Math.max(0L, stats.getBlockingTimeoutCount())));
+        meters.add(counter(registry, "rejected.blocking.time", "提交线程累计阻塞时间，单位秒", tags, threadPoolId, stats -> Math.max(0L, stats.getBlockingNanos()) / 1_000_000_000D));
+        meters.add(gauge(registry, "rejected.retry.pending", "等待重试的任务数", tags, threadPoolId, stats -> Math.max(0, stats.getRetryPendingCount())));
+        meters.add(counter(registry, "rejected.retry.attempts", "退避重试次数", tags, threadPoolId, stats -> Math.max(0L, stats.getRetryCount())));
+        meters.add(counter(registry, "rejected.retry.recovered", "重试后成功提交的任务数", tags, threadPoolId, stats -> Math.max(0L, stats.getRetryRecoveredCount())));
+        meters.add(counter(registry, "rejected.retry.exhausted", "重试耗尽被放弃的任务数", tags, threadPoolId, stats -> Math.max(0L, stats.getRetryExhaustedCount())));
+        meters.add(counter(registry, "rejected.handoff", "转交到溢出线程池的任务数", tags, threadPoolId, stats -> Math.max(0L, stats.getHandoffCount())));
+        meters.add(counter(registry, "rejected.handoff.failed", "转交失败的任务数", tags, threadPoolId, stats -> Math.max(0L, stats.getHandoffFailCount())));
+        // 资源采集未开启或尚未采集时快照中为 -1，计为 0
+        meters.add(counter(registry, "thread.cpu.time", "线程累计 CPU 时间，单位秒", tags, threadPoolId, stats -> Math.max(0L, stats.getCpuTimeNanos()) / 1_000_000_000D));
+        meters.add(counter(registry, "thread.allocated.bytes", "线程累计分配字节数", tags, threadPoolId, stats -> Math.max(0L, stats.getAllocatedBytes())));
+        return meters;
+    }
+
+    private Gauge gauge(MeterRegistry registry, String name, String description, Tags tags,
+                        String threadPoolId, ToDoubleFunction<ThreadPoolRuntimeStats> getter) {
+        return Gauge.builder(METRIC_PREFIX + name, this, binder -> binder.value(threadPoolId, getter))
+                .description(description)
+                .tags(tags)
+                .strongReference(true)
+                .register(registry);
+    }
+
+    private FunctionCounter counter(MeterRegistry registry, String name, String description, Tags tags,
+                                    String threadPoolId, ToDoubleFunction<ThreadPoolRuntimeStats> getter) {
+        return FunctionCounter.builder(METRIC_PREFIX + name, this, binder -> binder.value(threadPoolId, getter))
+                .description(description)
+                .tags(tags)
+                .register(registry);
+    }
+
+    /**
+     * 从缓存的快照中读取指标值，线程池已移除时返回 NaN
+     */
+    private double value(String threadPoolId, ToDoubleFunction<ThreadPoolRuntimeStats> getter) {
+        ThreadPoolRuntimeStats stats = snapshots.get(threadPoolId);
+        return stats != null ? getter.applyAsDouble(stats) : Double.NaN;
+    }
+
+    private void removeMeters(List<Meter> meters) {
+        // 指标 ID 在各 MeterRegistry 中可能经过不同的过滤器映射，逐个注册中心删除
+        for (MeterRegistry registry : registries) {
+            meters.forEach(registry::remove);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package cn.yoaoso.threadpool.core.monitor.resource;
+
+import cn.yoaoso.threadpool.core.config.BootstrapConfigProperties;
+import cn.yoaoso.threadpool.core.executor.ThreadPoolRegistry;
+import cn.yoaoso.threadpool.core.toolkit.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Drayd
+ * @description 线程池 CPU 时间和内存分配采集，周期性按线程池汇总已登记线程的 CPU 时间和分配字节数，定位 CPU 飙高或 GC 频繁的线程池
+ * <p>
+ * 线程池的累计值 = 已退出线程结算的累计值 + 存活线程的当前值，存活线程通过 ThreadMXBean 批量查询；相邻两次采集之差除以间隔得到 CPU 使用率和分配速率
+ * 采集与线程退出并发时可能少算一个周期，累计值按单调递增修正，不会出现负的使用率
+ * 结果发布到 {@link ThreadResourceAccounting}，供指标导出和告警读取；ForkJoinPool 的工作线程不在统计范围内
+ * @create 2026-10-18 20:40
+ */
+@Slf4j
+public class ThreadPoolResourceCollector {
+
+    private final boolean enable;
+
+    /**
+     * 采集间隔，单位秒
+     */
+    private final long intervalSeconds;
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+            1,
+            ThreadFactoryBuilder.builder()
+                    .namePrefix("scheduler_thread-pool_resource_collector")
+                    .build()
+    );
+
+    /**
+     * 各线程池上一次采集的累计值 {CPU 时间, 分配字节数}
+     */
+    private Map<String, long[]> lastTotals = new HashMap<>();
+
+    private long lastCollectNanos;
+
+    public ThreadPoolResourceCollector(BootstrapConfigProperties.ResourceConfig resourceConfig) {
+        BootstrapConfigProperties.ResourceConfig config = Objects.requireNonNullElseGet(resourceConfig, BootstrapConfigProperties.ResourceConfig::new);
+        this.enable = !Boolean.FALSE.equals(config.getEnable());
+        this.intervalSeconds = Math.max(1L, Objects.requireNonNullElse(config.getInterval(), 5L));
+    }
+
+    /**
+     * 启动定时采集任务，未开启资源采集时不做任何事
+     */
+    public void start() {
+        if (!enable) {
+            return;
+        }
+        ThreadMXBean threadMXBean = ThreadResourceAccounting.threadMXBean();
+        if (threadMXBean.isThreadCpuTimeSupported() && !threadMXBean.isThreadCpuTimeEnabled()) {
+            threadMXBean.setThreadCpuTimeEnabled(true);
+        }
+        scheduler.scheduleWithFixedDelay(this::collect, 0, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 停止定时采集任务
+     */
+    public void stop() {
+        if (!scheduler.isShutdown()) {
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * 采集一次所有线程池的资源占用并发布
+     */
+    synchronized void collect() {
+        try {
+            long nowNanos = System.nanoTime();
+            // 先读取已退出线程的累计值，再读取存活线程，避免退出中的线程被重复计算
+            Map<String, long[]> totals = ThreadResourceAccounting.retiredTotals();
+
+            Map<Long, String> liveThreads = new HashMap<>(ThreadResourceAccounting.liveThreads());
+            long[] threadIds = new long[liveThreads.size()];
+            String[] threadPoolIds = new String[liveThreads.size()];
+            int index = 0;
+            for (Map.Entry<Long, String> entry : liveThreads.entrySet()) {
+                threadIds[index] = entry.getKey();
+                threadPoolIds[index] = entry.getValue();
+                index++;
+            }
+            long[] cpuTimes = cpuTimes(threadIds);
+            long[] allocatedBytes = allocatedBytes(threadIds);
+
+            Map<String, Integer> liveThreadCounts = new HashMap<>();
+            for (int i = 0; i < threadIds.length; i++) {
+                long[] total = totals.computeIfAbsent(threadPoolIds[i], key -> new long[2]);
+                // 已退出的线程返回 -1，其资源已在退出时结算
+                if (cpuTimes[i] > 0L) {
+                    total[0] += cpuTimes[i];
+                }
+                if (allocatedBytes[i] > 0L) {
+                    total[1] += allocatedBytes[i];
+                }
+                liveThreadCounts.merge(threadPoolIds[i], 1, Integer::sum);
+            }
+
+            long elapsedNanos = lastCollectNanos == 0L ? 0L : nowNanos - lastCollectNanos;
+            Map<String, ThreadPoolResourceUsage> usages = new HashMap<>();
+            Map<String, long[]> currentTotals = new HashMap<>();
+            for (Map.Entry<String, long[]> entry : totals.entrySet()) {
+                String threadPoolId = entry.getKey();
+                int liveThreadCount = liveThreadCounts.getOrDefault(threadPoolId, 0);
+                if (liveThreadCount == 0 && ThreadPoolRegistry.getHolder(threadPoolId) == null) {
+                    // 线程池已注销且线程全部退出，不再统计
+                    ThreadResourceAccounting.removeRetired(threadPoolId);
+                    continue;
+                }
+
+                long[] last = lastTotals.get(threadPoolId);
+                long cpuTimeNanos = last != null ? Math.max(last[0], entry.getValue()[0]) : entry.getValue()[0];
+                long allocated = last != null ? Math.max(last[1], entry.getValue()[1]) : entry.getValue()[1];
+                double cpuUsage = 0D;
+                long allocationRate = 0L;
+                if (last != null && elapsedNanos > 0L) {
+                    cpuUsage = (cpuTimeNanos - last[0]) * 100D / elapsedNanos;
+                    allocationRate = (long) ((allocated - last[1]) * 1_000_000_000D / elapsedNanos);
+                }
+                usages.put(threadPoolId, new ThreadPoolResourceUsage(cpuTimeNanos, allocated, cpuUsage, allocationRate, liveThreadCount));
+                currentTotals.put(threadPoolId, new long[]{cpuTimeNanos, allocated});
+            }
+
+            lastTotals = currentTotals;
+            lastCollectNanos = nowNanos;
+            ThreadResourceAccounting.publish(Collections.unmodifiableMap(usages));
+        } catch (Exception ex) {
+            // 异常会终止后续调度，只记录日志
+            log.warn("Failed to collect thread pool resource usage.", ex);
+        }
+    }
+
+    private static long[] cpuTimes(long[] threadIds) {
+        ThreadMXBean threadMXBean = ThreadResourceAccounting.threadMXBean();
+        if (!threadMXBean.isThreadCpuTimeSupported() || !threadMXBean.isThreadCpuTimeEnabled()) {
+            return filled(threadIds.length);
+        }
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            // 批量查询，一次调用获取所有线程
+            return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadCpuTime(threadIds);
+        }
+        long[] cpuTimes = new long[threadIds.length];
+        for (int i = 0; i < threadIds.length; i++) {
+            cpuTimes[i] = threadMXBean.getThreadCpuTime(threadIds[i]);
+        }
+        return cpuTimes;
+    }
+
+    private static long[] allocatedBytes(long[] threadIds) {
+        ThreadMXBean threadMXBean = ThreadResourceAccounting.threadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+            if (sunThreadMXBean.isThreadAllocatedMemorySupported() && sunThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+                return sunThreadMXBean.getThreadAllocatedBytes(threadIds);
+            }
+        }
+        return filled(threadIds.length);
+    }
+
+    private static long[] filled(int length) {
+        long[] values = new long[length];
+        Arrays.fill(values, -1L);
+        return values;
+    }
+}
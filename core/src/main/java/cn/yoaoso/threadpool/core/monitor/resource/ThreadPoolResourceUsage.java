@@ -0,0 +1,41 @@
+package cn.yoaoso.threadpool.core.monitor.resource;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * @author Drayd
+ * @description 线程池资源占用，由 {@link ThreadPoolResourceCollector} 周期性计算后整体替换，发布后不再修改
+ * @create 2026-10-18 20:40
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ThreadPoolResourceUsage {
+
+    /**
+     * 线程池所有线程（包括已退出的线程）累计占用的 CPU 时间，单位纳秒
+     */
+    private final long cpuTimeNanos;
+
+    /**
+     * 线程池所有线程（包括已退出的线程）累计分配的堆内存，单位字节
+     */
+    private final long allocatedBytes;
+
+    /**
+     * 最近一个采集周期的 CPU 使用率，以单核为 100%
+     */
+    private final double cpuUsage;
+
+    /**
+     * 最近一个采集周期的内存分配速率，单位字节每秒
+     */
+    private final long allocationRate;
+
+    /**
+     * 当前存活的线程数
+     */
+    private final int liveThreadCount;
+}
@@ -0,0 +1,149 @@
+package cn.yoaoso.threadpool.core.monitor.resource;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Drayd
+ * @description 线程池线程的资源归属登记，线程启动时登记所属线程池，退出前把自身累计的 CPU 时间和分配字节数归入线程池
+ * <p>
+ * 线程只能由自身在退出前读取最终的 CPU 时间和分配字节数，线程结束后 ThreadMXBean 无法再查询，因此由包装后的线程任务在 finally 中结算
+ * 同一线程被多层包装时（如 ThreadFactoryBuilder 创建、又由 TidePoolExecutor 包装）只有最外层登记生效
+ * 虚拟线程不支持线程 CPU 时间统计，虚拟线程池不登记线程归属（见 {@code TidePoolExecutor#isThreadResourceTracked()}），其资源占用不计入线程池
+ * @create 2026-10-18 20:40
+ */
+public final class ThreadResourceAccounting {
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    /**
+     * 存活的已登记线程，线程 ID 到线程池 ID
+     */
+    private static final Map<Long, String> LIVE_THREAD_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * 已退出线程的累计资源，按线程池 ID 汇总
+     */
+    private static final Map<String, Retired> RETIRED_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * 最近一次采集的资源占用，按线程池 ID 索引
+     */
+    private static volatile Map<String, ThreadPoolResourceUsage> usageMap = Map.of();
+
+    private ThreadResourceAccounting() {
+    }
+
+    /**
+     * 包装线程任务，线程运行期间归属指定线程池
+     *
+     * @param threadPoolId 线程池唯一标识
+     * @param runnable     线程任务
+     * @return 包装后的线程任务
+     */
+    public static Runnable track(String threadPoolId, Runnable runnable) {
+        if (threadPoolId == null) {
+            return runnable;
+        }
+        return () -> {
+            Thread current = Thread.currentThread();
+            if (LIVE_THREAD_MAP.putIfAbsent(current.getId(), threadPoolId) != null) {
+                runnable.run();
+                return;
+            }
+            try {
+                runnable.run();
+            } finally {
+                retire(current, threadPoolId);
+            }
+        };
+    }
+
+    /**
+     * 结算退出中的线程，先移出存活线程再累加，采集线程最多漏算一个周期而不会重复计算
+     */
+    private static void retire(Thread current, String threadPoolId) {
+        LIVE_THREAD_MAP.remove(current.getId());
+        long cpuTimeNanos = THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : -1L;
+        long allocatedBytes = allocatedBytes(current.getId());
+        Retired retired = RETIRED_MAP.computeIfAbsent(threadPoolId, key -> new Retired());
+        if (cpuTimeNanos > 0L) {
+            retired.cpuTimeNanos.add(cpuTimeNanos);
+        }
+        if (allocatedBytes > 0L) {
+            retired.allocatedBytes.add(allocatedBytes);
+        }
+    }
+
+    private static long allocatedBytes(long threadId) {
+        if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+            if (threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled()) {
+                return threadMXBean.getThreadAllocatedBytes(threadId);
+            }
+        }
+        return -1L;
+    }
+
+    /**
+     * 获取线程池最近一次采集的资源占用
+     *
+     * @param threadPoolId 线程池唯一标识
+     * @return 资源占用，尚未采集或线程池没有登记过线程时返回 null
+     */
+    public static ThreadPoolResourceUsage getUsage(String threadPoolId) {
+        return usageMap.get(threadPoolId);
+    }
+
+    /**
+     * 获取所有线程池最近一次采集的资源占用
+     */
+    public static Map<String, ThreadPoolResourceUsage> getAllUsages() {
+        return usageMap;
+    }
+
+    static ThreadMXBean threadMXBean() {
+        return THREAD_MX_BEAN;
+    }
+
+    static Map<Long, String> liveThreads() {
+        return LIVE_THREAD_MAP;
+    }
+
+    /**
+     * 获取已退出线程的累计 CPU 时间和分配字节数
+     *
+     * @return 按线程池 ID 汇总的 {CPU 时间, 分配字节数}
+     */
+    static Map<String, long[]> retiredTotals() {
+        Map<String, long[]> totals = new HashMap<>();
+        RETIRED_MAP.forEach((threadPoolId, retired) ->
+                totals.put(threadPoolId, new long[]{retired.cpuTimeNanos.sum(), retired.allocatedBytes.sum()}));
+        return totals;
+    }
+
+    /**
+     * 删除线程池已退出线程的累计资源，线程池注销且没有存活线程时调用
+     */
+    static void removeRetired(String threadPoolId) {
+        RETIRED_MAP.remove(threadPoolId);
+    }
+
+    static void publish(Map<String, ThreadPoolResourceUsage> usages) {
+        usageMap = usages;
+    }
+
+    /**
+     * 已退出线程的累计资源
+     */
+    private static class Retired {
+
+        private final LongAdder cpuTimeNanos = new LongAdder();
+
+        private final LongAdder allocatedBytes = new LongAdder();
+    }
+}
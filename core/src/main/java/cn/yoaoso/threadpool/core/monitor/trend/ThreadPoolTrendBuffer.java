@@ -0,0 +1,177 @@
+package cn.yoaoso.threadpool.core.monitor.trend;
+
+import cn.yoaoso.threadpool.core.executor.ThreadPoolRuntimeStats;
+import cn.yoaoso.threadpool.core.monitor.dto.ThreadPoolTrendDTO;
+
+/**
+ * @author Drayd
+ * @description 单个线程池的运行趋势环形缓冲区，每个指标一个定长基本类型数组，写满后覆盖最早的采样点
+ * <p>
+ * 数组在构造时一次性分配，写入采样点不创建任何对象；完成和拒绝任务数记录相邻两次采样的增量而不是累计值
+ * 写入由采样线程每秒一次，查询只在告警或排查时发生，直接用对象锁保护
+ * @create 2026-10-18 19:30
+ */
+public class ThreadPoolTrendBuffer {
+
+    private final String threadPoolId;
+
+    private final int capacity;
+
+    private final long[] timestamps;
+
+    private final int[] activeCounts;
+
+    private final int[] poolSizes;
+
+    private final int[] queueSizes;
+
+    private final long[] completedDeltas;
+
+    private final long[] rejectDeltas;
+
+    /**
+     * 下一个写入位置
+     */
+    private int next;
+
+    /**
+     * 有效采样点数
+     */
+    private int size;
+
+    /**
+     * 上一次采样的累计完成任务数，-1 表示尚未采样
+     */
+    private long lastCompleted = -1L;
+
+    /**
+     * 上一次采样的累计拒绝次数，-1 表示尚未采样
+     */
+    private long lastRejected = -1L;
+
+    public ThreadPoolTrendBuffer(String threadPoolId, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Trend buffer capacity must be positive: " + capacity);
+        }
+        this.threadPoolId = threadPoolId;
+        this.capacity = capacity;
+        this.timestamps = new long[capacity];
+        this.activeCounts = new int[capacity];
+        this.poolSizes = new int[capacity];
+        this.queueSizes = new int[capacity];
+        this.completedDeltas = new long[capacity];
+        this.rejectDeltas = new long[capacity];
+    }
+
+    /**
+     * 写入一个采样点
+     *
+     * @param timeMillis 采样时间，单位毫秒
+     * @param stats      采样时的运行时统计快照，只读取其中的数值，调用方可以复用
+     */
+    public synchronized void record(long timeMillis, ThreadPoolRuntimeStats stats) {
+        long completed = stats.getCompletedTaskCount();
+        long rejected = Math.max(0L, stats.getRejectCount());
+
+        int index = next;
+        timestamps[index] = timeMillis;
+        activeCounts[index] = stats.getActiveCount();
+        poolSizes[index] = stats.getPoolSize();
+        queueSizes[index] = stats.getQueueSize();
+        completedDeltas[index] = delta(lastCompleted, completed);
+        rejectDeltas[index] = delta(lastRejected, rejected);
+        lastCompleted = completed;
+        lastRejected = rejected;
+
+        next = index + 1 == capacity ? 0 : index + 1;
+        if (size < capacity) {
+            size++;
+        }
+    }
+
+    /**
+     * 计数器增量，首次采样记为 0；累计值变小说明线程池被同名线程池替换，按从 0 开始计算
+     */
+    private static long delta(long last, long current) {
+        if (last < 0L) {
+            return 0L;
+        }
+        return current >= last ? current - last : current;
+    }
+
+    /**
+     * 查询时间范围内的趋势
+     *
+     * @param fromMillis 起始时间（包含），单位毫秒
+     * @param toMillis   结束时间（包含），单位毫秒
+     * @param stepMillis 降采样步长，单位毫秒，小于等于 0 时返回原始采样点
+     * @return 按时间顺序排列的趋势，范围内没有采样点时各数组为空
+     */
+    public synchronized ThreadPoolTrendDTO query(long fromMillis, long toMillis, long stepMillis) {
+        long step = Math.max(0L, stepMillis);
+        int oldest = next - size < 0 ? next - size + capacity : next - size;
+
+        // 第一遍统计时间点个数，按时间顺序遍历，步长起始时间变化即为新的时间点
+        int points = 0;
+        long currentBucket = Long.MIN_VALUE;
+        for (int i = 0, index = oldest; i < size; i++, index = index + 1 == capacity ? 0 : index + 1) {
+            long timestamp = timestamps[index];
+            if (timestamp < fromMillis || timestamp > toMillis) {
+                continue;
+            }
+            long bucket = bucketOf(timestamp, fromMillis, step);
+            if (points == 0 || bucket != currentBucket) {
+                points++;
+                currentBucket = bucket;
+            }
+        }
+
+        ThreadPoolTrendDTO trend = ThreadPoolTrendDTO.builder()
+                .threadPoolId(threadPoolId)
+                .stepMillis(step)
+                .timestamps(new long[points])
+                .activeCounts(new int[points])
+                .poolSizes(new int[points])
+                .queueSizes(new int[points])
+                .completedDeltas(new long[points])
+                .rejectDeltas(new long[points])
+                .build();
+
+        int point = -1;
+        for (int i = 0, index = oldest; i < size && points > 0; i++, index = index + 1 == capacity ? 0 : index + 1) {
+            long timestamp = timestamps[index];
+            if (timestamp < fromMillis || timestamp > toMillis) {
+                continue;
+            }
+            long bucket = bucketOf(timestamp, fromMillis, step);
+            if (point < 0 || bucket != trend.getTimestamps()[point]) {
+                point++;
+                trend.getTimestamps()[point] = bucket;
+            }
+            trend.getActiveCounts()[point] = Math.max(trend.getActiveCounts()[point], activeCounts[index]);
+            trend.getPoolSizes()[point] = Math.max(trend.getPoolSizes()[point], poolSizes[index]);
+            trend.getQueueSizes()[point] = Math.max(trend.getQueueSizes()[point], queueSizes[index]);
+            trend.getCompletedDeltas()[point] += completedDeltas[index];
+            trend.getRejectDeltas()[point] += rejectDeltas[index];
+        }
+        return trend;
+    }
+
+    private static long bucketOf(long timestamp, long fromMillis, long step) {
+        return step == 0L ? timestamp : fromMillis + (timestamp - fromMillis) / step * step;
+    }
+
+    /**
+     * 获取有效采样点数
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 获取最多保留的采样点数
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,170 @@
+package cn.yoaoso.threadpool.core.monitor.trend;
+
+import cn.yoaoso.threadpool.core.config.BootstrapConfigProperties;
+import cn.yoaoso.threadpool.core.executor.ThreadPoolExecutorHolder;
+import cn.yoaoso.threadpool.core.executor.ThreadPoolRegistry;
+import cn.yoaoso.threadpool.core.executor.ThreadPoolRuntimeStats;
+import cn.yoaoso.threadpool.core.monitor.dto.ThreadPoolTrendDTO;
+import cn.yoaoso.threadpool.core.toolkit.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Drayd
+ * @description 线程池运行趋势采样，按采样间隔为注册中心中的每个线程池写入一个采样点，保存在各自的环形缓冲区中
+ * <p>
+ * 每个线程池复用同一个快照对象，预热后采样不再为线程池创建对象；线程池从注册中心移除后，其趋势一并删除
+ * 告警消息通过 {@link #alarmTrend(String)} 附带最近一段时间的降采样趋势
+ * @create 2026-10-18 19:30
+ */
+@Slf4j
+public class ThreadPoolTrendRecorder {
+
+    private final boolean enable;
+
+    /**
+     * 采样间隔，单位秒
+     */
+    private final long sampleIntervalSeconds;
+
+    /**
+     * 每个线程池保留的采样点数
+     */
+    private final int retention;
+
+    /**
+     * 告警消息附带的趋势时长，单位毫秒
+     */
+    private final long alarmWindowMillis;
+
+    /**
+     * 告警消息附带的趋势降采样步长，单位毫秒
+     */
+    private final long alarmStepMillis;
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+            1,
+            ThreadFactoryBuilder.builder()
+                    .namePrefix("scheduler_thread-pool_trend_recorder")
+                    .build()
+    );
+
+    private final Map<String, PoolTrend> trendMap = new ConcurrentHashMap<>();
+
+    public ThreadPoolTrendRecorder(BootstrapConfigProperties.TrendConfig trendConfig) {
+        BootstrapConfigProperties.TrendConfig config = Objects.requireNonNullElseGet(trendConfig, BootstrapConfigProperties.TrendConfig::new);
+        this.enable = !Boolean.FALSE.equals(config.getEnable());
+        this.sampleIntervalSeconds = Math.max(1L, Objects.requireNonNullElse(config.getSampleInterval(), 1L));
+        this.retention = Math.max(1, Objects.requireNonNullElse(config.getRetention(), 3600));
+        this.alarmWindowMillis = TimeUnit.MINUTES.toMillis(Objects.requireNonNullElse(config.getAlarmMinutes(), 5));
+        this.alarmStepMillis = TimeUnit.SECONDS.toMillis(Objects.requireNonNullElse(config.getAlarmStep(), 10));
+    }
+
+    /**
+     * 启动定时采样任务，未开启趋势采样时不做任何事
+     */
+    public void start() {
+        if (enable) {
+            scheduler.scheduleAtFixedRate(this::sample, 0, sampleIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 停止定时采样任务
+     */
+    public void stop() {
+        if (!scheduler.isShutdown()) {
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * 为所有线程池写入一个采样点
+     */
+    void sample() {
+        try {
+            long now = System.currentTimeMillis();
+            for (ThreadPoolExecutorHolder holder : ThreadPoolRegistry.getAllHolders()) {
+                String threadPoolId = holder.getThreadPoolId();
+                PoolTrend trend = trendMap.get(threadPoolId);
+                if (trend == null) {
+                    trend = new PoolTrend(new ThreadPoolTrendBuffer(threadPoolId, retention));
+                    trendMap.put(threadPoolId, trend);
+                }
+                trend.buffer.record(now, ThreadPoolRuntimeStats.of(holder.getExecutor(), trend.stats));
+            }
+            trendMap.keySet().removeIf(threadPoolId -> ThreadPoolRegistry.getHolder(threadPoolId) == null);
+        } catch (Exception ex) {
+            // 异常会终止后续调度，只记录日志
+            log.warn("Failed to sample thread pool trend.", ex);
+        }
+    }
+
+    /**
+     * 获取线程池的趋势缓冲区
+     *
+     * @param threadPoolId 线程池唯一标识
+     * @return 趋势缓冲区，未开启采样或线程池不存在时返回 null
+     */
+    public ThreadPoolTrendBuffer getBuffer(String threadPoolId) {
+        PoolTrend trend = trendMap.get(threadPoolId);
+        return trend != null ? trend.buffer : null;
+    }
+
+    /**
+     * 查询线程池在时间范围内的趋势
+     *
+     * @param threadPoolId 线程池唯一标识
+     * @param fromMillis   起始时间（包含），单位毫秒
+     * @param toMillis     结束时间（包含），单位毫秒
+     * @param stepMillis   降采样步长，单位毫秒，小于等于 0 时返回原始采样点
+     * @return 趋势，未开启采样或线程池不存在时返回 null
+     */
+    public ThreadPoolTrendDTO query(String threadPoolId, long fromMillis, long toMillis, long stepMillis) {
+        ThreadPoolTrendBuffer buffer = getBuffer(threadPoolId);
+        return buffer != null ? buffer.query(fromMillis, toMillis, stepMillis) : null;
+    }
+
+    /**
+     * 查询线程池最近一段时间的趋势
+     *
+     * @param threadPoolId   线程池唯一标识
+     * @param durationMillis 时长，单位毫秒
+     * @param stepMillis     降采样步长，单位毫秒，小于等于 0 时返回原始采样点
+     * @return 趋势，未开启采样或线程池不存在时返回 null
+     */
+    public ThreadPoolTrendDTO recent(String threadPoolId, long durationMillis, long stepMillis) {
+        long now = System.currentTimeMillis();
+        return query(threadPoolId, now - durationMillis, now, stepMillis);
+    }
+
+    /**
+     * 查询告警消息附带的趋势，时长和降采样步长取自配置
+     *
+     * @param threadPoolId 线程池唯一标识
+     * @return 趋势，未开启采样、未配置时长或线程池不存在时返回 null
+     */
+    public ThreadPoolTrendDTO alarmTrend(String threadPoolId) {
+        return alarmWindowMillis > 0L ? recent(threadPoolId, alarmWindowMillis, alarmStepMillis) : null;
+    }
+
+    /**
+     * 单个线程池的趋势缓冲区和复用的快照对象，快照对象只在采样线程中使用
+     */
+    private static class PoolTrend {
+
+        private final ThreadPoolTrendBuffer buffer;
+
+        private final ThreadPoolRuntimeStats stats = new ThreadPoolRuntimeStats();
+
+        PoolTrend(ThreadPoolTrendBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package cn.yoaoso.threadpool.core.toolkit;
 
 import cn.hutool.core.lang.Assert;
 import cn.hutool.core.util.StrUtil;
+import cn.yoaoso.threadpool.core.monitor.resource.ThreadResourceAccounting;
 
 
 
@@ -42,6 +43,11 @@ public class ThreadFactoryBuilder {
      */
     private Thread.UncaughtExceptionHandler uncaughtExceptionHandler;
 
+    /**
+     * 线程所属线程池 ID，设置后线程的 CPU 时间和内存分配计入该线程池
+     */
+    private String threadPoolId;
+
     /**
      * 创建 ThreadFactoryBuilder 实例
      */
@@ -77,6 +83,11 @@ public class ThreadFactoryBuilder {
         return this;
     }
 
+    public ThreadFactoryBuilder threadPoolId(String threadPoolId) {
+        this.threadPoolId = threadPoolId;
+        return this;
+    }
+
     /**
      * 构建线程工厂实例
      */
@@ -94,7 +105,8 @@ public class ThreadFactoryBuilder {
 
         //lambda表达式
         return runnable -> {
-            Thread thread = factory.newThread(runnable);
+            // 线程启动后登记所属线程池，退出前结算资源占用
+            Thread thread = factory.newThread(ThreadResourceAccounting.track(threadPoolId, runnable));
 
             if (count != null) {
                 thread.setName(namePrefix + count.getAndIncrement());
@@ -3,7 +3,9 @@ package cn.yoaoso.threadpool.core.toolkit;
 import cn.hutool.core.lang.Assert;
 
 import cn.yoaoso.threadpool.core.executor.TidePoolExecutor;
+import cn.yoaoso.threadpool.core.executor.VirtualThreadTidePoolExecutor;
 import cn.yoaoso.threadpool.core.executor.support.BlockingQueueTypeEnum;
+import cn.yoaoso.threadpool.core.executor.support.EagerTaskQueue;
 import lombok.Getter;
 
 import java.util.Optional;
@@ -51,6 +53,11 @@ public class ThreadPoolExecutorBuilder {
      */
     private ThreadFactory threadFactory;
 
+    /**
+     * 按线程名前缀设置的线程工厂，构建线程池时补充线程池 ID，线程的资源占用计入该线程池
+     */
+    private ThreadFactoryBuilder threadFactoryBuilder;
+
     /**
      * 线程空闲存活时间（单位：秒）
      */
@@ -66,6 +73,16 @@ public class ThreadPoolExecutorBuilder {
      */
     private boolean dynamicPool = false;
 
+    /**
+     * eager 模式标识，线程优先扩容，仅动态线程池支持
+     */
+    private boolean eagerMode = false;
+
+    /**
+     * 虚拟线程标识，仅动态线程池支持
+     */
+    private boolean virtualThread = false;
+
     /**
      * 最大等待时间
      */
@@ -79,6 +96,26 @@ public class ThreadPoolExecutorBuilder {
         return this;
     }
 
+    /**
+     * 开启 eager 模式：线程数未达到最大线程数时优先创建线程，线程打满后才排队
+     * <p>
+     * 开启后阻塞队列类型固定为 {@link EagerTaskQueue}，队列容量仍然支持动态调整
+     */
+    public ThreadPoolExecutorBuilder eagerMode() {
+        this.eagerMode = true;
+        return this;
+    }
+
+    /**
+     * 使用虚拟线程执行任务（需要 JDK 21+），最大线程数作为并发上限，支持动态调整
+     * <p>
+     * 开启后线程由虚拟线程工厂创建，线程名为 threadPoolId_virtual_N，无需再设置线程工厂
+     */
+    public ThreadPoolExecutorBuilder virtualThread() {
+        this.virtualThread = true;
+        return this;
+    }
+
     /**
      * 设置线程池唯一标识
      *
@@ -135,9 +172,9 @@ public class ThreadPoolExecutorBuilder {
      * @param namePrefix 线程名前缀，如 "onethread-"，线程名形如：onethread-1
      */
     public ThreadPoolExecutorBuilder threadFactory(String namePrefix) {
-        this.threadFactory = ThreadFactoryBuilder.builder()
-                .namePrefix(namePrefix)
-                .build();
+        this.threadFactoryBuilder = ThreadFactoryBuilder.builder()
+                .namePrefix(namePrefix);
+        this.threadFactory = null;
         return this;
     }
 
@@ -151,10 +188,10 @@ public class ThreadPoolExecutorBuilder {
      * @param daemon     是否为守护线程（true 表示不会阻止 JVM 退出）
      */
     public ThreadPoolExecutorBuilder threadFactory(String namePrefix, Boolean daemon) {
-        this.threadFactory = ThreadFactoryBuilder.builder()
+        this.threadFactoryBuilder = ThreadFactoryBuilder.builder()
                 .namePrefix(namePrefix)
-                .daemon(daemon)
-                .build();
+                .daemon(daemon);
+        this.threadFactory = null;
         return this;
     }
 
@@ -165,6 +202,7 @@ public class ThreadPoolExecutorBuilder {
      */
     public ThreadPoolExecutorBuilder threadFactory(ThreadFactory threadFactory) {
         this.threadFactory = threadFactory;
+        this.threadFactoryBuilder = null;
         return this;
     }
 
@@ -219,14 +257,34 @@ public class ThreadPoolExecutorBuilder {
      * 构建线程池实例
      */
     public ThreadPoolExecutor build() {
-        BlockingQueue<Runnable> blockingQueue = BlockingQueueTypeEnum.createBlockingQueue(workQueueType.getName(), workQueueCapacity);
+        Assert.isFalse(eagerMode && !dynamicPool, "The eager mode is only supported by dynamic thread pool.");
+        Assert.isFalse(virtualThread && !dynamicPool, "The virtual thread is only supported by dynamic thread pool.");
+        Assert.isFalse(virtualThread && eagerMode, "The eager mode is not supported by virtual thread pool.");
+        BlockingQueue<Runnable> blockingQueue = eagerMode
+                ? new EagerTaskQueue(workQueueCapacity)
+                : BlockingQueueTypeEnum.createBlockingQueue(workQueueType.getName(), workQueueCapacity);
         RejectedExecutionHandler rejectedHandler = Optional.ofNullable(this.rejectedHandler)
                 .orElseGet(() -> new ThreadPoolExecutor.AbortPolicy());
 
-        Assert.notNull(threadFactory, "The thread factory cannot be null.");
+        // 虚拟线程池使用内置的虚拟线程工厂
+        ThreadFactory threadFactory = threadFactoryBuilder != null
+                ? threadFactoryBuilder.threadPoolId(threadPoolId).build()
+                : this.threadFactory;
+        Assert.isTrue(virtualThread || threadFactory != null, "The thread factory cannot be null.");
 
         ThreadPoolExecutor threadPoolExecutor;
-        if (dynamicPool) {
+        if (virtualThread) {
+            threadPoolExecutor = new VirtualThreadTidePoolExecutor(
+                    threadPoolId,
+                    corePoolSize,
+                    maximumPoolSize,
+                    keepAliveTime,
+                    TimeUnit.SECONDS,
+                    blockingQueue,
+                    rejectedHandler,
+                    awaitTerminationMillis
+            );
+        } else if (dynamicPool) {
             threadPoolExecutor = new TidePoolExecutor(
                     threadPoolId,
                     corePoolSize,
@@ -0,0 +1,45 @@
+package cn.yoaoso.threadpool.core.toolkit;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * @author Drayd
+ * @description 按安全顺序调整线程池核心线程数和最大线程数，配置中心刷新和自动扩缩容共用
+ * <p>
+ * ThreadPoolExecutor 要求任意时刻核心线程数不大于最大线程数，两者同时调整时必须按方向决定先后顺序
+ * @create 2026-10-18 14:05
+ */
+public final class ThreadPoolSizeUpdater {
+
+    private ThreadPoolSizeUpdater() {
+    }
+
+    /**
+     * 调整核心线程数和最大线程数，为空的参数保持不变
+     *
+     * @param executor        线程池
+     * @param corePoolSize    新的核心线程数
+     * @param maximumPoolSize 新的最大线程数
+     */
+    public static void update(ThreadPoolExecutor executor, Integer corePoolSize, Integer maximumPoolSize) {
+        if (corePoolSize != null && maximumPoolSize != null) {
+            int originalMaximumPoolSize = executor.getMaximumPoolSize();
+            // 1. 如果新核心数 > 旧最大数：必须先调大 Max，再调大 Core
+            if (corePoolSize > originalMaximumPoolSize) {
+                executor.setMaximumPoolSize(maximumPoolSize);
+                executor.setCorePoolSize(corePoolSize);
+            } else {
+                // 2. 否则：先调 Core，再调 Max
+                executor.setCorePoolSize(corePoolSize);
+                executor.setMaximumPoolSize(maximumPoolSize);
+            }
+        } else {
+            if (maximumPoolSize != null) {
+                executor.setMaximumPoolSize(maximumPoolSize);
+            }
+            if (corePoolSize != null) {
+                executor.setCorePoolSize(corePoolSize);
+            }
+        }
+    }
+}
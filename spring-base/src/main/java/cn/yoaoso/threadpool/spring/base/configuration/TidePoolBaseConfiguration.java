@@ -1,10 +1,14 @@
 package cn.yoaoso.threadpool.spring.base.configuration;
 
 import cn.yoaoso.threadpool.core.alarm.ThreadPoolAlarmChecker;
+import cn.yoaoso.threadpool.core.autoscale.ThreadPoolAutoScaler;
 import cn.yoaoso.threadpool.core.config.BootstrapConfigProperties;
+import cn.yoaoso.threadpool.core.monitor.resource.ThreadPoolResourceCollector;
 import cn.yoaoso.threadpool.core.monitor.service.NotifierDispatcher;
+import cn.yoaoso.threadpool.core.monitor.trend.ThreadPoolTrendRecorder;
 import cn.yoaoso.threadpool.spring.base.support.ApplicationContextHolder;
 import cn.yoaoso.threadpool.spring.base.support.TidePoolBeanPostProcessor;
+import cn.yoaoso.threadpool.spring.base.support.TidePoolShutdownLifecycle;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.DependsOn;
 
@@ -32,8 +36,28 @@ public class TidePoolBaseConfiguration {
 
 
     @Bean(initMethod = "start", destroyMethod = "stop")
-    public ThreadPoolAlarmChecker threadPoolAlarmChecker(NotifierDispatcher notifierDispatcher) {
-        return new ThreadPoolAlarmChecker(notifierDispatcher);
+    public ThreadPoolTrendRecorder threadPoolTrendRecorder(BootstrapConfigProperties properties) {
+        return new ThreadPoolTrendRecorder(properties.getMonitor().getTrend());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ThreadPoolResourceCollector threadPoolResourceCollector(BootstrapConfigProperties properties) {
+        return new ThreadPoolResourceCollector(properties.getMonitor().getResource());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ThreadPoolAlarmChecker threadPoolAlarmChecker(NotifierDispatcher notifierDispatcher, ThreadPoolTrendRecorder threadPoolTrendRecorder) {
+        return new ThreadPoolAlarmChecker(notifierDispatcher, threadPoolTrendRecorder);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ThreadPoolAutoScaler threadPoolAutoScaler(NotifierDispatcher notifierDispatcher) {
+        return new ThreadPoolAutoScaler(notifierDispatcher);
+    }
+
+    @Bean
+    public TidePoolShutdownLifecycle tidePoolShutdownLifecycle(BootstrapConfigProperties properties) {
+        return new TidePoolShutdownLifecycle(properties);
     }
 
 
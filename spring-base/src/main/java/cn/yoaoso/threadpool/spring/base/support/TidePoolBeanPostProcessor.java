@@ -1,12 +1,16 @@
 package cn.yoaoso.threadpool.spring.base.support;
 
 import cn.hutool.core.lang.Assert;
-import cn.hutool.core.util.ReflectUtil;
 import cn.yoaoso.threadpool.core.config.BootstrapConfigProperties;
+import cn.yoaoso.threadpool.core.executor.DynamicForkJoinPool;
 import cn.yoaoso.threadpool.core.executor.ThreadPoolExecutorProperties;
 import cn.yoaoso.threadpool.core.executor.ThreadPoolRegistry;
 import cn.yoaoso.threadpool.core.executor.TidePoolExecutor;
+import cn.yoaoso.threadpool.core.executor.VirtualThreadTidePoolExecutor;
+import cn.yoaoso.threadpool.core.executor.support.AdaptiveLifoBlockingQueue;
 import cn.yoaoso.threadpool.core.executor.support.BlockingQueueTypeEnum;
+import cn.yoaoso.threadpool.core.executor.support.EagerTaskQueue;
+import cn.yoaoso.threadpool.core.executor.support.SpillableBlockingQueue;
 import cn.yoaoso.threadpool.core.executor.support.RejectedPolicyTypeEnum;
 import cn.yoaoso.threadpool.spring.base.DynamicThreadPool;
 import lombok.RequiredArgsConstructor;
@@ -33,36 +37,104 @@ public class TidePoolBeanPostProcessor implements BeanPostProcessor {
     @Override
     public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
         if (bean instanceof TidePoolExecutor) {
-            DynamicThreadPool dynamicThreadPool;
-            try {
-                // 通过 IOC 容器扫描 Bean 是否存在动态线程池注解
-                dynamicThreadPool = ApplicationContextHolder.findAnnotationOnBean(beanName, DynamicThreadPool.class);
-                if (Objects.isNull(dynamicThreadPool)) {
-                    return bean;
-                }
-            } catch (Exception ex) {
-                log.error("Failed to create dynamic thread pool in annotation mode.", ex);
+            if (!isDynamicThreadPool(beanName)) {
                 return bean;
             }
 
             TidePoolExecutor tidePoolExecutor = (TidePoolExecutor) bean;
             // 它拿着线程池的 ID（threadPoolId），去 BootstrapConfigProperties（也就是 Nacos/YAML 配置）里找对应的配置项。
             // 如果代码里定义了一个动态线程池，但 Nacos 里没配参数，直接抛异常阻止启动。这是一种**Fail-Fast（快速失败）**机制。
-            ThreadPoolExecutorProperties executorProperties = properties.getExecutors()
-                    .stream()
-                    .filter(each -> Objects.equals(tidePoolExecutor.getThreadPoolId(), each.getThreadPoolId()))
-                    .findFirst()
-                    .orElseThrow(() -> new RuntimeException("The thread pool id does not exist in the configuration."));
+            ThreadPoolExecutorProperties executorProperties = findExecutorProperties(tidePoolExecutor.getThreadPoolId());
+            // 远程配置开启虚拟线程时，使用虚拟线程池替换本地声明的平台线程池
+            TidePoolExecutor registeredExecutor = tidePoolExecutor;
+            if (Boolean.TRUE.equals(executorProperties.getVirtualThread()) && !(tidePoolExecutor instanceof VirtualThreadTidePoolExecutor)) {
+                registeredExecutor = replaceWithVirtualThreadExecutor(tidePoolExecutor, executorProperties);
+            }
+
             //调用 overrideLocalThreadPoolConfig 方法，用远程配置覆盖本地硬编码的参数。
-            overrideLocalThreadPoolConfig(executorProperties, tidePoolExecutor);
+            overrideLocalThreadPoolConfig(executorProperties, registeredExecutor);
 
             // 注册到动态线程池注册器，后续监控和报警从注册器获取线程池实例。同时，参数动态变更需要依赖 ThreadPoolExecutorProperties 比对是否有边跟
-            ThreadPoolRegistry.putHolder(tidePoolExecutor.getThreadPoolId(), tidePoolExecutor, executorProperties);
+            ThreadPoolRegistry.putHolder(registeredExecutor.getThreadPoolId(), registeredExecutor, executorProperties);
+            return registeredExecutor;
+        }
+
+        if (bean instanceof DynamicForkJoinPool) {
+            if (!isDynamicThreadPool(beanName)) {
+                return bean;
+            }
+
+            DynamicForkJoinPool forkJoinPool = (DynamicForkJoinPool) bean;
+            ThreadPoolExecutorProperties executorProperties = findExecutorProperties(forkJoinPool.getThreadPoolId());
+            overrideLocalForkJoinPoolConfig(executorProperties, forkJoinPool);
+            ThreadPoolRegistry.putForkJoinHolder(forkJoinPool.getThreadPoolId(), forkJoinPool, executorProperties);
         }
 
         return bean;
     }
 
+    /**
+     * 通过 IOC 容器扫描 Bean 是否存在动态线程池注解
+     */
+    private boolean isDynamicThreadPool(String beanName) {
+        try {
+            DynamicThreadPool dynamicThreadPool = ApplicationContextHolder.findAnnotationOnBean(beanName, DynamicThreadPool.class);
+            return Objects.nonNull(dynamicThreadPool);
+        } catch (Exception ex) {
+            log.error("Failed to create dynamic thread pool in annotation mode.", ex);
+            return false;
+        }
+    }
+
+    /**
+     * 按线程池 ID 查找配置，使用注册中心的配置索引，线程池数量较多时启动耗时不随线程池数量平方增长
+     */
+    private ThreadPoolExecutorProperties findExecutorProperties(String threadPoolId) {
+        ThreadPoolExecutorProperties executorProperties = ThreadPoolRegistry.getExecutorProperties(properties.getExecutors(), threadPoolId);
+        if (executorProperties == null) {
+            throw new RuntimeException("The thread pool id does not exist in the configuration.");
+        }
+        return executorProperties;
+    }
+
+    /**
+     * 使用远程配置覆盖 ForkJoinPool 参数，核心线程数对应并行度
+     */
+    private void overrideLocalForkJoinPoolConfig(ThreadPoolExecutorProperties executorProperties, DynamicForkJoinPool forkJoinPool) {
+        Integer remoteParallelism = executorProperties.getCorePoolSize();
+        Integer remoteMaximumPoolSize = executorProperties.getMaximumPoolSize();
+        Assert.isTrue(remoteParallelism <= remoteMaximumPoolSize, "remoteCorePoolSize must be smaller than remoteMaximumPoolSize.");
+
+        // 与 ThreadPoolExecutor 相同，先放大上限再调整并行度
+        if (remoteParallelism > forkJoinPool.getMaximumPoolSize()) {
+            forkJoinPool.setMaximumPoolSize(remoteMaximumPoolSize);
+            forkJoinPool.setParallelism(remoteParallelism);
+        } else {
+            forkJoinPool.setParallelism(remoteParallelism);
+            forkJoinPool.setMaximumPoolSize(remoteMaximumPoolSize);
+        }
+    }
+
+    /**
+     * 创建虚拟线程池替换原有 Bean，队列、拒绝策略等参数随后由远程配置覆盖
+     */
+    private TidePoolExecutor replaceWithVirtualThreadExecutor(TidePoolExecutor tidePoolExecutor, ThreadPoolExecutorProperties executorProperties) {
+        VirtualThreadTidePoolExecutor virtualThreadExecutor = new VirtualThreadTidePoolExecutor(
+                tidePoolExecutor.getThreadPoolId(),
+                tidePoolExecutor.getCorePoolSize(),
+                tidePoolExecutor.getMaximumPoolSize(),
+                tidePoolExecutor.getKeepAliveTime(TimeUnit.SECONDS),
+                TimeUnit.SECONDS,
+                BlockingQueueTypeEnum.createBlockingQueue(executorProperties.getWorkQueue(), executorProperties.getQueueCapacity()),
+                RejectedPolicyTypeEnum.createPolicy(executorProperties.getRejectedHandler(), executorProperties.getRejectPolicy()),
+                tidePoolExecutor.getAwaitTerminationMillis()
+        );
+        // 原线程池尚未对外提供服务，直接关闭
+        tidePoolExecutor.shutdown();
+        log.info("Thread pool [{}] is replaced by virtual thread executor.", tidePoolExecutor.getThreadPoolId());
+        return virtualThreadExecutor;
+    }
+
     /**
      *
      */
@@ -83,18 +155,30 @@ public class TidePoolBeanPostProcessor implements BeanPostProcessor {
             tidePoolExecutor.setMaximumPoolSize(remoteMaximumPoolSize);
         }
 
-        // 阻塞队列没有常规 set 方法，所以使用反射赋值
-        BlockingQueue workQueue = BlockingQueueTypeEnum.createBlockingQueue(executorProperties.getWorkQueue(), executorProperties.getQueueCapacity());
-        // Java 9+ 的模块系统（JPMS）默认禁止通过反射访问 JDK 内部 API 的私有字段，所以需要配置开放反射权限
-        // 在启动命令中增加以下参数，显式开放 java.util.concurrent 包
-        // IDE 中通过在 VM options 中添加参数：--add-opens=java.base/java.util.concurrent=ALL-UNNAMED
-        // 部署的时候，在启动脚本（如 java -jar 命令）中加入该参数：java -jar --add-opens=java.base/java.util.concurrent=ALL-UNNAMED your-app.jar
-        ReflectUtil.setFieldValue(tidePoolExecutor, "workQueue", workQueue);
+        // 远程未配置 eager 模式时沿用本地构建时的模式，虚拟线程池不支持 eager 模式
+        boolean eagerMode = !(tidePoolExecutor instanceof VirtualThreadTidePoolExecutor)
+                && (executorProperties.getEagerMode() != null
+                ? executorProperties.getEagerMode()
+                : tidePoolExecutor.getWorkQueue() instanceof EagerTaskQueue);
+        BlockingQueue<Runnable> workQueue;
+        if (eagerMode) {
+            workQueue = new EagerTaskQueue(executorProperties.getQueueCapacity());
+        } else {
+            workQueue = BlockingQueueTypeEnum.createBlockingQueue(executorProperties.getWorkQueue(), executorProperties.getQueueCapacity());
+            if (workQueue instanceof AdaptiveLifoBlockingQueue && executorProperties.getLifoThresholdMillis() != null) {
+                ((AdaptiveLifoBlockingQueue<?>) workQueue).setLifoThreshold(executorProperties.getLifoThresholdMillis(), TimeUnit.MILLISECONDS);
+            }
+            if (workQueue instanceof SpillableBlockingQueue) {
+                ((SpillableBlockingQueue) workQueue).configure(executorProperties.getSpill());
+            }
+        }
+        // 线程池构建在可切换实现的队列上，直接替换内部队列，不再需要反射和 --add-opens 参数
+        tidePoolExecutor.switchWorkQueue(workQueue);
 
         // 赋值动态线程池其他核心参数
         tidePoolExecutor.setKeepAliveTime(executorProperties.getKeepAliveTime(), TimeUnit.SECONDS);
         tidePoolExecutor.allowCoreThreadTimeOut(executorProperties.getAllowCoreThreadTimeOut());
-        tidePoolExecutor. setRejectedExecutionHandler(RejectedPolicyTypeEnum.createPolicy(executorProperties.getRejectedHandler()));
+        tidePoolExecutor. setRejectedExecutionHandler(RejectedPolicyTypeEnum.createPolicy(executorProperties.getRejectedHandler(), executorProperties.getRejectPolicy()));
     }
 
 }
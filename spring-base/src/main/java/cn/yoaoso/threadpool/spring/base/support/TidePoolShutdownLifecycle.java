@@ -0,0 +1,188 @@
+package cn.yoaoso.threadpool.spring.base.support;
+
+import cn.yoaoso.threadpool.core.config.BootstrapConfigProperties;
+import cn.yoaoso.threadpool.core.executor.DynamicForkJoinPool;
+import cn.yoaoso.threadpool.core.executor.ForkJoinPoolHolder;
+import cn.yoaoso.threadpool.core.executor.ThreadPoolExecutorHolder;
+import cn.yoaoso.threadpool.core.executor.ThreadPoolRegistry;
+import cn.yoaoso.threadpool.core.executor.ThreadPoolRuntimeStats;
+import cn.yoaoso.threadpool.core.executor.TidePoolExecutor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Drayd
+ * @description 动态线程池优雅停机，应用上下文关闭时统一关闭注册中心中的所有线程池
+ * <p>
+ * 所有线程池先同时调用 shutdown 停止接收新任务并并行执行剩余任务，再按各自的截止时间依次等待：
+ * 每个线程池的截止时间为停机开始时刻加上自身的 awaitTerminationMillis，且不超过全局超时时间，因此总耗时由最慢的线程池决定而不是累加
+ * 超过截止时间仍未结束的线程池调用 shutdownNow，队列中尚未执行的任务记为放弃；awaitTerminationMillis 未设置的线程池只调用 shutdown，不等待
+ * <p>
+ * 停止阶段晚于 Web 容器的优雅停机，入口流量停止后再排空线程池
+ * @create 2026-10-18 15:50
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TidePoolShutdownLifecycle implements SmartLifecycle {
+
+    /**
+     * 停止阶段，小于 Web 容器优雅停机（DEFAULT_PHASE - 1024）和 Web 容器停止（DEFAULT_PHASE - 2048）的阶段，在其之后停止
+     */
+    public static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final BootstrapConfigProperties properties;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        try {
+            shutdownAll();
+        } finally {
+            running = false;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void shutdownAll() {
+        long startNanos = System.nanoTime();
+        long globalTimeoutMillis = Math.max(0L, Objects.requireNonNullElse(properties.getShutdownTimeoutMillis(), 0L));
+
+        // 先全部 shutdown，所有线程池同时开始排空
+        List<ShutdownTarget> targets = new ArrayList<>();
+        for (ThreadPoolExecutorHolder holder : ThreadPoolRegistry.getAllHolders()) {
+            ThreadPoolExecutor executor = holder.getExecutor();
+            long awaitMillis = executor instanceof TidePoolExecutor ? ((TidePoolExecutor) executor).getAwaitTerminationMillis() : 0L;
+            targets.add(new ShutdownTarget(holder.getThreadPoolId(), executor, false,
+                    Math.min(awaitMillis, globalTimeoutMillis), completedTaskCount(executor)));
+        }
+        for (ForkJoinPoolHolder holder : ThreadPoolRegistry.getAllForkJoinHolders()) {
+            DynamicForkJoinPool forkJoinPool = holder.getForkJoinPool();
+            // ForkJoinPool 没有单独的等待时间配置，使用全局超时时间
+            targets.add(new ShutdownTarget(holder.getThreadPoolId(), forkJoinPool, true,
+                    globalTimeoutMillis, queuedTaskCount(forkJoinPool)));
+        }
+        if (targets.isEmpty()) {
+            return;
+        }
+        targets.forEach(each -> each.executor.shutdown());
+
+        // 截止时间都以停机开始时刻为起点，按截止时间先后等待，等价于并行等待
+        targets.sort(Comparator.comparingLong(each -> each.awaitMillis));
+        long totalDrained = 0L;
+        long totalAbandoned = 0L;
+        for (ShutdownTarget target : targets) {
+            long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(target.awaitMillis);
+            awaitTermination(target, deadlineNanos);
+            totalDrained += target.drained;
+            totalAbandoned += target.abandoned;
+            if (target.forkJoin) {
+                ThreadPoolRegistry.removeForkJoinHolder(target.threadPoolId);
+            } else {
+                ThreadPoolRegistry.removeHolder(target.threadPoolId);
+            }
+        }
+
+        log.info("Dynamic thread pools shut down, pools: {}, drained tasks: {}, abandoned tasks: {}, elapsed: {} ms.",
+                targets.size(), totalDrained, totalAbandoned, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    private void awaitTermination(ShutdownTarget target, long deadlineNanos) {
+        boolean terminated = target.awaitMillis <= 0L;
+        if (!terminated) {
+            try {
+                terminated = target.executor.awaitTermination(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (target.awaitMillis > 0L && !terminated) {
+            if (target.forkJoin) {
+                // ForkJoinPool.shutdownNow 不返回未执行的任务，以强制关闭前的排队任务数计
+                target.abandoned = queuedTaskCount((DynamicForkJoinPool) target.executor);
+                target.executor.shutdownNow();
+            } else {
+                target.abandoned = target.executor.shutdownNow().size();
+            }
+        }
+
+        if (target.forkJoin) {
+            target.drained = Math.max(0L, target.baseline - target.abandoned);
+        } else {
+            target.drained = completedTaskCount((ThreadPoolExecutor) target.executor) - target.baseline;
+        }
+        if (target.awaitMillis <= 0L) {
+            log.info("[{}] Thread pool shutdown without waiting, drained tasks so far: {}.", target.threadPoolId, target.drained);
+        } else if (terminated) {
+            log.info("[{}] Thread pool terminated gracefully, drained tasks: {}.", target.threadPoolId, target.drained);
+        } else {
+            log.warn("[{}] Thread pool did not terminate within {} ms, drained tasks: {}, abandoned tasks: {}.",
+                    target.threadPoolId, target.awaitMillis, target.drained, target.abandoned);
+        }
+    }
+
+    private static long completedTaskCount(ThreadPoolExecutor executor) {
+        return ThreadPoolRuntimeStats.of(executor).getCompletedTaskCount();
+    }
+
+    private static long queuedTaskCount(DynamicForkJoinPool forkJoinPool) {
+        return forkJoinPool.getQueuedSubmissionCount() + forkJoinPool.getQueuedTaskCount();
+    }
+
+    /**
+     * 待关闭的线程池
+     */
+    private static class ShutdownTarget {
+
+        private final String threadPoolId;
+
+        private final ExecutorService executor;
+
+        private final boolean forkJoin;
+
+        /**
+         * 最长等待时间，单位毫秒
+         */
+        private final long awaitMillis;
+
+        /**
+         * 关闭前的基准值，线程池为已完成任务数，ForkJoinPool 为排队任务数
+         */
+        private final long baseline;
+
+        private long drained;
+
+        private long abandoned;
+
+        ShutdownTarget(String threadPoolId, ExecutorService executor, boolean forkJoin, long awaitMillis, long baseline) {
+            this.threadPoolId = threadPoolId;
+            this.executor = executor;
+            this.forkJoin = forkJoin;
+            this.awaitMillis = awaitMillis;
+            this.baseline = baseline;
+        }
+    }
+}
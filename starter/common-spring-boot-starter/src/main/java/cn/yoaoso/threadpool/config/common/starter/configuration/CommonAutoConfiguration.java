@@ -1,11 +1,14 @@
 package cn.yoaoso.threadpool.config.common.starter.configuration;
 
 import cn.yoaoso.threadpool.config.common.starter.refresher.DynamicThreadPoolRefreshListener;
+import cn.yoaoso.threadpool.core.monitor.metrics.PrometheusMetricsExporter;
+import cn.yoaoso.threadpool.core.monitor.metrics.ThreadPoolMetricsBinder;
 import cn.yoaoso.threadpool.core.monitor.service.NotifierDispatcher;
 import cn.yoaoso.threadpool.spring.base.configuration.TidePoolBaseConfiguration;
 import cn.yoaoso.threadpool.spring.base.enable.MarkerConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.bind.Bindable;
 import org.springframework.boot.context.properties.bind.Binder;
@@ -41,4 +44,24 @@ public class CommonAutoConfiguration {
         return new DynamicThreadPoolRefreshListener(notifierDispatcher);
     }
 
+    /**
+     * 监控开启且采集类型为 micrometer 时注册，由 Spring Boot Actuator 绑定到容器中的 MeterRegistry
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnExpression("${" + BootstrapConfigProperties.PREFIX + ".monitor.enable:true} and '${"
+            + BootstrapConfigProperties.PREFIX + ".monitor.collect-type:micrometer}'.equalsIgnoreCase('micrometer')")
+    public ThreadPoolMetricsBinder threadPoolMetricsBinder(BootstrapConfigProperties properties) {
+        return new ThreadPoolMetricsBinder(properties.getMonitor());
+    }
+
+    /**
+     * 监控开启且显式开启 Prometheus 导出端点时注册，适用于未引入 Actuator 的应用
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnExpression("${" + BootstrapConfigProperties.PREFIX + ".monitor.enable:true} and ${"
+            + BootstrapConfigProperties.PREFIX + ".monitor.prometheus.enable:false}")
+    public PrometheusMetricsExporter prometheusMetricsExporter(BootstrapConfigProperties properties) {
+        return new PrometheusMetricsExporter(properties.getMonitor());
+    }
+
 }
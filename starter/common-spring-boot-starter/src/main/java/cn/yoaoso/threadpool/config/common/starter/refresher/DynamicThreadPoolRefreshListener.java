@@ -3,14 +3,22 @@ package cn.yoaoso.threadpool.config.common.starter.refresher;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.date.DateUtil;
 import cn.yoaoso.threadpool.core.config.BootstrapConfigProperties;
+import cn.yoaoso.threadpool.core.executor.DynamicForkJoinPool;
+import cn.yoaoso.threadpool.core.executor.ForkJoinPoolHolder;
 import cn.yoaoso.threadpool.core.executor.ThreadPoolExecutorHolder;
 import cn.yoaoso.threadpool.core.executor.ThreadPoolExecutorProperties;
 import cn.yoaoso.threadpool.core.executor.ThreadPoolRegistry;
+import cn.yoaoso.threadpool.core.executor.TidePoolExecutor;
+import cn.yoaoso.threadpool.core.executor.support.AdaptiveLifoBlockingQueue;
 import cn.yoaoso.threadpool.core.executor.support.BlockingQueueTypeEnum;
+import cn.yoaoso.threadpool.core.executor.support.EagerTaskQueue;
 import cn.yoaoso.threadpool.core.executor.support.RejectedPolicyTypeEnum;
-import cn.yoaoso.threadpool.core.executor.support.ResizableCapacityLinkedBlockingQueue;
+import cn.yoaoso.threadpool.core.executor.support.ResizableCapacityBlockingQueue;
+import cn.yoaoso.threadpool.core.executor.support.SpillableBlockingQueue;
+import cn.yoaoso.threadpool.core.jfr.ConfigRefreshedEvent;
 import cn.yoaoso.threadpool.core.monitor.dto.ThreadPoolConfigChangeDTO;
 import cn.yoaoso.threadpool.core.monitor.service.NotifierDispatcher;
+import cn.yoaoso.threadpool.core.toolkit.ThreadPoolSizeUpdater;
 import cn.yoaoso.threadpool.spring.base.support.ApplicationContextHolder;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
@@ -25,6 +33,7 @@ import java.util.Objects;
 import java.util.concurrent.*;
 
 import static cn.yoaoso.threadpool.core.constant.Constants.CHANGE_DELIMITER;
+import static cn.yoaoso.threadpool.core.constant.Constants.CHANGE_FORK_JOIN_POOL_TEXT;
 import static cn.yoaoso.threadpool.core.constant.Constants.CHANGE_THREAD_POOL_TEXT;
 
 /**
@@ -44,29 +53,47 @@ public class DynamicThreadPoolRefreshListener implements ApplicationListener<Thr
         //拿到最新的配置 (BootstrapConfigProperties)
         BootstrapConfigProperties refresherProperties = event.getBootstrapConfigProperties();
 
+        // 配置绑定可能原地修改启动时的配置列表，按列表实例缓存的配置索引需要重建
+        ThreadPoolRegistry.rebuildExecutorPropertiesIndex(refresherProperties.getExecutors());
+
         // 检查远程配置文件是否包含线程池配置
         if (CollUtil.isEmpty(refresherProperties.getExecutors())) {
             return;
         }
 
-        // 刷新动态线程池对象核心参数
+        // 刷新动态线程池对象核心参数，每个线程池只查找一次注册中心，配置未变化的线程池直接跳过
         for (ThreadPoolExecutorProperties remoteProperties : refresherProperties.getExecutors()) {
             String threadPoolId = remoteProperties.getThreadPoolId();
-            // 以线程池 ID 为粒度加锁，避免多个线程同时刷新同一个线程池
-            synchronized (threadPoolId.intern()) {
-                // 检查线程池配置是否发生变化（与当前内存中的配置对比）
-                boolean changed = hasThreadPoolConfigChanged(remoteProperties);
-                if (!changed) {
+            // 以线程池为粒度加锁，避免多个线程同时刷新同一个线程池
+            synchronized (ThreadPoolRegistry.getLock(threadPoolId)) {
+                // ForkJoinPool 只支持调整并行度和最大线程数，单独处理
+                ForkJoinPoolHolder forkJoinHolder = ThreadPoolRegistry.getForkJoinHolder(threadPoolId);
+                if (forkJoinHolder != null) {
+                    if (!remoteProperties.equals(forkJoinHolder.getExecutorProperties())) {
+                        refreshForkJoinPool(forkJoinHolder, remoteProperties);
+                    }
                     continue;
                 }
 
-                // 将远程配置应用到线程池，更新相关参数
-                updateThreadPoolFromRemoteConfig(remoteProperties);
-
-                // 线程池参数变更后进行日志打印
                 ThreadPoolExecutorHolder holder = ThreadPoolRegistry.getHolder(threadPoolId);
+                if (holder == null) {
+                    log.warn("No thread pool found for thread pool id: {}", threadPoolId);
+                    continue;
+                }
+
+                // 检查线程池配置是否发生变化（与当前内存中的配置对比），配置完全相同时无需逐项比对
                 ThreadPoolExecutorProperties originalProperties = holder.getExecutorProperties();
+                if (remoteProperties.equals(originalProperties)
+                        || !hasDifference(originalProperties, remoteProperties, holder.getExecutor())) {
+                    continue;
+                }
+
+                // 将远程配置应用到线程池，更新相关参数，应用耗时记录为 JFR 事件
+                ConfigRefreshedEvent refreshedEvent = new ConfigRefreshedEvent();
+                refreshedEvent.begin();
+                updateThreadPoolFromRemoteConfig(holder, remoteProperties);
                 holder.setExecutorProperties(remoteProperties);
+                refreshedEvent.commit(threadPoolId, originalProperties, remoteProperties);
 
                 // 发送线程池配置变更消息通知
                 sendThreadPoolConfigChangeMessage(originalProperties, remoteProperties);
@@ -76,6 +103,7 @@ public class DynamicThreadPoolRefreshListener implements ApplicationListener<Thr
                         threadPoolId,
                         String.format(CHANGE_DELIMITER, originalProperties.getCorePoolSize(), remoteProperties.getCorePoolSize()),
                         String.format(CHANGE_DELIMITER, originalProperties.getMaximumPoolSize(), remoteProperties.getMaximumPoolSize()),
+                        String.format(CHANGE_DELIMITER, originalProperties.getWorkQueue(), remoteProperties.getWorkQueue()),
                         String.format(CHANGE_DELIMITER, originalProperties.getQueueCapacity(), remoteProperties.getQueueCapacity()),
                         String.format(CHANGE_DELIMITER, originalProperties.getKeepAliveTime(), remoteProperties.getKeepAliveTime()),
                         String.format(CHANGE_DELIMITER, originalProperties.getRejectedHandler(), remoteProperties.getRejectedHandler()),
@@ -85,45 +113,56 @@ public class DynamicThreadPoolRefreshListener implements ApplicationListener<Thr
         }
     }
 
-    private boolean hasThreadPoolConfigChanged(ThreadPoolExecutorProperties remoteProperties) {
-        String threadPoolId = remoteProperties.getThreadPoolId();
-        ThreadPoolExecutorHolder holder = ThreadPoolRegistry.getHolder(threadPoolId);
-        if (holder == null) {
-            log.warn("No thread pool found for thread pool id: {}", threadPoolId);
-            return false;
-        }
-        ThreadPoolExecutor executor = holder.getExecutor();
+    private void refreshForkJoinPool(ForkJoinPoolHolder holder, ThreadPoolExecutorProperties remoteProperties) {
         ThreadPoolExecutorProperties originalProperties = holder.getExecutorProperties();
+        if (!isChanged(originalProperties.getCorePoolSize(), remoteProperties.getCorePoolSize())
+                && !isChanged(originalProperties.getMaximumPoolSize(), remoteProperties.getMaximumPoolSize())) {
+            return;
+        }
 
-        return hasDifference(originalProperties, remoteProperties, executor);
+        ConfigRefreshedEvent refreshedEvent = new ConfigRefreshedEvent();
+        refreshedEvent.begin();
+        // 核心线程数对应并行度，未配置的参数保持不变
+        DynamicForkJoinPool forkJoinPool = holder.getForkJoinPool();
+        int remoteParallelism = Objects.requireNonNullElse(remoteProperties.getCorePoolSize(), forkJoinPool.getParallelism());
+        int remoteMaximumPoolSize = Objects.requireNonNullElse(remoteProperties.getMaximumPoolSize(), forkJoinPool.getMaximumPoolSize());
+        if (remoteParallelism > forkJoinPool.getMaximumPoolSize()) {
+            forkJoinPool.setMaximumPoolSize(remoteMaximumPoolSize);
+            forkJoinPool.setParallelism(remoteParallelism);
+        } else {
+            forkJoinPool.setParallelism(remoteParallelism);
+            forkJoinPool.setMaximumPoolSize(remoteMaximumPoolSize);
+        }
+        holder.setExecutorProperties(remoteProperties);
+        refreshedEvent.commit(holder.getThreadPoolId(), originalProperties, remoteProperties);
+
+        sendThreadPoolConfigChangeMessage(originalProperties, remoteProperties);
+        log.info(CHANGE_FORK_JOIN_POOL_TEXT,
+                holder.getThreadPoolId(),
+                String.format(CHANGE_DELIMITER, originalProperties.getCorePoolSize(), remoteParallelism),
+                String.format(CHANGE_DELIMITER, originalProperties.getMaximumPoolSize(), remoteMaximumPoolSize)
+        );
     }
 
-    private void updateThreadPoolFromRemoteConfig(ThreadPoolExecutorProperties remoteProperties) {
-        String threadPoolId = remoteProperties.getThreadPoolId();
-        ThreadPoolExecutorHolder holder = ThreadPoolRegistry.getHolder(threadPoolId);
+    private void updateThreadPoolFromRemoteConfig(ThreadPoolExecutorHolder holder, ThreadPoolExecutorProperties remoteProperties) {
         ThreadPoolExecutor executor = holder.getExecutor();
         ThreadPoolExecutorProperties originalProperties = holder.getExecutorProperties();
 
-        Integer remoteCorePoolSize = remoteProperties.getCorePoolSize();
-        Integer remoteMaximumPoolSize = remoteProperties.getMaximumPoolSize();
-        if (remoteCorePoolSize != null && remoteMaximumPoolSize != null) {
-            int originalMaximumPoolSize = executor.getMaximumPoolSize();
-            // 1. 如果新核心数 > 旧最大数：必须先调大 Max，再调大 Core
-            if (remoteCorePoolSize > originalMaximumPoolSize) {
-                executor.setMaximumPoolSize(remoteMaximumPoolSize);
-                executor.setCorePoolSize(remoteCorePoolSize);
-            } else {
-                // 2. 否则：先调 Core，再调 Max（或者顺序无所谓，但习惯上这样写）
-                executor.setCorePoolSize(remoteCorePoolSize);
-                executor.setMaximumPoolSize(remoteMaximumPoolSize);
-            }
-        } else {
-            if (remoteMaximumPoolSize != null) {
-                executor.setMaximumPoolSize(remoteMaximumPoolSize);
+        // 按安全顺序调整核心线程数和最大线程数
+        ThreadPoolSizeUpdater.update(executor, remoteProperties.getCorePoolSize(), remoteProperties.getMaximumPoolSize());
+
+        // 切换队列类型，排队中的任务迁移到新队列，新队列按最新的容量、LIFO 阈值和溢出配置创建
+        if (isWorkQueueChanged(originalProperties, remoteProperties, executor)) {
+            Integer queueCapacity = Objects.requireNonNullElse(remoteProperties.getQueueCapacity(), originalProperties.getQueueCapacity());
+            BlockingQueue<Runnable> workQueue = BlockingQueueTypeEnum.createBlockingQueue(remoteProperties.getWorkQueue(), queueCapacity);
+            Long lifoThresholdMillis = Objects.requireNonNullElse(remoteProperties.getLifoThresholdMillis(), originalProperties.getLifoThresholdMillis());
+            if (workQueue instanceof AdaptiveLifoBlockingQueue && lifoThresholdMillis != null) {
+                ((AdaptiveLifoBlockingQueue<?>) workQueue).setLifoThreshold(lifoThresholdMillis, TimeUnit.MILLISECONDS);
             }
-            if (remoteCorePoolSize != null) {
-                executor.setCorePoolSize(remoteCorePoolSize);
+            if (workQueue instanceof SpillableBlockingQueue) {
+                ((SpillableBlockingQueue) workQueue).configure(Objects.requireNonNullElse(remoteProperties.getSpill(), originalProperties.getSpill()));
             }
+            ((TidePoolExecutor) executor).switchWorkQueue(workQueue);
         }
 
         if (remoteProperties.getAllowCoreThreadTimeOut() != null &&
@@ -131,9 +170,11 @@ public class DynamicThreadPoolRefreshListener implements ApplicationListener<Thr
             executor.allowCoreThreadTimeOut(remoteProperties.getAllowCoreThreadTimeOut());
         }
 
-        if (remoteProperties.getRejectedHandler() != null &&
-                !Objects.equals(remoteProperties.getRejectedHandler(), originalProperties.getRejectedHandler())) {
-            RejectedExecutionHandler handler = RejectedPolicyTypeEnum.createPolicy(remoteProperties.getRejectedHandler());
+        // 拒绝策略类型或参数变化时重新创建策略，带计数器的策略计数从零开始
+        if (isRejectedHandlerChanged(originalProperties, remoteProperties)) {
+            String rejectedHandler = Objects.requireNonNullElse(remoteProperties.getRejectedHandler(), originalProperties.getRejectedHandler());
+            RejectedExecutionHandler handler = RejectedPolicyTypeEnum.createPolicy(rejectedHandler,
+                    Objects.requireNonNullElse(remoteProperties.getRejectPolicy(), originalProperties.getRejectPolicy()));
             executor.setRejectedExecutionHandler(handler);
         }
 
@@ -142,10 +183,22 @@ public class DynamicThreadPoolRefreshListener implements ApplicationListener<Thr
             executor.setKeepAliveTime(remoteProperties.getKeepAliveTime(), TimeUnit.SECONDS);
         }
 
-        // 更新队列容量（仅对 ResizableCapacityLinkedBlockingQueue 生效）
+        // 更新 LIFO 切换阈值（仅对 AdaptiveLifoBlockingQueue 生效）
+        if (isLifoThresholdChanged(originalProperties, remoteProperties, executor)) {
+            AdaptiveLifoBlockingQueue<?> lifoQueue = (AdaptiveLifoBlockingQueue<?>) TidePoolExecutor.workQueueOf(executor);
+            lifoQueue.setLifoThreshold(remoteProperties.getLifoThresholdMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        // 更新磁盘溢出配置（仅对 SpillableBlockingQueue 生效，只影响之后创建的分段文件）
+        if (isSpillChanged(originalProperties, remoteProperties, executor)) {
+            SpillableBlockingQueue spillQueue = (SpillableBlockingQueue) TidePoolExecutor.workQueueOf(executor);
+            spillQueue.configure(remoteProperties.getSpill());
+        }
+
+        // 更新队列容量（仅对实现了 ResizableCapacityBlockingQueue 的队列生效）
         if (isQueueCapacityChanged(originalProperties, remoteProperties, executor)) {
-            BlockingQueue<Runnable> queue = executor.getQueue();
-            ResizableCapacityLinkedBlockingQueue<?> resizableQueue = (ResizableCapacityLinkedBlockingQueue<?>) queue;
+            BlockingQueue<Runnable> queue = TidePoolExecutor.workQueueOf(executor);
+            ResizableCapacityBlockingQueue<?> resizableQueue = (ResizableCapacityBlockingQueue<?>) queue;
             resizableQueue.setCapacity(remoteProperties.getQueueCapacity());
         }
     }
@@ -157,24 +210,59 @@ public class DynamicThreadPoolRefreshListener implements ApplicationListener<Thr
                 || isChanged(originalProperties.getMaximumPoolSize(), remoteProperties.getMaximumPoolSize())
                 || isChanged(originalProperties.getAllowCoreThreadTimeOut(), remoteProperties.getAllowCoreThreadTimeOut())
                 || isChanged(originalProperties.getKeepAliveTime(), remoteProperties.getKeepAliveTime())
-                || isChanged(originalProperties.getRejectedHandler(), remoteProperties.getRejectedHandler())
-                || isQueueCapacityChanged(originalProperties, remoteProperties, executor);
+                || isRejectedHandlerChanged(originalProperties, remoteProperties)
+                || isChanged(originalProperties.getAutoScale(), remoteProperties.getAutoScale())
+                || isWorkQueueChanged(originalProperties, remoteProperties, executor)
+                || isQueueCapacityChanged(originalProperties, remoteProperties, executor)
+                || isLifoThresholdChanged(originalProperties, remoteProperties, executor)
+                || isSpillChanged(originalProperties, remoteProperties, executor);
     }
 
     private <T> boolean isChanged(T before, T after) {
         return after != null && !Objects.equals(before, after);
     }
 
+    private boolean isRejectedHandlerChanged(ThreadPoolExecutorProperties originalProperties,
+                                             ThreadPoolExecutorProperties remoteProperties) {
+        return isChanged(originalProperties.getRejectedHandler(), remoteProperties.getRejectedHandler())
+                || isChanged(originalProperties.getRejectPolicy(), remoteProperties.getRejectPolicy());
+    }
+
     private boolean isQueueCapacityChanged(ThreadPoolExecutorProperties originalProperties,
                                            ThreadPoolExecutorProperties remoteProperties,
                                            ThreadPoolExecutor executor) {
         Integer remoteCapacity = remoteProperties.getQueueCapacity();
         Integer originalCapacity = originalProperties.getQueueCapacity();
-        BlockingQueue<?> queue = executor.getQueue();
+        BlockingQueue<?> queue = TidePoolExecutor.workQueueOf(executor);
 
         return remoteCapacity != null
                 && !Objects.equals(remoteCapacity, originalCapacity)
-                && Objects.equals(BlockingQueueTypeEnum.RESIZABLE_CAPACITY_LINKED_BLOCKING_QUEUE.getName(), queue.getClass().getSimpleName());
+                && queue instanceof ResizableCapacityBlockingQueue;
+    }
+
+    private boolean isLifoThresholdChanged(ThreadPoolExecutorProperties originalProperties,
+                                           ThreadPoolExecutorProperties remoteProperties,
+                                           ThreadPoolExecutor executor) {
+        return isChanged(originalProperties.getLifoThresholdMillis(), remoteProperties.getLifoThresholdMillis())
+                && TidePoolExecutor.workQueueOf(executor) instanceof AdaptiveLifoBlockingQueue;
+    }
+
+    private boolean isSpillChanged(ThreadPoolExecutorProperties originalProperties,
+                                   ThreadPoolExecutorProperties remoteProperties,
+                                   ThreadPoolExecutor executor) {
+        return isChanged(originalProperties.getSpill(), remoteProperties.getSpill())
+                && TidePoolExecutor.workQueueOf(executor) instanceof SpillableBlockingQueue;
+    }
+
+    /**
+     * 队列类型只有动态线程池支持运行时切换，eager 模式固定使用 {@link EagerTaskQueue}，不受队列类型配置影响
+     */
+    private boolean isWorkQueueChanged(ThreadPoolExecutorProperties originalProperties,
+                                       ThreadPoolExecutorProperties remoteProperties,
+                                       ThreadPoolExecutor executor) {
+        return isChanged(originalProperties.getWorkQueue(), remoteProperties.getWorkQueue())
+                && executor instanceof TidePoolExecutor
+                && !(((TidePoolExecutor) executor).getWorkQueue() instanceof EagerTaskQueue);
     }
 
     @SneakyThrows
@@ -187,9 +275,12 @@ public class DynamicThreadPoolRefreshListener implements ApplicationListener<Thr
         Map<String, ThreadPoolConfigChangeDTO.ChangePair<?>> changes = new HashMap<>();
         changes.put("corePoolSize", new ThreadPoolConfigChangeDTO.ChangePair<>(originalProperties.getCorePoolSize(), remoteProperties.getCorePoolSize()));
         changes.put("maximumPoolSize", new ThreadPoolConfigChangeDTO.ChangePair<>(originalProperties.getMaximumPoolSize(), remoteProperties.getMaximumPoolSize()));
+        changes.put("workQueue", new ThreadPoolConfigChangeDTO.ChangePair<>(originalProperties.getWorkQueue(), remoteProperties.getWorkQueue()));
         changes.put("queueCapacity", new ThreadPoolConfigChangeDTO.ChangePair<>(originalProperties.getQueueCapacity(), remoteProperties.getQueueCapacity()));
         changes.put("rejectedHandler", new ThreadPoolConfigChangeDTO.ChangePair<>(originalProperties.getRejectedHandler(), remoteProperties.getRejectedHandler()));
+        changes.put("rejectPolicy", new ThreadPoolConfigChangeDTO.ChangePair<>(originalProperties.getRejectPolicy(), remoteProperties.getRejectPolicy()));
         changes.put("keepAliveTime", new ThreadPoolConfigChangeDTO.ChangePair<>(originalProperties.getKeepAliveTime(), remoteProperties.getKeepAliveTime()));
+        changes.put("lifoThresholdMillis", new ThreadPoolConfigChangeDTO.ChangePair<>(originalProperties.getLifoThresholdMillis(), remoteProperties.getLifoThresholdMillis()));
 
         ThreadPoolConfigChangeDTO configChangeDTO = ThreadPoolConfigChangeDTO.builder()
                 .activeProfile(activeProfile)